@@ -1,5 +1,12 @@
 package com.botifier.becs.util.annotations.processor;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.processing.AbstractProcessor;
@@ -11,24 +18,54 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.MirroredTypeException;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 
 import com.botifier.becs.util.annotations.EventHandler;
 import com.google.auto.service.AutoService;
 
-
+/**
+ * EventHandlerProcessor
+ *
+ * Checks the signatures of @EventHandler methods and generates an EventHandlerTable for every listener class declaring them
+ * The table calls the handlers directly, so EventManager doesn't have to scan or bind them at runtime.
+ * Classes whose handlers a table in the same package can't call keep being bound at runtime.
+ *
+ * @author Botifier
+ */
 @SupportedAnnotationTypes(value = { "com.botifier.becs.util.annotations.EventHandler" })
 @AutoService(Processor.class)
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
 public class EventHandlerProcessor extends AbstractProcessor {
 
+	/**
+	 * Name of the interface implemented by generated tables
+	 */
+	private static final String TABLE_INTERFACE = "com.botifier.becs.util.events.EventHandlerTable";
+
+	/**
+	 * Name of the class every listener extends
+	 */
+	private static final String LISTENER_CLASS = "com.botifier.becs.util.events.EventListener";
+
+	/**
+	 * Appended to the binary name of a listener class to name its table, must match EventHandlerTable.SUFFIX
+	 */
+	private static final String TABLE_SUFFIX = "_EventHandlers";
+
 	@Override
 	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		//Valid handlers grouped by the class declaring them
+		Map<TypeElement, List<ExecutableElement>> handlers = new LinkedHashMap<>();
+		Set<TypeElement> invalid = new HashSet<>();
+
 		for (Element element : roundEnv.getElementsAnnotatedWith(EventHandler.class)) {
 			if (element.getKind() != ElementKind.METHOD) {
 				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
@@ -39,42 +76,131 @@ public class EventHandlerProcessor extends AbstractProcessor {
 
 			ExecutableElement method = (ExecutableElement) element;
 			EventHandler annotation = method.getAnnotation(EventHandler.class);
+			TypeElement owner = (TypeElement) method.getEnclosingElement();
 
 			if (method.getParameters().size() != 1) {
 				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
 						"@EventHandler method must only have one parameter",
 						element);
+				invalid.add(owner);
 				continue;
 			}
 
 			VariableElement param = method.getParameters().get(0);
 			TypeMirror paramType = param.asType();
+			TypeMirror eventType = eventType(annotation);
 
-			try {
-				TypeMirror eventType = processingEnv.getElementUtils()
-						.getTypeElement(annotation.event().getCanonicalName())
-						.asType();
-
-				Types typeUtils = processingEnv.getTypeUtils();
-				if (!typeUtils.isAssignable(eventType, paramType)) {
-					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
-							String.format("Parameter type %s is not compatible with event type %s",
-									paramType,
-									eventType),
-							param);
-				}
-			} catch (MirroredTypeException e) {
-				TypeMirror eventType = e.getTypeMirror();
-				if (!processingEnv.getTypeUtils().isAssignable(eventType, paramType)) {
-					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
-							String.format("Parameter type %s is not compatible with event type %s",
-									paramType,
-									eventType),
-							param);
-				}
+			if (!processingEnv.getTypeUtils().isAssignable(eventType, paramType)) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						String.format("Parameter type %s is not compatible with event type %s",
+								paramType,
+								eventType),
+						param);
+				invalid.add(owner);
+				continue;
 			}
+			handlers.computeIfAbsent(owner, k -> new ArrayList<>()).add(method);
+		}
+
+		for (Map.Entry<TypeElement, List<ExecutableElement>> entry : handlers.entrySet()) {
+			TypeElement listener = entry.getKey();
+			if (!invalid.contains(listener) && canGenerate(listener, entry.getValue()))
+				generateTable(listener, entry.getValue());
 		}
 		return true;
 	}
 
+	/**
+	 * Returns the event type of a handler
+	 * @param annotation EventHandler Annotation of the handler
+	 * @return TypeMirror The event type
+	 */
+	private TypeMirror eventType(EventHandler annotation) {
+		try {
+			return processingEnv.getElementUtils()
+					.getTypeElement(annotation.event().getCanonicalName())
+					.asType();
+		} catch (MirroredTypeException e) {
+			return e.getTypeMirror();
+		}
+	}
+
+	/**
+	 * Checks whether or not a table can call every handler of a listener class
+	 * Listeners that can't be reached keep being registered through reflection
+	 * @param listener TypeElement Class declaring the handlers
+	 * @param methods List\<ExecutableElement\> Handlers of the class
+	 * @return boolean Whether or not a table can be generated
+	 */
+	private boolean canGenerate(TypeElement listener, List<ExecutableElement> methods) {
+		TypeElement base = processingEnv.getElementUtils().getTypeElement(LISTENER_CLASS);
+		Types types = processingEnv.getTypeUtils();
+		if (base == null || !types.isSubtype(types.erasure(listener.asType()), types.erasure(base.asType())))
+			return false;
+		for (Element e = listener; e instanceof TypeElement; e = e.getEnclosingElement()) {
+			TypeElement type = (TypeElement) e;
+			if (type.getModifiers().contains(Modifier.PRIVATE)
+				|| (type.getNestingKind() != NestingKind.TOP_LEVEL && type.getNestingKind() != NestingKind.MEMBER)) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+						String.format("%s is not reachable from its package, its handlers are bound at runtime", listener),
+						listener);
+				return false;
+			}
+		}
+		for (ExecutableElement method : methods) {
+			if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+						String.format("%s has private or static handlers, its handlers are bound at runtime", listener),
+						method);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the EventHandlerTable of a listener class next to it
+	 * @param listener TypeElement Class declaring the handlers
+	 * @param methods List\<ExecutableElement\> Handlers of the class
+	 */
+	private void generateTable(TypeElement listener, List<ExecutableElement> methods) {
+		Elements elements = processingEnv.getElementUtils();
+		Types types = processingEnv.getTypeUtils();
+		String pkg = elements.getPackageOf(listener).getQualifiedName().toString();
+		String binaryName = elements.getBinaryName(listener).toString();
+		String tableName = (pkg.isEmpty() ? binaryName : binaryName.substring(pkg.length() + 1)) + TABLE_SUFFIX;
+		String listenerType = types.erasure(listener.asType()).toString();
+
+		StringBuilder sb = new StringBuilder();
+		if (!pkg.isEmpty())
+			sb.append("package ").append(pkg).append(";\n\n");
+		sb.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+		sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		sb.append("public final class ").append(tableName)
+		  .append(" implements ").append(TABLE_INTERFACE).append("<").append(listenerType).append("> {\n\n");
+		sb.append("\t@Override\n");
+		sb.append("\tpublic void bind(").append(listenerType).append(" listener, ")
+		  .append("java.util.function.BiConsumer<Class<? extends com.botifier.becs.util.events.Event>, com.botifier.becs.util.events.EventController> sink) {\n");
+		for (ExecutableElement method : methods) {
+			EventHandler annotation = method.getAnnotation(EventHandler.class);
+			String eventType = types.erasure(eventType(annotation)).toString();
+			String paramType = types.erasure(method.getParameters().get(0).asType()).toString();
+			sb.append("\t\tsink.accept(").append(eventType).append(".class, ")
+			  .append("new com.botifier.becs.util.events.EventController(listener, null, ")
+			  .append("e -> listener.").append(method.getSimpleName()).append("((").append(paramType).append(") e), ")
+			  .append(annotation.priority()).append(", ")
+			  .append(elements.getConstantExpression(annotation.origin())).append("));\n");
+		}
+		sb.append("\t}\n");
+		sb.append("}\n");
+
+		String qualified = pkg.isEmpty() ? tableName : pkg + "." + tableName;
+		try (Writer w = processingEnv.getFiler().createSourceFile(qualified, listener).openWriter()) {
+			w.write(sb.toString());
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					String.format("Could not write %s: %s", qualified, e.getMessage()),
+					listener);
+		}
+	}
 }
@@ -0,0 +1,38 @@
+package com.botifier.becs;
+
+import org.lwjgl.glfw.GLFW;
+
+/**
+ * Clock
+ *
+ * Time source used by the GameTimer
+ * Windowed games use GLFW's timer, headless games use System.nanoTime so no native windowing is needed.
+ *
+ * @author Botifier
+ */
+@FunctionalInterface
+public interface Clock {
+
+	/**
+	 * Returns the current time
+	 * @return double Time in seconds
+	 */
+	double getTime();
+
+	/**
+	 * Returns a clock reading GLFW's timer, requires GLFW to be initialized
+	 * @return Clock The clock
+	 */
+	static Clock glfw() {
+		return GLFW::glfwGetTime;
+	}
+
+	/**
+	 * Returns a clock reading System.nanoTime, starting at zero
+	 * @return Clock The clock
+	 */
+	static Clock system() {
+		long start = System.nanoTime();
+		return () -> (System.nanoTime() - start) / 1_000_000_000d;
+	}
+}
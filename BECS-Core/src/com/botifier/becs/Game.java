@@ -59,9 +59,14 @@ import org.lwjgl.opengl.GL43;
 import org.lwjgl.opengl.GLUtil;
 
 import com.botifier.becs.config.IConfig;
+import com.botifier.becs.entity.ComponentType;
 import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityCommandBuffer;
 import com.botifier.becs.entity.EntityComponentManager;
 import com.botifier.becs.entity.EntitySystem;
+import com.botifier.becs.entity.Query;
+import com.botifier.becs.entity.SystemScheduler;
+import com.botifier.becs.entity.World;
 import com.botifier.becs.graphics.Renderer;
 import com.botifier.becs.graphics.images.Image;
 import com.botifier.becs.sound.SoundListener;
@@ -82,10 +87,15 @@ import com.botifier.becs.events.listeners.*;
  *
  */
 public abstract class Game {
+	/**
+	 * Most ticks a fixed timestep update runs to catch up
+	 */
+	private static final int MAX_CATCH_UP = 5;
+
 	/**
 	 * Target updates per second
 	 */
-	private final int targetUPS = 60;
+	private volatile int targetUPS = 60;
 
 	/**
 	 * Debug mode
@@ -122,6 +132,11 @@ public abstract class Game {
 	 */
 	private EventManager eventManager;
 
+	/**
+	 * World this game runs, bound to every thread of the game
+	 */
+	private volatile World world = World.getDefault();
+
 	/**
 	 * Size Callback Updates width and height when the window is resized
 	 */
@@ -170,6 +185,16 @@ public abstract class Game {
 	 */
 	private final boolean noLock;
 
+	/**
+	 * Whether or not the game runs without a window, renderer, input or sound
+	 */
+	private final boolean headless;
+
+	/**
+	 * Time source of the game timer, GLFW's timer when null
+	 */
+	private Clock clock = null;
+
 	/**
 	 * Tracks whether or not the game is running
 	 */
@@ -208,9 +233,33 @@ public abstract class Game {
 	/**
 	 * Accumulator Used for game ticks
 	 */
-	@SuppressWarnings("unused")
 	private float accumulator = 0f;
 
+	/**
+	 * Whether or not ticks are run at a fixed timestep, every tick then has a delta of one interval
+	 */
+	private volatile boolean fixedTimestep = false;
+
+	/**
+	 * Whether or not the update thread runs ticks back to back instead of at the target UPS
+	 */
+	private volatile boolean fastForward = false;
+
+	/**
+	 * Time fast forwarding last ended, used to skip the catch up burst of the scheduler afterwards
+	 */
+	private double fastForwardEnd = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Runs the update thread
+	 */
+	private ScheduledExecutorService updateScheduler;
+
+	/**
+	 * Scheduled update runnable
+	 */
+	private ScheduledFuture<?> updateFuture;
+
 	/**
 	 * How many ticks have occurred since the game started.
 	 */
@@ -219,7 +268,7 @@ public abstract class Game {
 	/**
 	 * Interval Used for game ticks
 	 */
-	private float interval = 1f / targetUPS;
+	private volatile float interval = 1f / targetUPS;
 
 	/**
 	 * Alpha Used for interpolation
@@ -231,6 +280,12 @@ public abstract class Game {
 	 */
 	private ReentrantLock l = new ReentrantLock();
 
+	/**
+	 * Held while the update thread or step() runs ticks, so ticks never overlap
+	 * Always used, unlike l
+	 */
+	private final ReentrantLock tickLock = new ReentrantLock();
+
 	/**
 	 * Game timer Tracks the UPS and FPS
 	 */
@@ -245,6 +300,41 @@ public abstract class Game {
 	 * Game systems Stuff like physics or any other custom system
 	 */
 	private List<EntitySystem> systems = new CopyOnWriteArrayList<EntitySystem>();
+	
+	/**
+	 * Structural changes recorded during a tick, played back after the systems run
+	 */
+	private final EntityCommandBuffer commandBuffer = new EntityCommandBuffer();
+	
+	/**
+	 * Whether or not the update thread publishes render snapshots instead of sharing the lock with the render thread
+	 */
+	private volatile boolean renderSnapshots = false;
+
+	/**
+	 * Latest published render snapshot
+	 */
+	private final AtomicReference<RenderSnapshot> snapshot = new AtomicReference<>();
+
+	/**
+	 * Drawable entities captured by render snapshots, null while snapshots are disabled
+	 */
+	private volatile Query snapshotQuery = null;
+
+	/**
+	 * Entities captured by world snapshots, null while world snapshots are disabled
+	 */
+	private volatile Query worldSnapshotQuery = null;
+
+	/**
+	 * Latest published world snapshot
+	 */
+	private final AtomicReference<WorldSnapshot> worldSnapshot = new AtomicReference<>();
+
+	/**
+	 * Runs systems in parallel, null while systems run one after another
+	 */
+	private volatile SystemScheduler scheduler = null;
 
 	/**
 	 * World listener id
@@ -274,6 +364,31 @@ public abstract class Game {
 		this.vsync = vsync;
 		this.resizable = resizable;
 		this.noLock = noLock;
+		this.headless = false;
+		this.setWidth(width);
+		this.setHeight(height);
+	}
+
+	/**
+	 * Headless game constructor
+	 * 
+	 * Runs update() and the entity systems without GLFW, OpenGL or OpenAL.
+	 * There is no window, renderer, input or sound manager, so draw() is never called.
+	 * 
+	 * @param title  Name of the game
+	 * @param width  World width, used by code that sizes things after the window
+	 * @param height World height, used by code that sizes things after the window
+	 * @param clock  Clock Time source, System.nanoTime when null
+	 */
+	public Game(String title, int width, int height, Clock clock) {
+		this.title = title;
+		this.iWidth = width;
+		this.iHeight = height;
+		this.vsync = false;
+		this.resizable = false;
+		this.noLock = false;
+		this.headless = true;
+		this.clock = clock != null ? clock : Clock.system();
 		this.setWidth(width);
 		this.setHeight(height);
 	}
@@ -295,14 +410,25 @@ public abstract class Game {
 	 * Runs the game
 	 */
 	public void run() {
-		l.lock();
+		World previous = World.bind(world);
 		try {
-			initialize();
+			if (headless) {
+				initializeHeadless();
+				procHeadlessLoop();
+				cleanup();
+				return;
+			}
+			l.lock();
+			try {
+				initialize();
+			} finally {
+				l.unlock();
+			}
+			procLoop();
+			cleanup();
 		} finally {
-			l.unlock();
+			World.bind(previous);
 		}
-		procLoop();
-		cleanup();
 	}
 
 	/**
@@ -310,6 +436,14 @@ public abstract class Game {
 	 */
 	private void cleanup() {
 		running.set(false);
+		setParallelSystems(false);
+		setRenderSnapshots(false);
+		setWorldSnapshots(null);
+		if (headless) {
+			exit();
+			clearSystems();
+			return;
+		}
 		soundManager.destroy();
 		glfwMakeContextCurrent(window.getId());
 		GL.setCapabilities(window.getGLCapabilities());
@@ -359,6 +493,7 @@ public abstract class Game {
 			throw new IllegalStateException("Unable to initialize GLFW");
 		}
 		current = this;
+		world.setGame(this);
 
 		window = new Window(title, getWidth(), getHeight(), resizable, vsync);
 
@@ -417,7 +552,7 @@ public abstract class Game {
 
 		});
 
-		t = new GameTimer();
+		t = clock != null ? new GameTimer(clock) : new GameTimer();
 		t.init();
 
 		EntityComponentManager.init();
@@ -434,13 +569,42 @@ public abstract class Game {
 		renderer.get().init(this);
 		renderer.get().refreshWindow();
 
+		initializeWorld();
+
+		input = new Input(window.getId());
+		
+		init();
+
+		glfwMakeContextCurrent(0);
+	}
+
+	/**
+	 * Initialization of Game functionality without a window Runs init()
+	 */
+	private void initializeHeadless() {
+		current = this;
+		world.setGame(this);
+
+		t = new GameTimer(clock);
+		t.init();
+
+		EntityComponentManager.init();
+
+		initializeWorld();
+
+		init();
+	}
+
+	/**
+	 * Creates the event manager and world listener and sets the uncaught exception handler
+	 */
+	private void initializeWorld() {
 		eventManager = new EventManager();
+		world.setEventManager(eventManager);
 		WorldListener wl = new WorldListener();
 		eventManager.registerListener(wl);
 		worldListenerId.set(wl.getOwner());
 
-		input = new Input(window.getId());
-		
 		Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
 
 			@Override
@@ -449,10 +613,6 @@ public abstract class Game {
 				e.printStackTrace();
 			}
 		});
-
-		init();
-
-		glfwMakeContextCurrent(0);
 	}
 
 	/**
@@ -468,12 +628,11 @@ public abstract class Game {
 		}
 
 		window.setIcon(icon);
-		ScheduledExecutorService schedular = Executors.newScheduledThreadPool(1, new HighPriorityThreadFactory());
-		ScheduledFuture<?> update = schedular.scheduleAtFixedRate(new UpdateRunnable(), 0, 1000 / targetUPS,
-				TimeUnit.MILLISECONDS);
+		startUpdates();
 
 		RenderRunnable rr = new RenderRunnable();
 		Thread t = new Thread(() -> {
+			World.bind(world);
 			while (running.get())
 				rr.run();
 		}, "Render Thread");
@@ -487,8 +646,48 @@ public abstract class Game {
 			Thread.yield();
 		}
 		
-		update.cancel(true);
-		schedular.shutdownNow();
+		stopUpdates();
+	}
+
+	/**
+	 * Runs the update thread until the game is stopped, without rendering
+	 */
+	private void procHeadlessLoop() {
+		startUpdates();
+
+		while (running.get()) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				running.set(false);
+			}
+		}
+
+		stopUpdates();
+	}
+
+	/**
+	 * Schedules the update thread at the target UPS
+	 */
+	private synchronized void startUpdates() {
+		if (updateScheduler == null)
+			updateScheduler = Executors.newScheduledThreadPool(1, new HighPriorityThreadFactory());
+		if (updateFuture != null)
+			updateFuture.cancel(false);
+		updateFuture = updateScheduler.scheduleAtFixedRate(new UpdateRunnable(), 0, 1_000_000_000L / targetUPS,
+				TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Stops the update thread
+	 */
+	private synchronized void stopUpdates() {
+		if (updateFuture != null)
+			updateFuture.cancel(true);
+		if (updateScheduler != null)
+			updateScheduler.shutdownNow();
+		updateFuture = null;
+		updateScheduler = null;
 	}
 
 	/**
@@ -514,7 +713,7 @@ public abstract class Game {
 					update();
 					t.updateUPS();
 					systems.forEach(system -> {
-						Entity[] entities = system.getValidEntities().toArray(Entity[]::new);
+						Entity[] entities = system.getValidEntityArray();
 						system.apply(entities);
 					});
 					accumulator -= interval;
@@ -637,7 +836,8 @@ public abstract class Game {
 	 */
 	public void setIcon(Image i) {
 		icon = i;
-		window.setIcon(i);
+		if (window != null)
+			window.setIcon(i);
 	}
 
 	/**
@@ -647,7 +847,8 @@ public abstract class Game {
 	 */
 	public void setTitle(String title) {
 		this.title = title;
-		window.setTitle(title);
+		if (window != null)
+			window.setTitle(title);
 	}
 
 	/**
@@ -659,6 +860,206 @@ public abstract class Game {
 		this.autoDrawBatch = auto;
 	}
 
+	/**
+	 * Runs ticks back to back on the calling thread, each with a delta of one interval
+	 * Can be used from init() to pre-simulate the world, or from anywhere while the game runs
+	 * The game's world is bound to the calling thread while the ticks run
+	 * Waits for the update thread to finish its current ticks, which then wait for these
+	 * 
+	 * @param ticks int Amount of ticks to run
+	 */
+	public void step(int ticks) {
+		if (ticks < 0)
+			throw new IllegalArgumentException(String.format("ticks cannot be negative: %d", ticks));
+		if (eventManager == null)
+			throw new IllegalStateException("The game has to be initialized before stepping");
+		tickLock.lock();
+		l.lock();
+		World previous = World.bind(world);
+		try {
+			delta.set(interval);
+			for (int i = 0; i < ticks; i++) {
+				tick();
+				ticksAlive.incrementAndGet();
+			}
+		} finally {
+			World.bind(previous);
+			l.unlock();
+			tickLock.unlock();
+		}
+	}
+
+	/**
+	 * Sets the target updates per second
+	 * Reschedules the update thread if the game is running
+	 * 
+	 * @param ups int Updates per second
+	 */
+	public void setTargetUPS(int ups) {
+		if (ups <= 0)
+			throw new IllegalArgumentException(String.format("UPS has to be above zero: %d", ups));
+		this.targetUPS = ups;
+		this.interval = 1f / ups;
+		synchronized (this) {
+			if (updateFuture != null)
+				startUpdates();
+		}
+	}
+
+	/**
+	 * Returns the target updates per second
+	 * 
+	 * @return int Updates per second
+	 */
+	public int getTargetUPS() {
+		return targetUPS;
+	}
+
+	/**
+	 * Returns the length of a tick at the target UPS
+	 * 
+	 * @return float Seconds per tick
+	 */
+	public float getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Sets whether or not ticks run at a fixed timestep
+	 * Real time is accumulated and spent one interval at a time, so every tick has the same delta
+	 * and alpha tells how far the render is between two ticks
+	 * 
+	 * @param fixed boolean Whether or not to use a fixed timestep
+	 */
+	public void setFixedTimestep(boolean fixed) {
+		this.fixedTimestep = fixed;
+	}
+
+	/**
+	 * Returns whether or not ticks run at a fixed timestep
+	 * 
+	 * @return boolean Whether or not a fixed timestep is used
+	 */
+	public boolean isFixedTimestep() {
+		return fixedTimestep;
+	}
+
+	/**
+	 * Sets whether or not the update thread runs ticks back to back, as fast as possible
+	 * Every tick has a delta of one interval while fast forwarding
+	 * 
+	 * @param fastForward boolean Whether or not to fast forward
+	 */
+	public void setFastForward(boolean fastForward) {
+		this.fastForward = fastForward;
+	}
+
+	/**
+	 * Returns whether or not the update thread is fast forwarding
+	 * 
+	 * @return boolean Whether or not the game fast forwards
+	 */
+	public boolean isFastForward() {
+		return fastForward;
+	}
+
+	/**
+	 * Sets whether or not the update thread publishes a RenderSnapshot at the end of every tick
+	 * While enabled the update and render threads no longer share a lock, draw() receives the latest snapshot
+	 * through the WorldState and alpha is the progress from that snapshot towards the next tick
+	 * 
+	 * @param enabled boolean Whether or not to use render snapshots
+	 */
+	public synchronized void setRenderSnapshots(boolean enabled) {
+		if (enabled == renderSnapshots)
+			return;
+		if (enabled) {
+			snapshotQuery = EntityComponentManager.createQuery(new ComponentType<?>[] {EntityComponentManager.POSITION},
+					new ComponentType<?>[] {EntityComponentManager.IMAGE, EntityComponentManager.COLLISION_SHAPE}, null);
+		} else {
+			EntityComponentManager.removeQuery(snapshotQuery);
+			snapshotQuery = null;
+			snapshot.set(null);
+		}
+		renderSnapshots = enabled;
+	}
+
+	/**
+	 * Returns whether or not render snapshots are used
+	 * 
+	 * @return boolean Whether or not render snapshots are used
+	 */
+	public boolean isRenderSnapshots() {
+		return renderSnapshots;
+	}
+
+	/**
+	 * Returns the latest published render snapshot
+	 * 
+	 * @return RenderSnapshot The snapshot; null if none was published
+	 */
+	public RenderSnapshot getRenderSnapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * Sets the entities the update thread publishes a WorldSnapshot of at the end of every tick
+	 * Other threads read the latest snapshot instead of cloning entities
+	 * 
+	 * @param q Query Entities to capture; null to stop publishing world snapshots
+	 */
+	public void setWorldSnapshots(Query q) {
+		worldSnapshotQuery = q;
+		if (q == null)
+			worldSnapshot.set(null);
+	}
+
+	/**
+	 * Returns the entities world snapshots are taken of
+	 * 
+	 * @return Query The query; null if world snapshots are disabled
+	 */
+	public Query getWorldSnapshotQuery() {
+		return worldSnapshotQuery;
+	}
+
+	/**
+	 * Returns the latest published world snapshot
+	 * 
+	 * @return WorldSnapshot The snapshot; null if none was published
+	 */
+	public WorldSnapshot getWorldSnapshot() {
+		return worldSnapshot.get();
+	}
+
+	/**
+	 * Stops the game, run() returns after cleaning up
+	 */
+	public void stop() {
+		running.set(false);
+	}
+
+	/**
+	 * Sets the time source of the game timer
+	 * Only used at startup
+	 * 
+	 * @param clock Clock Time source, GLFW's timer when null
+	 */
+	public void setClock(Clock clock) {
+		if (headless && clock == null)
+			throw new IllegalArgumentException("Headless games cannot use GLFW's timer");
+		this.clock = clock;
+	}
+
+	/**
+	 * Returns whether or not the game runs without a window
+	 * 
+	 * @return boolean Whether or not the game is headless
+	 */
+	public boolean isHeadless() {
+		return headless;
+	}
+
 	/**
 	 * Removes all active entity systems
 	 */
@@ -767,6 +1168,41 @@ public abstract class Game {
 		return t;
 	}
 
+	/**
+	 * Sets whether or not systems that don't conflict should run at the same time
+	 * Systems declare what they read and write with declareReads and declareWrites
+	 * 
+	 * @param parallel boolean Whether or not to run systems in parallel
+	 */
+	public synchronized void setParallelSystems(boolean parallel) {
+		if (parallel == (scheduler != null))
+			return;
+		if (parallel) {
+			scheduler = new SystemScheduler();
+		} else {
+			scheduler.shutdown();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Returns whether or not systems run in parallel
+	 * 
+	 * @return boolean Whether or not systems run in parallel
+	 */
+	public boolean isParallelSystems() {
+		return scheduler != null;
+	}
+
+	/**
+	 * Returns the command buffer that is played back at the end of every tick
+	 * 
+	 * @return EntityCommandBuffer The command buffer
+	 */
+	public EntityCommandBuffer getCommandBuffer() {
+		return commandBuffer;
+	}
+
 	/**
 	 * Returns the entity systems
 	 * 
@@ -854,7 +1290,7 @@ public abstract class Game {
 	 * @return Process ID of Window
 	 */
 	public long getWindowID() {
-		return window.getId();
+		return window != null ? window.getId() : 0;
 	}
 
 	/**
@@ -877,11 +1313,13 @@ public abstract class Game {
 
 	/**
 	 * Returns the current active game
+	 * That is the game running the world bound to the calling thread, or the last game started
 	 * 
 	 * @return Current active game
 	 */
 	public static Game getCurrent() {
-		return current;
+		Game g = World.current().getGame();
+		return g != null ? g : current;
 	}
 
 	/**
@@ -911,6 +1349,29 @@ public abstract class Game {
 		return eventManager;
 	}
 
+	/**
+	 * Sets the world this game runs
+	 * Games running at the same time need their own world
+	 * 
+	 * @param world World The world
+	 */
+	public void setWorld(World world) {
+		if (world == null)
+			throw new NullPointerException("world cannot be null");
+		if (eventManager != null)
+			throw new IllegalStateException("The world can't be changed after the game started");
+		this.world = world;
+	}
+
+	/**
+	 * Returns the world this game runs
+	 * 
+	 * @return World The world; the default world unless another was set
+	 */
+	public World getWorld() {
+		return world;
+	}
+
 	/**
 	 * The frame buffer size callback
 	 * 
@@ -975,42 +1436,113 @@ public abstract class Game {
 			if (!running.get()) {
 				return;
 			}
-			final ReentrantLock lock = l;
 			
 			Thread.currentThread().setName("Update Thread");
-			t.update(); // Update the timer
-			delta.set(t.getDelta()); // set delta
-			accumulator += delta.get();
+			tickLock.lock(); // Keeps step() from ticking at the same time
 			try {
-				if (!noLock && lock.tryLock(5, TimeUnit.MILLISECONDS)) {
-					try {
-						tick();
-					} finally {
-						lock.unlock(); // Unlocks if locking is enabled
-					}
-				} else
-					tick();
-			} catch (InterruptedException ie) {
-				//Don't really care if the lock is interrupted
-			} catch (Exception e) {
-				e.printStackTrace();
+				runDueTicks();
 			} finally {
-				ticksAlive.incrementAndGet(); // Add to the tick tracker	
+				tickLock.unlock();
 			}
 		}
 		
-		private void tick() {
-			update(); // Performs an update
+		/**
+		 * Runs the ticks that are due
+		 */
+		private void runDueTicks() {
+			t.update(); // Update the timer
 			
-			for (EntitySystem system : systems) {
-				Entity[] entities = system.getValidEntities().toArray(Entity[]::new); // Obtains all valid entities
-				system.apply(entities); // Applies the system to all of those entities
+			if (fastForward) {
+				while (fastForward && running.get()) {
+					delta.set(interval);
+					runTicks(1); // Runs ticks back to back
+				}
+				t.getDelta(); // Drops the time spent fast forwarding
+				accumulator = 0;
+				fastForwardEnd = t.getTime();
+				return;
 			}
 			
-			t.updateUPS(); // Updates UPS counter (Updates Per Second)
+			if (fixedTimestep) {
+				accumulator += t.getDelta();
+				int ticks = 0;
+				while (accumulator >= interval && ticks < MAX_CATCH_UP) {
+					accumulator -= interval;
+					ticks++;
+				}
+				if (accumulator > interval * 2) {
+					accumulator = 0; // Drops time that can't be caught up on
+				}
+				delta.set(interval);
+				alpha.set(accumulator / interval);
+				runTicks(ticks);
+				return;
+			}
+			
+			if (t.getTime() - fastForwardEnd < interval / 2) {
+				return; // Skips the burst the scheduler runs to catch up after fast forwarding
+			}
+			delta.set(t.getDelta()); // set delta
+			runTicks(1);
+		}
+		
+		/**
+		 * Runs ticks while holding the lock if locking is enabled
+		 * @param ticks int Amount of ticks
+		 */
+		private void runTicks(int ticks) {
+			final ReentrantLock lock = l;
+			for (int i = 0; i < ticks; i++) {
+				try {
+					if (!noLock && !renderSnapshots && lock.tryLock(5, TimeUnit.MILLISECONDS)) {
+						try {
+							tick();
+						} finally {
+							lock.unlock(); // Unlocks if locking is enabled
+						}
+					} else
+						tick();
+				} catch (InterruptedException ie) {
+					//Don't really care if the lock is interrupted
+				} catch (Exception e) {
+					e.printStackTrace();
+				} finally {
+					ticksAlive.incrementAndGet(); // Add to the tick tracker	
+				}
+			}
 		}
 	}
 
+	/**
+	 * Runs a single tick: update(), the entity systems and the command buffer
+	 */
+	private void tick() {
+		EntityComponentManager.advanceChangeTick(); // Separates changes made this tick from earlier ones
+		update(); // Performs an update
+		
+		SystemScheduler s = scheduler;
+		if (s != null) {
+			s.run(systems); // Runs systems that don't conflict at the same time
+		} else {
+			for (EntitySystem system : systems) {
+				system.runTimed(); // Applies the system to all valid entities
+			}
+		}
+		
+		commandBuffer.playback(); // Applies structural changes recorded during the tick
+		
+		Query q = snapshotQuery;
+		if (q != null) // Publishes what the render thread should draw
+			snapshot.set(RenderSnapshot.capture(q, snapshot.get(), ticksAlive.get(), t.getTime()));
+		Query w = worldSnapshotQuery;
+		if (w != null) // Publishes the component data other threads can read
+			worldSnapshot.set(WorldSnapshot.capture(w, worldSnapshot.get(), ticksAlive.get()));
+		if (q != null || w != null)
+			EntityComponentManager.advanceChangeTick(); // Changes made before the next tick are newer than the snapshots
+		
+		t.updateUPS(); // Updates UPS counter (Updates Per Second)
+	}
+
 	/**
 	 * Runnable for the render thread
 	 */
@@ -1029,7 +1561,7 @@ public abstract class Game {
 			glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT); // Clears the frame
 
 			try {
-				if (!noLock && lock.tryLock(5, TimeUnit.MILLISECONDS)) {
+				if (!noLock && !renderSnapshots && lock.tryLock(5, TimeUnit.MILLISECONDS)) {
 					try {
 						render();
 					} finally {
@@ -1058,8 +1590,14 @@ public abstract class Game {
 					getRenderer().getCameraCenter().y, getWidth() * getRenderer().getZoom(),
 					getHeight() * getRenderer().getZoom());
 			WorldState ws = new WorldState(camera.toPolygon(), false); // Creates a WorldState
+			float a = alpha.get();
+			RenderSnapshot rs = snapshot.get();
+			if (renderSnapshots && rs != null) {
+				ws.snapshot = rs;
+				a = (float) Math.min(1, Math.max(0, (t.getTime() - rs.getTime()) / interval)); // Progress towards the next tick
+			}
 			getRenderer().refreshWindow();
-			draw(getRenderer(), ws, camera, alpha.get()); // Runs draw functions
+			draw(getRenderer(), ws, camera, a); // Runs draw functions
 			if (autoDrawBatch) {
 				getRenderer().getAutoBatcher().draw(getRenderer()); // Automatically draws information in the
 																	// AutoBatcher
@@ -1072,7 +1610,11 @@ public abstract class Game {
 
 		@Override
 		public Thread newThread(Runnable r) {
-			Thread thread = new Thread(r);
+			World w = world;
+			Thread thread = new Thread(() -> {
+				World.bind(w);
+				r.run();
+			});
 
 			thread.setPriority(Thread.MAX_PRIORITY);
 			thread.setDaemon(true);
@@ -1,7 +1,5 @@
 package com.botifier.becs;
 
-import static org.lwjgl.glfw.GLFW.glfwGetTime;
-
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 /*
@@ -29,6 +27,11 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class GameTimer {
 
+    /**
+     * Time source of the timer
+     */
+    private final Clock clock;
+
     /**
      * The last time getDelta was called
      */
@@ -60,6 +63,24 @@ public class GameTimer {
      */
     private final AtomicInteger upsCount = new AtomicInteger(0);
 
+    /**
+     * GameTimer constructor
+     * Uses GLFW's timer
+     */
+    public GameTimer() {
+        this(Clock.glfw());
+    }
+
+    /**
+     * GameTimer constructor
+     * @param clock Clock Time source to use
+     */
+    public GameTimer(Clock clock) {
+        if (clock == null)
+            throw new NullPointerException("clock cannot be null");
+        this.clock = clock;
+    }
+
     /**
      * Initializes the timer
      */
@@ -68,11 +89,11 @@ public class GameTimer {
     }
 
     /**
-     * Gets the current time from GLFW
-     * @return
+     * Gets the current time from the clock
+     * @return double Time in seconds
      */
     public double getTime() {
-        return glfwGetTime();
+        return clock.getTime();
     }
 
     /**
@@ -0,0 +1,250 @@
+package com.botifier.becs;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joml.Vector2f;
+
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponent;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.Query;
+import com.botifier.becs.graphics.Renderer;
+import com.botifier.becs.graphics.images.Image;
+import com.botifier.becs.util.shapes.Shape;
+
+/**
+ * RenderSnapshot
+ *
+ * What the render thread needs to draw the world after a tick
+ * The update thread publishes one at the end of every tick and the render thread draws the latest, so neither locks.
+ *
+ * Positions of the previous snapshot are kept so drawing can interpolate between the two ticks with alpha.
+ * Collision shapes are copied, a copy is only made again when the shape changed since the previous snapshot.
+ * Only the default Entity.draw behaviour is captured, entities that override draw need the locked render path.
+ *
+ * @author Botifier
+ */
+public final class RenderSnapshot {
+
+	/**
+	 * Entries sorted by rendering layer
+	 */
+	private final Entry[] entries;
+
+	/**
+	 * The tick this snapshot was taken at
+	 */
+	private final long tick;
+
+	/**
+	 * Clock time this snapshot was taken at
+	 */
+	private final double time;
+
+	/**
+	 * Change tick this snapshot was taken at
+	 */
+	private final long changeTick;
+
+	/**
+	 * RenderSnapshot constructor
+	 * @param entries Entry[] Entries sorted by rendering layer
+	 * @param tick long The tick
+	 * @param time double Clock time
+	 * @param changeTick long Change tick
+	 */
+	private RenderSnapshot(Entry[] entries, long tick, double time, long changeTick) {
+		this.entries = entries;
+		this.tick = tick;
+		this.time = time;
+		this.changeTick = changeTick;
+	}
+
+	/**
+	 * Takes a snapshot of the drawable entities in a query
+	 * Must be called from the thread that updates the entities
+	 * @param q Query Entities to capture, ones without a position are skipped
+	 * @param previous RenderSnapshot The last published snapshot, may be null
+	 * @param tick long The current tick
+	 * @param time double The current clock time
+	 * @return RenderSnapshot The snapshot
+	 */
+	static RenderSnapshot capture(Query q, RenderSnapshot previous, long tick, double time) {
+		long changeTick = EntityComponentManager.getChangeTick();
+		Map<Long, Entry> old = new HashMap<>();
+		if (previous != null) {
+			for (Entry e : previous.entries) {
+				old.put(e.handle, e);
+			}
+		}
+
+		Entity[] entities = q.getEntities();
+		List<Entry> captured = new ArrayList<>(entities.length);
+		for (Entity en : entities) {
+			EntityComponent<Vector2f> p = en.getComponent(EntityComponentManager.POSITION);
+			if (p == null || en.isDead())
+				continue;
+			Vector2f pos = p.get();
+			Entry before = old.get(en.getHandle());
+
+			EntityComponent<Image> i = en.getComponent(EntityComponentManager.IMAGE);
+			EntityComponent<Color> c = en.getComponent(EntityComponentManager.COLOR);
+			EntityComponent<Shape> s = en.getComponent(EntityComponentManager.COLLISION_SHAPE);
+			Shape shape = null;
+			if (s != null) {
+				//Reuses the last copy if the shape didn't change
+				shape = before != null && before.shape != null && !s.changedSince(previous.changeTick) ? before.shape : s.get().clone();
+			}
+
+			captured.add(new Entry(en.getHandle(),
+								   pos.x, pos.y,
+								   before != null ? before.x : pos.x,
+								   before != null ? before.y : pos.y,
+								   i != null ? i.get() : null,
+								   c != null ? c.get() : Color.white,
+								   shape,
+								   en.getRenderingLayer(),
+								   en.isAutoBatched()));
+		}
+
+		Entry[] sorted = captured.toArray(Entry[]::new);
+		Arrays.sort(sorted, (a, b) -> Integer.compare(b.layer, a.layer));
+		return new RenderSnapshot(sorted, tick, time, changeTick);
+	}
+
+	/**
+	 * Draws every entry like Entity.draw, interpolating positions between the previous and this snapshot
+	 * Must only be called from the render thread
+	 * @param r Renderer To use
+	 * @param alpha float Progress towards the next tick, 1 draws the current positions
+	 */
+	public void draw(Renderer r, float alpha) {
+		for (Entry e : entries) {
+			e.draw(r, alpha);
+		}
+	}
+
+	/**
+	 * Returns the entries sorted by rendering layer
+	 * @return Entry[] Copy of the entries
+	 */
+	public Entry[] getEntries() {
+		return entries.clone();
+	}
+
+	/**
+	 * Returns the amount of entries
+	 * @return int Amount of entries
+	 */
+	public int size() {
+		return entries.length;
+	}
+
+	/**
+	 * Returns the tick this snapshot was taken at
+	 * @return long The tick
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Returns the clock time this snapshot was taken at
+	 * @return double Time in seconds
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * The drawable state of a single entity
+	 */
+	public static final class Entry {
+		/**
+		 * Handle of the entity
+		 */
+		public final long handle;
+		/**
+		 * Position at this snapshot
+		 */
+		public final float x, y;
+		/**
+		 * Position at the previous snapshot
+		 */
+		public final float prevX, prevY;
+		/**
+		 * Image to draw, may be null
+		 */
+		public final Image image;
+		/**
+		 * Color to draw with
+		 */
+		public final Color color;
+		/**
+		 * Copy of the collision shape, may be null
+		 * Owned by the render thread, which moves it to the interpolated position
+		 */
+		public final Shape shape;
+		/**
+		 * Rendering layer
+		 */
+		public final int layer;
+		/**
+		 * Whether or not the entity is auto batched
+		 */
+		public final boolean autoBatch;
+
+		Entry(long handle, float x, float y, float prevX, float prevY, Image image, Color color, Shape shape, int layer, boolean autoBatch) {
+			this.handle = handle;
+			this.x = x;
+			this.y = y;
+			this.prevX = prevX;
+			this.prevY = prevY;
+			this.image = image;
+			this.color = color;
+			this.shape = shape;
+			this.layer = layer;
+			this.autoBatch = autoBatch;
+		}
+
+		/**
+		 * Draws the entry
+		 * @param r Renderer To use
+		 * @param alpha float Progress towards the next tick
+		 */
+		private void draw(Renderer r, float alpha) {
+			float ix = prevX + (x - prevX) * alpha;
+			float iy = prevY + (y - prevY) * alpha;
+
+			if (shape != null) {
+				shape.setCenter(ix, iy);
+				if (autoBatch) {
+					r.getAutoBatcher().add(image, shape, color);
+					return;
+				}
+				if (image != null) {
+					r.begin(image.getShaderProgram());
+					shape.drawImage(r, image, color, false);
+					r.end();
+				} else {
+					shape.draw(r, color);
+				}
+				return;
+			}
+			if (image == null)
+				return;
+			if (autoBatch) {
+				r.getAutoBatcher().add(image, ix, iy, color);
+			} else {
+				r.begin();
+				image.draw(r, ix, iy, layer, color);
+				r.end();
+			}
+		}
+	}
+}
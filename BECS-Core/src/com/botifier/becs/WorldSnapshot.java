@@ -0,0 +1,233 @@
+package com.botifier.becs;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.botifier.becs.entity.ComponentMask;
+import com.botifier.becs.entity.ComponentType;
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponent;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.Query;
+
+/**
+ * WorldSnapshot
+ *
+ * Read-only view of entity component data as it was at the end of a tick
+ * Lets other threads (rendering, saving, networking) read a consistent tick without copying the world.
+ *
+ * Snapshots share structure with the one before them, only components that changed since are copied.
+ * An entity none of whose components changed reuses its previous entry as is.
+ * Information is copied with ComponentType.copy, types without a copier are shared and treated as immutable.
+ * Nothing read from a snapshot may be modified.
+ *
+ * @author Botifier
+ */
+public final class WorldSnapshot {
+
+	/**
+	 * Entries mapped by entity handle
+	 */
+	private final Map<Long, Entry> entries;
+
+	/**
+	 * The tick this snapshot was taken at
+	 */
+	private final long tick;
+
+	/**
+	 * Change tick this snapshot was taken at
+	 */
+	private final long changeTick;
+
+	/**
+	 * WorldSnapshot constructor
+	 * @param entries Map\<Long, Entry\> Entries mapped by entity handle
+	 * @param tick long The tick
+	 * @param changeTick long Change tick
+	 */
+	private WorldSnapshot(Map<Long, Entry> entries, long tick, long changeTick) {
+		this.entries = Collections.unmodifiableMap(entries);
+		this.tick = tick;
+		this.changeTick = changeTick;
+	}
+
+	/**
+	 * Takes a snapshot of the entities in a query
+	 * Must be called from the thread that updates the entities, the change tick is advanced before the next capture
+	 * @param q Query Entities to capture
+	 * @param previous WorldSnapshot The last published snapshot, may be null
+	 * @param tick long The current tick
+	 * @return WorldSnapshot The snapshot
+	 */
+	static WorldSnapshot capture(Query q, WorldSnapshot previous, long tick) {
+		long changeTick = EntityComponentManager.getChangeTick();
+		Entity[] entities = q.getEntities();
+		Map<Long, Entry> captured = new HashMap<>(Math.max(16, entities.length * 4 / 3 + 1));
+
+		for (Entity en : entities) {
+			if (en.isDead())
+				continue;
+			Entry before = previous != null ? previous.entries.get(en.getHandle()) : null;
+			captured.put(en.getHandle(), capture(en, before, previous != null ? previous.changeTick : -1));
+		}
+		return new WorldSnapshot(captured, tick, changeTick);
+	}
+
+	/**
+	 * Captures a single entity
+	 * @param en Entity To capture
+	 * @param before Entry Entry of the entity in the previous snapshot, may be null
+	 * @param since long Change tick of the previous snapshot
+	 * @return Entry The entry
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Entry capture(Entity en, Entry before, long since) {
+		ComponentMask signature = en.getSignature();
+		boolean reuse = before != null && before.signature.equals(signature) && before.name.equals(en.getName());
+		int[] ids = signature.toIds();
+		Object[] values = new Object[ids.length == 0 ? 0 : ids[ids.length - 1] + 1];
+
+		for (int id : ids) {
+			ComponentType type = EntityComponentManager.getComponentType(id);
+			EntityComponent<?> c = en.getComponent(type);
+			if (c == null)
+				continue;
+			if (before != null && !c.changedSince(since) && before.has(type)) {
+				values[id] = before.values[id];
+			} else {
+				values[id] = type.copy(c.get());
+				reuse = false;
+			}
+		}
+		return reuse ? before : new Entry(en.getHandle(), en.getName(), signature, values);
+	}
+
+	/**
+	 * Returns the entry of an entity
+	 * @param handle long Handle of the entity
+	 * @return Entry The entry; null if the entity wasn't captured
+	 */
+	public Entry get(long handle) {
+		return entries.get(handle);
+	}
+
+	/**
+	 * Returns the information of a component of an entity
+	 * @param \<T\> Type of information stored within the component
+	 * @param handle long Handle of the entity
+	 * @param type ComponentType\<T\> The component
+	 * @return T The information; null if the entity or component wasn't captured
+	 */
+	public <T> T get(long handle, ComponentType<T> type) {
+		Entry e = entries.get(handle);
+		return e != null ? e.get(type) : null;
+	}
+
+	/**
+	 * Returns every entry mapped by entity handle
+	 * @return Map\<Long, Entry\> Unmodifiable map of entries
+	 */
+	public Map<Long, Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Returns the amount of entries
+	 * @return int Amount of entries
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the tick this snapshot was taken at
+	 * @return long The tick
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Returns the change tick this snapshot was taken at
+	 * @return long The change tick
+	 */
+	public long getChangeTick() {
+		return changeTick;
+	}
+
+	/**
+	 * The component data of a single entity
+	 */
+	public static final class Entry {
+		/**
+		 * Handle of the entity
+		 */
+		private final long handle;
+		/**
+		 * Name of the entity
+		 */
+		private final String name;
+		/**
+		 * Components the entity had
+		 */
+		private final ComponentMask signature;
+		/**
+		 * Information indexed by component type id
+		 */
+		private final Object[] values;
+
+		Entry(long handle, String name, ComponentMask signature, Object[] values) {
+			this.handle = handle;
+			this.name = name;
+			this.signature = signature;
+			this.values = values;
+		}
+
+		/**
+		 * Returns the information of a component
+		 * @param \<T\> Type of information stored within the component
+		 * @param type ComponentType\<T\> The component
+		 * @return T The information; null if the entity didn't have it
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T get(ComponentType<T> type) {
+			int id = type.getId();
+			return id < values.length ? (T) values[id] : null;
+		}
+
+		/**
+		 * Checks whether or not the entity had a component
+		 * @param type ComponentType\<?\> The component
+		 * @return boolean Whether or not it had the component
+		 */
+		public boolean has(ComponentType<?> type) {
+			return signature.contains(type);
+		}
+
+		/**
+		 * Returns the handle of the entity
+		 * @return long The handle
+		 */
+		public long getHandle() {
+			return handle;
+		}
+
+		/**
+		 * Returns the name of the entity
+		 * @return String The name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the components the entity had
+		 * @return ComponentMask The signature
+		 */
+		public ComponentMask getSignature() {
+			return signature;
+		}
+	}
+}
@@ -20,6 +20,16 @@ public class WorldState {
 	 */
 	public SpatialEntityMap sem;
 
+	/**
+	 * The latest render snapshot, null unless render snapshots are enabled
+	 */
+	public RenderSnapshot snapshot;
+
+	/**
+	 * The latest world snapshot, null unless the game publishes world snapshots
+	 */
+	public WorldSnapshot world;
+
 	/**
 	 * Empty WorldState constructor
 	 * just references Entity.spatialMap
@@ -30,11 +40,15 @@ public class WorldState {
 
 	/**
 	 * WorldState constructor
+	 * When the current game publishes world snapshots a fake state reads the latest one instead of copying the spatial map
 	 * @param p Polygon For clipping
-	 * @param fake boolean Whether or not the spatial map should be copied
+	 * @param fake boolean Whether or not the world should be read from a copy
 	 */
+	@SuppressWarnings("deprecation")
 	public WorldState(Polygon p, boolean fake) {
-		if (fake) {
+		Game g = Game.getCurrent();
+		world = g != null ? g.getWorldSnapshot() : null;
+		if (fake && world == null) {
 			sem = Entity.spatialMap().falseClone(p);
 		} else {
 			sem = Entity.spatialMap();
@@ -0,0 +1,195 @@
+package com.botifier.becs.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Archetype
+ *
+ * Groups every entity that has the exact same set of components
+ * Entities are packed into ArchetypeChunks so that systems can walk columns instead of looking up components
+ * Only modified by ArchetypeStorage, which holds the lock
+ *
+ * @author Botifier
+ */
+public class Archetype {
+
+	/**
+	 * The component types of this archetype as a set of ids
+	 */
+	private final ComponentMask signature;
+
+	/**
+	 * The component type ids of this archetype in ascending order
+	 * Tags are left out since they have no values to store in columns
+	 */
+	private final int[] componentIds;
+
+	/**
+	 * Maps a component type id to its column, -1 if the archetype lacks the component
+	 */
+	private final int[] columnIndex;
+
+	/**
+	 * Rows per chunk
+	 */
+	private final int chunkCapacity;
+
+	/**
+	 * Chunks of this archetype, every chunk but the last is full
+	 */
+	private final List<ArchetypeChunk> chunks = new ArrayList<>();
+
+	/**
+	 * Archetypes reached by adding a component type id
+	 */
+	final Map<Integer, Archetype> addEdges = new HashMap<>();
+
+	/**
+	 * Archetypes reached by removing a component type id
+	 */
+	final Map<Integer, Archetype> removeEdges = new HashMap<>();
+
+	/**
+	 * How many entities belong to this archetype
+	 */
+	private int entityCount = 0;
+
+	/**
+	 * Archetype constructor
+	 * @param signature ComponentMask Component type ids of the archetype
+	 * @param chunkCapacity int Rows per chunk
+	 */
+	Archetype(ComponentMask signature, int chunkCapacity) {
+		this.signature = signature;
+		this.chunkCapacity = chunkCapacity;
+		this.componentIds = Arrays.stream(signature.toIds())
+				.filter(id -> !EntityComponentManager.getComponentType(id).isTag())
+				.toArray();
+		this.columnIndex = new int[signature.length()];
+		Arrays.fill(columnIndex, -1);
+		for (int c = 0; c < componentIds.length; c++) {
+			columnIndex[componentIds[c]] = c;
+		}
+	}
+
+	/**
+	 * Appends an entity to the last chunk, creating one if needed
+	 * @param e Entity To add
+	 */
+	void add(Entity e) {
+		ArchetypeChunk chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+		if (chunk == null || chunk.size == chunk.capacity()) {
+			chunk = new ArchetypeChunk(this, chunkCapacity);
+			chunks.add(chunk);
+		}
+		chunk.write(chunk.size++, e);
+		e.archetype = this;
+		entityCount++;
+	}
+
+	/**
+	 * Removes an entity by moving the last entity of the archetype into its row
+	 * Keeps every chunk but the last one full
+	 * @param e Entity To remove
+	 */
+	void remove(Entity e) {
+		ArchetypeChunk chunk = e.chunk;
+		int row = e.chunkRow;
+		ArchetypeChunk last = chunks.get(chunks.size() - 1);
+		int lastRow = last.size - 1;
+
+		if (chunk != last || row != lastRow) {
+			Entity moved = last.entities[lastRow];
+			chunk.entities[row] = moved;
+			for (int c = 0; c < componentIds.length; c++) {
+				chunk.columns[c][row] = last.columns[c][lastRow];
+			}
+			moved.chunk = chunk;
+			moved.chunkRow = row;
+		}
+		last.clearRow(lastRow);
+		last.size--;
+		if (last.size == 0) {
+			chunks.remove(chunks.size() - 1);
+		}
+
+		e.archetype = null;
+		e.chunk = null;
+		e.chunkRow = -1;
+		entityCount--;
+	}
+
+	/**
+	 * Re-reads an entity's components into its row
+	 * Used when a component is replaced without changing the archetype
+	 * @param e Entity To refresh
+	 */
+	void refresh(Entity e) {
+		e.chunk.write(e.chunkRow, e);
+	}
+
+	/**
+	 * Checks whether or not this archetype has every specified component
+	 * @param required ComponentMask Component type ids
+	 * @return boolean Whether or not all are present
+	 */
+	boolean hasAll(ComponentMask required) {
+		return signature.containsAll(required);
+	}
+
+	/**
+	 * Returns the column of the component type
+	 * @param type ComponentType\<?\> The component
+	 * @return int The column, -1 if the archetype lacks the component or it is a tag
+	 */
+	public int getColumnIndex(ComponentType<?> type) {
+		int id = type.getId();
+		return id < columnIndex.length ? columnIndex[id] : -1;
+	}
+
+	/**
+	 * Checks if the archetype has the specified component
+	 * @param type ComponentType\<?\> Component to check
+	 * @return boolean Whether or not the component is part of this archetype
+	 */
+	public boolean hasComponent(ComponentType<?> type) {
+		return signature.contains(type);
+	}
+
+	/**
+	 * Returns the signature
+	 * @return ComponentMask Component type ids of this archetype
+	 */
+	public ComponentMask getSignature() {
+		return signature;
+	}
+
+	/**
+	 * Returns the component type ids in column order
+	 * @return int[] Component type ids
+	 */
+	int[] getComponentIds() {
+		return componentIds;
+	}
+
+	/**
+	 * Returns the chunks of this archetype
+	 * @return List\<ArchetypeChunk\> Unmodifiable list of chunks
+	 */
+	public List<ArchetypeChunk> getChunks() {
+		return Collections.unmodifiableList(chunks);
+	}
+
+	/**
+	 * Returns how many entities belong to this archetype
+	 * @return int Amount of entities
+	 */
+	public int size() {
+		return entityCount;
+	}
+}
@@ -0,0 +1,138 @@
+package com.botifier.becs.entity;
+
+/**
+ * ArchetypeChunk
+ *
+ * A fixed size block of entities that share an Archetype
+ * Every component of the archetype has its own column, rows line up with the entity array
+ * Columns hold the entities' components rather than copies of their values, so a set() is seen here without syncing.
+ * Packed Vector2f values are kept by Vector2fColumnStore instead.
+ *
+ * @author Botifier
+ */
+public class ArchetypeChunk {
+
+	/**
+	 * The archetype this chunk belongs to
+	 */
+	private final Archetype archetype;
+
+	/**
+	 * Entities stored within this chunk
+	 */
+	final Entity[] entities;
+
+	/**
+	 * Component columns, ordered like Archetype.getComponentIds()
+	 */
+	final EntityComponent<?>[][] columns;
+
+	/**
+	 * How many rows are in use
+	 */
+	int size = 0;
+
+	/**
+	 * ArchetypeChunk constructor
+	 * @param archetype Archetype Owner of the chunk
+	 * @param capacity int Amount of rows
+	 */
+	ArchetypeChunk(Archetype archetype, int capacity) {
+		this.archetype = archetype;
+		this.entities = new Entity[capacity];
+		this.columns = new EntityComponent<?>[archetype.getComponentIds().length][capacity];
+	}
+
+	/**
+	 * Copies an entity's components into a row
+	 * @param row int Row to write
+	 * @param e Entity To copy from
+	 */
+	void write(int row, Entity e) {
+		int[] ids = archetype.getComponentIds();
+		entities[row] = e;
+		for (int c = 0; c < ids.length; c++) {
+			columns[c][row] = e.getComponent(EntityComponentManager.getComponentType(ids[c]));
+		}
+		e.chunk = this;
+		e.chunkRow = row;
+	}
+
+	/**
+	 * Empties a row
+	 * @param row int Row to empty
+	 */
+	void clearRow(int row) {
+		entities[row] = null;
+		for (EntityComponent<?>[] column : columns) {
+			column[row] = null;
+		}
+	}
+
+	/**
+	 * Returns the archetype of this chunk
+	 * @return Archetype The archetype
+	 */
+	public Archetype getArchetype() {
+		return archetype;
+	}
+
+	/**
+	 * Returns how many entities are stored within
+	 * @return int Amount of rows in use
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the amount of rows this chunk can hold
+	 * @return int Capacity
+	 */
+	public int capacity() {
+		return entities.length;
+	}
+
+	/**
+	 * Returns the entity stored in the specified row
+	 * @param row int Row to get
+	 * @return Entity The entity
+	 */
+	public Entity getEntity(int row) {
+		return entities[row];
+	}
+
+	/**
+	 * Returns the entity array backing this chunk
+	 * Only indices below size() are valid
+	 * @return Entity[] The entities
+	 */
+	public Entity[] getEntities() {
+		return entities;
+	}
+
+	/**
+	 * Returns the column of the specified component
+	 * Only indices below size() are valid
+	 * @param \<T\> Type of information stored within the component
+	 * @param type ComponentType\<T\> Component of the column
+	 * @return EntityComponent\<T\>[] The column; null if the archetype doesn't have the component or it is a tag
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> EntityComponent<T>[] getColumn(ComponentType<T> type) {
+		int c = archetype.getColumnIndex(type);
+		return c < 0 ? null : (EntityComponent<T>[]) columns[c];
+	}
+
+	/**
+	 * Returns the component in the specified row
+	 * @param \<T\> Type of information stored within the component
+	 * @param type ComponentType\<T\> Component to get
+	 * @param row int Row to get
+	 * @return EntityComponent\<T\> The component; null if the archetype doesn't have it
+	 */
+	public <T> EntityComponent<T> get(ComponentType<T> type, int row) {
+		EntityComponent<T>[] column = getColumn(type);
+		return column != null ? column[row] : null;
+	}
+}
@@ -0,0 +1,221 @@
+package com.botifier.becs.entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ArchetypeStorage
+ *
+ * Keeps entities grouped by their set of components
+ * Enabled through EntityComponentManager.setArchetypeStorage(true)
+ *
+ * Entities still own their components, the chunks hold references to them in columns
+ * so systems can iterate every matching entity without any per entity lookups.
+ * Structural changes and iteration share a lock; changes from other threads wait for iteration to finish.
+ *
+ * @author Botifier
+ */
+public class ArchetypeStorage {
+
+	/**
+	 * Default amount of rows per chunk
+	 */
+	public static final int DEFAULT_CHUNK_CAPACITY = 128;
+
+	/**
+	 * Rows per chunk
+	 */
+	private final int chunkCapacity;
+
+	/**
+	 * Archetypes mapped by their signature
+	 */
+	private final Map<ComponentMask, Archetype> archetypes = new HashMap<>();
+
+	/**
+	 * Archetypes in creation order, for iteration
+	 */
+	private final List<Archetype> archetypeList = new ArrayList<>();
+
+	/**
+	 * ArchetypeStorage constructor
+	 */
+	public ArchetypeStorage() {
+		this(DEFAULT_CHUNK_CAPACITY);
+	}
+
+	/**
+	 * ArchetypeStorage constructor
+	 * @param chunkCapacity int Rows per chunk
+	 */
+	public ArchetypeStorage(int chunkCapacity) {
+		if (chunkCapacity <= 0)
+			throw new IllegalArgumentException("chunkCapacity must be greater than zero");
+		this.chunkCapacity = chunkCapacity;
+	}
+
+	/**
+	 * Moves an entity to the archetype matching its components after one of them changed
+	 * Places the entity if it isn't stored yet
+	 * @param e Entity That changed
+	 * @param type ComponentType\<?\> Component that was added, replaced or removed
+	 */
+	public synchronized void update(Entity e, ComponentType<?> type) {
+		if (e.isDead())
+			return;
+		Archetype from = e.archetype;
+		if (from == null) {
+			place(e);
+			return;
+		}
+
+		boolean present = e.hasComponent(type);
+		if (from.hasComponent(type) == present) {
+			if (present)
+				from.refresh(e);
+			return;
+		}
+
+		Integer id = type.getId();
+		Archetype to = present ? from.addEdges.get(id) : from.removeEdges.get(id);
+		if (to == null) {
+			ComponentMask signature = from.getSignature();
+			to = getOrCreate(present ? signature.with(type.getId()) : signature.without(type.getId()));
+			if (present) {
+				from.addEdges.put(id, to);
+				to.removeEdges.put(id, from);
+			} else {
+				from.removeEdges.put(id, to);
+				to.addEdges.put(id, from);
+			}
+		}
+		from.remove(e);
+		to.add(e);
+	}
+
+	/**
+	 * Places an entity into the archetype matching its current components
+	 * @param e Entity To place
+	 */
+	public synchronized void place(Entity e) {
+		if (e.archetype != null)
+			e.archetype.remove(e);
+		getOrCreate(e.getSignature()).add(e);
+	}
+
+	/**
+	 * Brings an entity's placement up to date after any number of component changes
+	 * Removes dead entities
+	 * @param e Entity That changed
+	 */
+	public synchronized void sync(Entity e) {
+		if (e.isDead()) {
+			remove(e);
+			return;
+		}
+		Archetype a = e.archetype;
+		if (a == null || !a.getSignature().equals(e.getSignature()))
+			place(e);
+		else
+			a.refresh(e);
+	}
+
+	/**
+	 * Removes an entity from the storage
+	 * @param e Entity To remove
+	 */
+	public synchronized void remove(Entity e) {
+		if (e.archetype != null)
+			e.archetype.remove(e);
+	}
+
+	/**
+	 * Runs an action on every non-empty chunk whose archetype has all of the required components
+	 * @param action Consumer\<ArchetypeChunk\> To run
+	 * @param required ComponentType\<?\>... Required components
+	 */
+	public synchronized void forEachChunk(Consumer<ArchetypeChunk> action, ComponentType<?>... required) {
+		ComponentMask ids = ComponentMask.of(required);
+		for (Archetype a : archetypeList) {
+			if (a.size() == 0 || !a.hasAll(ids))
+				continue;
+			for (ArchetypeChunk chunk : a.getChunks()) {
+				action.accept(chunk);
+			}
+		}
+	}
+
+	/**
+	 * Returns every archetype that has all of the required components
+	 * @param required ComponentType\<?\>... Required components
+	 * @return List\<Archetype\> Matching archetypes
+	 */
+	public synchronized List<Archetype> getArchetypes(ComponentType<?>... required) {
+		ComponentMask ids = ComponentMask.of(required);
+		List<Archetype> result = new ArrayList<>();
+		for (Archetype a : archetypeList) {
+			if (a.hasAll(ids))
+				result.add(a);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the amount of entities with all of the required components
+	 * @param required ComponentType\<?\>... Required components
+	 * @return int Amount of entities
+	 */
+	public synchronized int count(ComponentType<?>... required) {
+		ComponentMask ids = ComponentMask.of(required);
+		int count = 0;
+		for (Archetype a : archetypeList) {
+			if (a.hasAll(ids))
+				count += a.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Removes every entity and archetype from the storage
+	 */
+	public synchronized void clear() {
+		for (Archetype a : archetypeList) {
+			for (ArchetypeChunk chunk : a.getChunks()) {
+				for (int row = 0; row < chunk.size; row++) {
+					Entity e = chunk.entities[row];
+					e.archetype = null;
+					e.chunk = null;
+					e.chunkRow = -1;
+				}
+			}
+		}
+		archetypes.clear();
+		archetypeList.clear();
+	}
+
+	/**
+	 * Returns the amount of rows per chunk
+	 * @return int Rows per chunk
+	 */
+	public int getChunkCapacity() {
+		return chunkCapacity;
+	}
+
+	/**
+	 * Finds the archetype of a signature or creates it
+	 * @param signature ComponentMask Component type ids
+	 * @return Archetype The archetype
+	 */
+	private Archetype getOrCreate(ComponentMask signature) {
+		Archetype a = archetypes.get(signature);
+		if (a == null) {
+			a = new Archetype(signature, chunkCapacity);
+			archetypes.put(signature, a);
+			archetypeList.add(a);
+		}
+		return a;
+	}
+}
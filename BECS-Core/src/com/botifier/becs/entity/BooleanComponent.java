@@ -0,0 +1,70 @@
+package com.botifier.becs.entity;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * BooleanComponent
+ *
+ * EntityComponent specialization that stores a boolean without boxing it
+ * Use getBoolean() and setBoolean() instead of get() and set() to avoid boxing
+ *
+ * @author Botifier
+ */
+public class BooleanComponent extends EntityComponent<Boolean> {
+
+	/**
+	 * The stored boolean
+	 */
+	private volatile boolean value;
+
+	/**
+	 * BooleanComponent constructor
+	 * @param name String Name of the component
+	 * @param owner Entity Owner of the component
+	 * @param info boolean Initial value
+	 */
+	public BooleanComponent(String name, Entity owner, boolean info) {
+		super(name, owner, Boolean.class);
+		this.value = info;
+	}
+
+	/**
+	 * Returns the stored boolean
+	 * @return boolean The value
+	 */
+	public boolean getBoolean() {
+		return value;
+	}
+
+	/**
+	 * Sets the stored boolean
+	 * Only boxes the values when an update event is handled
+	 * @param info boolean Value to use
+	 */
+	public void setBoolean(boolean info) {
+		boolean old = value;
+		if (old != info) {
+			markChanged();
+			if (isUpdateHandled())
+				fireUpdated(old, info);
+		}
+		value = info;
+	}
+
+	@Override
+	public Boolean get() {
+		return value;
+	}
+
+	@Override
+	public void set(Boolean info) {
+		setBoolean(info);
+	}
+
+	@Override
+	public synchronized Boolean update(UnaryOperator<Boolean> updater) {
+		boolean result = updater.apply(value);
+		setBoolean(result);
+		return result;
+	}
+}
@@ -0,0 +1,24 @@
+package com.botifier.becs.entity;
+
+/**
+ * ComponentFactory
+ *
+ * Creates the EntityComponent instances of a component type
+ * Resolved once when the component type is created, so giving a component is a direct call instead of reflection.
+ *
+ * @author Botifier
+ *
+ * @param \<T\> Type of information stored within the component
+ */
+@FunctionalInterface
+public interface ComponentFactory<T> {
+
+	/**
+	 * Creates a component
+	 * @param name String Name of the component
+	 * @param owner Entity Owner of the component
+	 * @param data T Information to store within
+	 * @return EntityComponent\<T\> The component
+	 */
+	EntityComponent<T> create(String name, Entity owner, T data);
+}
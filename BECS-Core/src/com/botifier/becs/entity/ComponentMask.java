@@ -0,0 +1,216 @@
+package com.botifier.becs.entity;
+
+import java.util.Arrays;
+
+/**
+ * ComponentMask
+ *
+ * An immutable set of component type ids stored as bits
+ * Used as an entity's component signature so all-of, any-of and none-of checks are a few word ANDs
+ *
+ * @author Botifier
+ */
+public final class ComponentMask {
+
+	/**
+	 * Mask without any components
+	 */
+	public static final ComponentMask EMPTY = new ComponentMask(new long[0]);
+
+	/**
+	 * Bits of the component type ids, without trailing zero words
+	 */
+	private final long[] words;
+
+	/**
+	 * Cached hash code
+	 */
+	private final int hash;
+
+	/**
+	 * ComponentMask constructor
+	 * @param words long[] Bits to use, trailing zero words are trimmed
+	 */
+	private ComponentMask(long[] words) {
+		int length = words.length;
+		while (length > 0 && words[length - 1] == 0)
+			length--;
+		this.words = length == words.length ? words : Arrays.copyOf(words, length);
+		this.hash = Arrays.hashCode(this.words);
+	}
+
+	/**
+	 * Creates a mask of the specified components
+	 * @param types ComponentType\<?\>... Components to include
+	 * @return ComponentMask The mask
+	 */
+	public static ComponentMask of(ComponentType<?>... types) {
+		if (types == null || types.length == 0)
+			return EMPTY;
+		int max = 0;
+		for (ComponentType<?> type : types) {
+			max = Math.max(max, type.getId());
+		}
+		long[] words = new long[(max >> 6) + 1];
+		for (ComponentType<?> type : types) {
+			words[type.getId() >> 6] |= 1L << type.getId();
+		}
+		return new ComponentMask(words);
+	}
+
+	/**
+	 * Returns a mask that also contains the specified id
+	 * @param id int Component type id
+	 * @return ComponentMask The new mask; this if the id was already present
+	 */
+	public ComponentMask with(int id) {
+		if (get(id))
+			return this;
+		long[] w = Arrays.copyOf(words, Math.max(words.length, (id >> 6) + 1));
+		w[id >> 6] |= 1L << id;
+		return new ComponentMask(w);
+	}
+
+	/**
+	 * Returns a mask without the specified id
+	 * @param id int Component type id
+	 * @return ComponentMask The new mask; this if the id wasn't present
+	 */
+	public ComponentMask without(int id) {
+		if (!get(id))
+			return this;
+		long[] w = words.clone();
+		w[id >> 6] &= ~(1L << id);
+		return new ComponentMask(w);
+	}
+
+	/**
+	 * Returns a mask containing the ids of both masks
+	 * @param other ComponentMask Mask to combine with
+	 * @return ComponentMask The combined mask
+	 */
+	public ComponentMask or(ComponentMask other) {
+		long[] big = words.length >= other.words.length ? words : other.words;
+		long[] small = big == words ? other.words : words;
+		long[] w = big.clone();
+		for (int i = 0; i < small.length; i++) {
+			w[i] |= small[i];
+		}
+		return new ComponentMask(w);
+	}
+
+	/**
+	 * Checks whether or not the mask contains an id
+	 * @param id int Component type id
+	 * @return boolean Whether or not the id is present
+	 */
+	public boolean get(int id) {
+		int w = id >> 6;
+		return w < words.length && (words[w] & (1L << id)) != 0;
+	}
+
+	/**
+	 * Checks whether or not the mask contains a component
+	 * @param type ComponentType\<?\> Component to check
+	 * @return boolean Whether or not the component is present
+	 */
+	public boolean contains(ComponentType<?> type) {
+		return get(type.getId());
+	}
+
+	/**
+	 * Checks whether or not this mask contains every id of another mask
+	 * @param other ComponentMask Required ids
+	 * @return boolean Whether or not all are present
+	 */
+	public boolean containsAll(ComponentMask other) {
+		if (other.words.length > words.length)
+			return false;
+		for (int i = 0; i < other.words.length; i++) {
+			if ((words[i] & other.words[i]) != other.words[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether or not this mask shares any id with another mask
+	 * @param other ComponentMask Ids to check
+	 * @return boolean Whether or not at least one is present
+	 */
+	public boolean intersects(ComponentMask other) {
+		int length = Math.min(words.length, other.words.length);
+		for (int i = 0; i < length; i++) {
+			if ((words[i] & other.words[i]) != 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether or not the mask is empty
+	 * @return boolean Whether or not no ids are present
+	 */
+	public boolean isEmpty() {
+		return words.length == 0;
+	}
+
+	/**
+	 * Returns the amount of ids in the mask
+	 * @return int Amount of ids
+	 */
+	public int cardinality() {
+		int count = 0;
+		for (long w : words) {
+			count += Long.bitCount(w);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the highest id plus one
+	 * @return int Length of the mask
+	 */
+	public int length() {
+		if (words.length == 0)
+			return 0;
+		int last = words.length - 1;
+		return last * Long.SIZE + Long.SIZE - Long.numberOfLeadingZeros(words[last]);
+	}
+
+	/**
+	 * Returns the ids in ascending order
+	 * @return int[] Component type ids
+	 */
+	public int[] toIds() {
+		int[] ids = new int[cardinality()];
+		int n = 0;
+		for (int i = 0; i < words.length; i++) {
+			long w = words[i];
+			while (w != 0) {
+				ids[n++] = i * Long.SIZE + Long.numberOfTrailingZeros(w);
+				w &= w - 1;
+			}
+		}
+		return ids;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		return Arrays.equals(words, ((ComponentMask) obj).words);
+	}
+
+	@Override
+	public String toString() {
+		return "ComponentMask" + Arrays.toString(toIds());
+	}
+}
@@ -0,0 +1,206 @@
+package com.botifier.becs.entity;
+
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * ComponentType
+ *
+ * A typed handle for a component created through EntityComponentManager.createComponent
+ * The id is small, stable and dense, so it can be used to index arrays instead of hashing names
+ *
+ * @author Botifier
+ *
+ * @param \<T\> Type of information stored within the component
+ */
+public final class ComponentType<T> {
+
+	/**
+	 * The index of the component type
+	 */
+	private final int id;
+
+	/**
+	 * The name of the component type as it was created
+	 */
+	private final String name;
+
+	/**
+	 * The class type of the information stored within
+	 */
+	private final Class<?> dataType;
+
+	/**
+	 * Whether or not this is a tag, which has no value and shares a single component
+	 */
+	private final boolean tag;
+
+	/**
+	 * Whether or not setting a component of this type fires an EntityComponentUpdatedEvent
+	 */
+	private volatile boolean updateEvents = false;
+
+	/**
+	 * Creates the components of this type
+	 */
+	private volatile ComponentFactory<T> factory;
+
+	/**
+	 * Copies information of this type for world snapshots
+	 */
+	private volatile UnaryOperator<T> copier;
+
+	/**
+	 * Last data class accepted besides the data type itself, skips the compatibility lookup for it
+	 */
+	private volatile Class<?> lastAccepted = null;
+
+	/**
+	 * ComponentType constructor
+	 * Only EntityComponentManager creates these
+	 * @param id int Index of the component type
+	 * @param name String Name of the component
+	 * @param dataType Class\<?\> Type of the information stored within
+	 * @param factory ComponentFactory\<T\> Creates the components of this type
+	 * @param copier UnaryOperator\<T\> Copies information of this type
+	 * @param tag boolean Whether or not this is a tag
+	 */
+	ComponentType(int id, String name, Class<?> dataType, ComponentFactory<T> factory, UnaryOperator<T> copier, boolean tag) {
+		this.id = id;
+		this.name = name;
+		this.dataType = dataType;
+		this.factory = factory;
+		this.copier = copier;
+		this.tag = tag;
+	}
+
+	/**
+	 * Returns the index of this component type
+	 * @return int The id
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the name of this component type
+	 * @return String The name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the class type of the information stored within
+	 * @return Class\<?\> The data type
+	 */
+	public Class<?> getDataType() {
+		return dataType;
+	}
+
+	/**
+	 * Returns whether or not this is a tag
+	 * Tags have no value, entities with one share a single TagComponent and get no archetype column for it
+	 * @return boolean Whether or not this is a tag
+	 */
+	public boolean isTag() {
+		return tag;
+	}
+
+	/**
+	 * Returns the factory that creates the components of this type
+	 * @return ComponentFactory\<T\> The factory
+	 */
+	public ComponentFactory<T> getFactory() {
+		return factory;
+	}
+
+	/**
+	 * Sets the factory that creates the components of this type
+	 * @param factory ComponentFactory\<T\> The factory
+	 */
+	@SuppressWarnings("unchecked")
+	void setFactory(ComponentFactory<?> factory) {
+		this.factory = (ComponentFactory<T>) factory;
+	}
+
+	/**
+	 * Returns the copier used for information of this type
+	 * @return UnaryOperator\<T\> The copier
+	 */
+	public UnaryOperator<T> getCopier() {
+		return copier;
+	}
+
+	/**
+	 * Sets the copier used for information of this type
+	 * @param copier UnaryOperator\<T\> The copier
+	 */
+	@SuppressWarnings("unchecked")
+	void setCopier(UnaryOperator<?> copier) {
+		this.copier = (UnaryOperator<T>) copier;
+	}
+
+	/**
+	 * Copies information of this type so it can be read while the original keeps changing
+	 * Immutable types are returned as is
+	 * @param value T Information to copy
+	 * @return T The copy; null if value is null
+	 */
+	public T copy(T value) {
+		return value == null ? null : copier.apply(value);
+	}
+
+	/**
+	 * Checks whether or not information of a class can be stored in components of this type
+	 * @param clazz Class\<?\> Class of the information
+	 * @return boolean Whether or not it is compatible
+	 */
+	boolean accepts(Class<?> clazz) {
+		if (clazz == dataType || clazz == lastAccepted)
+			return true;
+		if (!EntityComponentManager.isCompatibleType(dataType, clazz))
+			return false;
+		lastAccepted = clazz;
+		return true;
+	}
+
+	/**
+	 * Sets whether or not setting a component of this type fires an EntityComponentUpdatedEvent
+	 * Off by default, changes can be found with EntityComponent.getChangedTick instead
+	 * @param updateEvents boolean Whether or not to fire update events
+	 */
+	public void setUpdateEvents(boolean updateEvents) {
+		this.updateEvents = updateEvents;
+	}
+
+	/**
+	 * Returns whether or not setting a component of this type fires an EntityComponentUpdatedEvent
+	 * @return boolean Whether or not update events are fired
+	 */
+	public boolean hasUpdateEvents() {
+		return updateEvents;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ComponentType<?> other = (ComponentType<?>) obj;
+		return id == other.id;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ComponentType[%d, %s, %s]", id, name, dataType.getSimpleName());
+	}
+}
@@ -3,22 +3,27 @@ package com.botifier.becs.entity;
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 
 import org.joml.Vector2f;
+import org.joml.Vector2fc;
 
-import com.botifier.becs.Game;
 import com.botifier.becs.events.EntityDeathEvent;
 import com.botifier.becs.graphics.Renderer;
 import com.botifier.becs.graphics.images.Image;
 import com.botifier.becs.util.SpatialEntityMap;
+import com.botifier.becs.util.events.EventManager;
 import com.botifier.becs.util.shapes.Shape;
 
 /**
@@ -28,20 +33,54 @@ import com.botifier.becs.util.shapes.Shape;
  */
 public class Entity implements Comparable<Entity>, Cloneable{
 	/**
-	 * Map containing all entities and their UUIDs
+	 * Random high bits shared by generated UUIDs
+	 * Avoids hitting SecureRandom for every entity
 	 */
-	private static Map<UUID, Entity> entities = new ConcurrentHashMap<>();
+	private static final long UUID_PREFIX = UUID.randomUUID().getMostSignificantBits();
+	
+	/**
+	 * Counter for the low bits of generated UUIDs
+	 */
+	private static final AtomicLong uuidCounter = new AtomicLong();
 
 	/**
-	 * Spatial map of all entities
+	 * The world this entity belongs to
 	 */
-	private static SpatialEntityMap entitiesInSpace = new SpatialEntityMap(1024);
+	private final transient World world;
 
 	/**
-	 * List of current components for easy access
+	 * Current components indexed by their ComponentType id
 	 * Won't contain components not added via addComponent()
+	 * Replaced with a larger array when new component types are created
+	 */
+	protected transient volatile AtomicReferenceArray<EntityComponent<?>> components = new AtomicReferenceArray<>(EntityComponentManager.getComponentTypeCount());
+	
+	/**
+	 * Ids of the components this entity has
+	 * Replaced whenever a component is added or removed
+	 */
+	protected transient volatile ComponentMask signature = ComponentMask.EMPTY;
+	
+	/**
+	 * The archetype this entity is stored in
+	 * Only set while archetype storage is enabled
+	 */
+	transient Archetype archetype;
+	
+	/**
+	 * The chunk this entity is stored in
 	 */
-	protected transient Map<String, EntityComponent<?>> components = new ConcurrentHashMap<>();
+	transient ArchetypeChunk chunk;
+	
+	/**
+	 * The row of the chunk this entity is stored in
+	 */
+	transient int chunkRow = -1;
+	
+	/**
+	 * The row of the Vector2fColumnStore holding this entity's vectors
+	 */
+	transient int vectorRow = -1;
 	
 	/**
 	 * Stores the initial values of added components
@@ -54,14 +93,39 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	private String name;
 
 	/**
-	 * Entity UUID
+	 * Entity UUID, only created when asked for
 	 */
-	private UUID uuid;
+	private volatile UUID uuid;
+	
+	/**
+	 * Generational handle from the EntityRegistry
+	 */
+	volatile long handle = EntityRegistry.NULL_HANDLE;
+	
+	/**
+	 * Whether or not the entity was added to the world
+	 */
+	volatile boolean inWorld = false;
 
 	/**
 	 * Whether or not the entity is dead
 	 */
-	private boolean dead = false;
+	volatile boolean dead = false;
+	
+	/**
+	 * The pool this entity was obtained from, null if it isn't pooled
+	 */
+	transient EntityPool pool;
+	
+	/**
+	 * The entity this one is attached to, null if it has none
+	 */
+	private transient volatile Entity parent;
+	
+	/**
+	 * Entities attached to this one
+	 */
+	private final transient List<Entity> children = new CopyOnWriteArrayList<>();
 
 	/**
 	 * Whether or not this entity's textures should be automatically batched
@@ -73,6 +137,12 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	 */
 	private boolean fake = false;
 
+	/**
+	 * The entity equality and hashing are based on, itself unless this is a false clone
+	 * Unlike the handle it never changes, so entities stay findable in hashed collections
+	 */
+	private Entity identity = this;
+
 	/**
 	 * Rendering layer
 	 */
@@ -83,21 +153,27 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	 * 
 	 * @param name String Name of the Entity
 	 * @param uuid UUID Entity's UUID
+	 * @param handle long Entity's handle
+	 * @param world World Entity's world
 	 */
-	private Entity(String name, UUID uuid) {
+	private Entity(String name, UUID uuid, long handle, World world) {
 		this.name = name;
 		this.uuid = uuid;
+		this.handle = handle;
+		this.world = world;
 	}
 
 	/**
 	 * Entity constructor
 	 *
-	 * Automatically adds entity to the map
+	 * The entity belongs to the current world and is added to it by addEntity
+	 * It only gets a handle once it is added or given a component, so unused entities don't hold a registry slot
 	 *
 	 * @param name Name of entity
 	 */
 	public Entity(String name) {
-		this(name, UUID.randomUUID());
+		this.name = name;
+		this.world = World.current();
 	}
 
 	/**
@@ -112,15 +188,46 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	 */
 	public void destroy() {
 		dead = true;
+		pool = null;
 
-		Game.getCurrent().getEventManager().executeEvent(new EntityDeathEvent(this.falseClone()));
+		EventManager em = world.getEventManager();
+		if (em != null)
+			em.executeEvent(new EntityDeathEvent(this.falseClone()));
 		
-		if (entities.containsKey(uuid))
-			entities.remove(uuid);
-		for (String s : components.keySet()) {
-			removeComponent(s);
+		leaveWorld();
+		clearLinks();
+		ArchetypeStorage storage = world.archetypeStorage;
+		if (storage != null)
+			storage.remove(this);
+		AtomicReferenceArray<EntityComponent<?>> slots = components;
+		for (int i = 0; i < slots.length(); i++) {
+			if (slots.get(i) != null)
+				removeComponent(EntityComponentManager.getComponentType(i));
 		}
-		
+		world.untrack(this);
+		world.getRegistry().release(this);
+	}
+
+	/**
+	 * Marks the entity as removed from its world and drops it from the world's UUID index
+	 */
+	synchronized void leaveWorld() {
+		inWorld = false;
+		UUID u = uuid;
+		if (u != null)
+			world.entitiesByUUID.remove(u, this);
+	}
+
+	/**
+	 * Detaches this entity from its parent and its children from it
+	 * The children stay where they are
+	 */
+	void clearLinks() {
+		for (Entity child : children) {
+			child.clearParent();
+		}
+		if (parent != null)
+			clearParent();
 	}
 
 	/**
@@ -129,23 +236,23 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	 */
 	public void draw(Renderer r) {
 		//If the entity doesn't have a position there is nowhere to draw anything
-		if (!hasComponent("Position")) {
+		if (!hasComponent(EntityComponentManager.POSITION)) {
 			return;
 		}
 		//Gets the position of this entity
-		Vector2f pos = (Vector2f) getComponent("Position").get();
+		Vector2f pos = getComponent(EntityComponentManager.POSITION).get();
 		//Gets the entity's image
-		Image im = (Image) getComponent("Image").get();
+		Image im = getComponent(EntityComponentManager.IMAGE).get();
 		//Sets the color to white
 		Color c = Color.white;
 		//Changes the color if there is an Color component
-		if (hasComponent("Color")) {
-			c = (Color) getComponent("Color").get();
+		if (hasComponent(EntityComponentManager.COLOR)) {
+			c = getComponent(EntityComponentManager.COLOR).get();
 		}
 
 		//Use the collision shape as a base to draw the image if it exists
-		if (hasComponent("CollisionShape")) {
-			Shape s = (Shape) getComponent("CollisionShape").get();
+		if (hasComponent(EntityComponentManager.COLLISION_SHAPE)) {
+			Shape s = getComponent(EntityComponentManager.COLLISION_SHAPE).get();
 			//Use the AutoBatcher for rendering if enabled
 			if (autoBatch) {
 				r.getAutoBatcher().add(im, s, c);
@@ -211,14 +318,37 @@ public class Entity implements Comparable<Entity>, Cloneable{
 		return EntityComponentManager.giveComponent(this, componentName, value);
 	}
 	
+	/**
+	 * Adds specified component to component list
+	 * @param \<T\> Type of information stored in the component
+	 * @param type ComponentType\<T\> Component to add
+	 * @param value T value to put
+	 * @return EntityComponent\<T\> The added component
+	 */
+	public <T> EntityComponent<T> addComponent(ComponentType<T> type, T value) {
+		return EntityComponentManager.giveComponent(this, type, value);
+	}
+	
+	/**
+	 * Adds a tag to this entity, see EntityComponentManager.createTag
+	 * Remove it with removeComponent
+	 * @param tag ComponentType\<Boolean\> Tag to add
+	 */
+	public void addTag(ComponentType<Boolean> tag) {
+		if (!tag.isTag())
+			throw new IllegalArgumentException(String.format("%s is not a tag", tag.getName()));
+		EntityComponentManager.giveComponent(this, tag, Boolean.TRUE);
+	}
+	
 	/**
 	 * Updates a component or adds it if it doesn't exist
 	 * @param componentName String Name of the component
 	 * @param value Object value stored within the component
 	 */
 	public void updateOrAddComponent(String componentName, Object value) {
-		if (components.containsKey(componentName.toLowerCase())) {
-			EntityComponent<Object> ec = getComponent(componentName);
+		ComponentType<Object> type = EntityComponentManager.getComponentType(componentName);
+		if (type != null && hasComponent(type)) {
+			EntityComponent<Object> ec = getComponent(type);
 			ec.set(value);
 			return;
 		}
@@ -226,6 +356,22 @@ public class Entity implements Comparable<Entity>, Cloneable{
 		addComponent(componentName, value);
 	}
 	
+	/**
+	 * Updates a component or adds it if it doesn't exist
+	 * @param \<T\> Type of information stored in the component
+	 * @param type ComponentType\<T\> The component
+	 * @param value T value stored within the component
+	 */
+	public <T> void updateOrAddComponent(ComponentType<T> type, T value) {
+		EntityComponent<T> ec = getComponent(type);
+		if (ec != null) {
+			ec.set(value);
+			return;
+		}
+		
+		addComponent(type, value);
+	}
+	
 	/**
 	 * Removes a component from this entity
 	 * @param componentName String Component to removed
@@ -234,10 +380,81 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	public EntityComponent<?> removeComponent(String componentName) {
 		return EntityComponentManager.removeComponent(this, componentName);
 	}
+	
+	/**
+	 * Removes a component from this entity
+	 * @param \<T\> Type of information stored in the component
+	 * @param type ComponentType\<T\> Component to remove
+	 * @return EntityComponent\<T\> Removed component
+	 */
+	public <T> EntityComponent<T> removeComponent(ComponentType<T> type) {
+		return EntityComponentManager.removeComponent(this, type);
+	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Returns the component of the specified name
+	 * @param \<T\> Type of information stored in the component
+	 * @param name String Name of the component, case insensitive
+	 * @return EntityComponent\<T\> The component; null if the entity doesn't have it
+	 */
 	public <T> EntityComponent<T> getComponent(String name) {
-		return (EntityComponent<T>) components.get(name.toLowerCase());
+		ComponentType<T> type = EntityComponentManager.getComponentType(name);
+		return type != null ? getComponent(type) : null;
+	}
+	
+	/**
+	 * Returns the component of the specified type
+	 * @param \<T\> Type of information stored in the component
+	 * @param type ComponentType\<T\> The component
+	 * @return EntityComponent\<T\> The component; null if the entity doesn't have it
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> EntityComponent<T> getComponent(ComponentType<T> type) {
+		AtomicReferenceArray<EntityComponent<?>> slots = components;
+		int id = type.getId();
+		return id < slots.length() ? (EntityComponent<T>) slots.get(id) : null;
+	}
+	
+	/**
+	 * Places a component into its slot
+	 * Grows the slots if the component type was created after this entity
+	 * Counts as a change of the component for worlds tracking its type
+	 * @param id int ComponentType id
+	 * @param component EntityComponent\<?\> To place
+	 */
+	synchronized void setComponentSlot(int id, EntityComponent<?> component) {
+		AtomicReferenceArray<EntityComponent<?>> slots = components;
+		if (id >= slots.length()) {
+			AtomicReferenceArray<EntityComponent<?>> grown = new AtomicReferenceArray<>(Math.max(id + 1, EntityComponentManager.getComponentTypeCount()));
+			for (int i = 0; i < slots.length(); i++) {
+				grown.set(i, slots.get(i));
+			}
+			components = slots = grown;
+		}
+		slots.set(id, component);
+		signature = signature.with(id);
+		world.trackChange(id, this);
+	}
+	
+	/**
+	 * Returns the ids of the components this entity has
+	 * @return ComponentMask Component signature
+	 */
+	public ComponentMask getSignature() {
+		return signature;
+	}
+	
+	/**
+	 * Empties a component slot
+	 * @param id int ComponentType id
+	 * @return EntityComponent\<?\> The component that was in the slot
+	 */
+	synchronized EntityComponent<?> clearComponentSlot(int id) {
+		AtomicReferenceArray<EntityComponent<?>> slots = components;
+		EntityComponent<?> removed = id < slots.length() ? slots.getAndSet(id, null) : null;
+		if (removed != null)
+			signature = signature.without(id);
+		return removed;
 	}
 
 	/**
@@ -256,6 +473,14 @@ public class Entity implements Comparable<Entity>, Cloneable{
 		return autoBatch;
 	}
 
+	/**
+	 * Returns the archetype this entity is stored in
+	 * @return Archetype The archetype; null if archetype storage is disabled
+	 */
+	public Archetype getArchetype() {
+		return archetype;
+	}
+
 	/**
 	 * Returns the dead status of the entity
 	 * @return Whether it is dead or not
@@ -265,17 +490,61 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	}
 
 	/**
-	 * Checks whether or not the entity current has a component
-	 * @param name String Name of the component
-	 * @return boolean Whether or not the entity has the specified component
+	 * Checks whether or not the entity currently has every specified component
+	 * @param name String... Names of the components
+	 * @return boolean Whether or not the entity has all of the specified components
 	 */
 	public boolean hasComponent(String... name) {
+		ComponentMask mask = signature;
 		for (String s : name) {
-			if (components.containsKey(s.toLowerCase()))
+			ComponentType<?> type = EntityComponentManager.getComponentType(s);
+			if (type == null || !mask.contains(type))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Checks whether or not the entity currently has at least one of the specified components
+	 * @param name String... Names of the components
+	 * @return boolean Whether or not the entity has any of the specified components
+	 */
+	public boolean hasAnyComponent(String... name) {
+		ComponentMask mask = signature;
+		for (String s : name) {
+			ComponentType<?> type = EntityComponentManager.getComponentType(s);
+			if (type != null && mask.contains(type))
 				return true;
 		}
 		return false;
 	}
+	
+	/**
+	 * Checks whether or not the entity current has a component
+	 * @param type ComponentType\<?\> The component
+	 * @return boolean Whether or not the entity has the specified component
+	 */
+	public boolean hasComponent(ComponentType<?> type) {
+		return signature.contains(type);
+	}
+	
+	/**
+	 * Checks whether or not the entity currently has every component of a mask
+	 * @param mask ComponentMask Required components
+	 * @return boolean Whether or not all are present
+	 */
+	public boolean hasComponents(ComponentMask mask) {
+		return signature.containsAll(mask);
+	}
+	
+	/**
+	 * Checks whether or not the entity currently has at least one component of a mask
+	 * @param mask ComponentMask Components to check
+	 * @return boolean Whether or not any are present
+	 */
+	public boolean hasAnyComponent(ComponentMask mask) {
+		return signature.intersects(mask);
+	}
 
 	/**
 	 * Returns the rendering layer of the entity.
@@ -288,14 +557,172 @@ public class Entity implements Comparable<Entity>, Cloneable{
 
 	/**
 	 * Returns this entitie's UUID and creates one if it doesn't have one
-	 * Should probably be concerned it it didn't already have one after creation
+	 * Created UUIDs are unique within the program, use addEntity(e, uuid) for a persistent identity
 	 * @return Entitie's UUID
 	 */
 	public UUID getUUID() {
-		if (uuid == null) { //Grant a random UUID if the entity doesn't have one
-			uuid = UUID.randomUUID();
+		UUID u = uuid;
+		if (u == null) { //Grant a UUID if the entity doesn't have one
+			synchronized (this) {
+				if (uuid == null) {
+					uuid = new UUID(UUID_PREFIX, uuidCounter.incrementAndGet());
+					if (inWorld)
+						world.entitiesByUUID.put(uuid, this);
+				}
+				u = uuid;
+			}
+		}
+		return u;
+	}
+	
+	/**
+	 * Returns this entity's generational handle
+	 * @return long The handle; EntityRegistry.NULL_HANDLE until the entity is added or given a component
+	 */
+	public long getHandle() {
+		return handle;
+	}
+
+	/**
+	 * Gives the entity a handle in its world if it doesn't hold a live one
+	 * Component sets and queries index entities by the slot of their handle
+	 */
+	synchronized void ensureRegistered() {
+		EntityRegistry registry = world.getRegistry();
+		if (registry.get(handle) != this)
+			registry.register(this);
+	}
+
+	/**
+	 * Returns the world this entity belongs to
+	 * @return World The world
+	 */
+	public World getWorld() {
+		return world;
+	}
+
+	/**
+	 * Attaches this entity to a parent, keeping its current position
+	 * @param parent Entity To attach to; null to detach
+	 */
+	public void setParent(Entity parent) {
+		if (parent == null) {
+			clearParent();
+			return;
+		}
+		EntityComponent<Vector2f> p = parent.getComponent(EntityComponentManager.POSITION);
+		EntityComponent<Vector2f> own = getComponent(EntityComponentManager.POSITION);
+		Vector2f offset = new Vector2f();
+		if (p != null && own != null)
+			own.get().sub(p.get(), offset);
+		setParent(parent, offset);
+	}
+
+	/**
+	 * Attaches this entity to a parent
+	 * Its position follows the parent's position plus the local position, see TransformSystem
+	 * @param parent Entity To attach to; null to detach
+	 * @param localPosition Vector2fc Offset from the parent
+	 */
+	public void setParent(Entity parent, Vector2fc localPosition) {
+		if (parent == null) {
+			clearParent();
+			return;
+		}
+		if (parent.world != world)
+			throw new IllegalArgumentException(String.format("%s belongs to a different world than %s", parent.getName(), getName()));
+		synchronized (world) {
+			for (Entity p = parent; p != null; p = p.parent) {
+				if (p == this)
+					throw new IllegalArgumentException(String.format("%s can't be attached to its own descendant %s", getName(), parent.getName()));
+			}
+			detach();
+			this.parent = parent;
+			parent.children.add(this);
+			world.parents.add(parent);
 		}
-		return uuid;
+		setLocalPosition(localPosition);
+	}
+
+	/**
+	 * Detaches this entity from its parent
+	 * The entity stays where it is and its LocalPosition component is removed
+	 */
+	public void clearParent() {
+		synchronized (world) {
+			if (parent == null)
+				return;
+			detach();
+			parent = null;
+			world.dirtyTransforms.remove(this);
+		}
+		if (hasComponent(EntityComponentManager.LOCAL_POSITION))
+			removeComponent(EntityComponentManager.LOCAL_POSITION);
+	}
+
+	/**
+	 * Removes this entity from its parent's children
+	 */
+	private void detach() {
+		Entity old = parent;
+		if (old == null)
+			return;
+		old.children.remove(this);
+		if (old.children.isEmpty())
+			world.parents.remove(old);
+	}
+
+	/**
+	 * Sets the offset of this entity from its parent and moves it there
+	 * Children of this entity are moved by the next TransformSystem run
+	 * @param localPosition Vector2fc Offset from the parent
+	 */
+	public void setLocalPosition(Vector2fc localPosition) {
+		Entity p = parent;
+		if (p == null)
+			throw new IllegalStateException(String.format("%s has no parent", getName()));
+		Vector2f offset = new Vector2f(localPosition);
+		EntityComponent<Vector2f> local = getComponent(EntityComponentManager.LOCAL_POSITION);
+		if (local != null)
+			local.set(offset);
+		else
+			addComponent(EntityComponentManager.LOCAL_POSITION, offset);
+
+		EntityComponent<Vector2f> parentPosition = p.getComponent(EntityComponentManager.POSITION);
+		if (parentPosition != null) {
+			Vector2f position = new Vector2f(parentPosition.get()).add(offset);
+			EntityComponent<Vector2f> own = getComponent(EntityComponentManager.POSITION);
+			if (own != null)
+				own.set(position);
+			else
+				addComponent(EntityComponentManager.POSITION, position);
+		}
+		world.dirtyTransforms.add(this);
+	}
+
+	/**
+	 * Returns the entity this one is attached to
+	 * @return Entity The parent; null if it has none
+	 */
+	public Entity getParent() {
+		return parent;
+	}
+
+	/**
+	 * Returns the entities attached to this one
+	 * @return List\<Entity\> Unmodifiable list of children
+	 */
+	public List<Entity> getChildren() {
+		return Collections.unmodifiableList(children);
+	}
+	
+	/**
+	 * Returns the registry slot of this entity
+	 * Dense and reused after the entity is destroyed, fit for indexing arrays
+	 * @return int The slot index
+	 */
+	public int getIndex() {
+		return EntityRegistry.indexOf(handle);
 	}
 
 	/**
@@ -303,7 +730,14 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	 * @return List of components
 	 */
 	public ArrayList<EntityComponent<?>> getComponents() {
-		return new ArrayList<>(components.values());
+		AtomicReferenceArray<EntityComponent<?>> slots = components;
+		ArrayList<EntityComponent<?>> list = new ArrayList<>();
+		for (int i = 0; i < slots.length(); i++) {
+			EntityComponent<?> ec = slots.get(i);
+			if (ec != null)
+				list.add(ec);
+		}
+		return list;
 	}
 
 	/**
@@ -315,21 +749,46 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	}
 
 	/**
-	 * Gets an Entity by it's UUID
+	 * Gets an Entity of the current world by it's UUID
 	 * @param u UUID To use
 	 * @return Entity that belongs to the specified UUID; null if it doesn't exist
 	 */
 	public static Entity getEntity(UUID u) {
-		return entities.getOrDefault(u, null);
+		if (u == null)
+			return null;
+		Entity e = World.current().entitiesByUUID.get(u);
+		return e != null && e.inWorld ? e : null;
+	}
+	
+	/**
+	 * Gets an Entity of the current world by it's handle
+	 * @param handle long Handle to use
+	 * @return Entity that belongs to the handle; null if it was destroyed or isn't in the world
+	 */
+	public static Entity getEntity(long handle) {
+		Entity e = World.current().getRegistry().get(handle);
+		return e != null && e.inWorld ? e : null;
 	}
 
 	/**
-	 * Returns the entity map as an array list
-	 * @return
+	 * Returns the entities in the current world
+	 * @return HashSet\<Entity\> All entities in the world
 	 */
 	public static HashSet<Entity> getEntities() {
-		//Creates an ArrayList using the Entity map
-		return new HashSet<>(entities.values());
+		HashSet<Entity> set = new HashSet<>();
+		World.current().getRegistry().forEach(e -> {
+			if (e.inWorld)
+				set.add(e);
+		});
+		return set;
+	}
+	
+	/**
+	 * Returns the registry of entity handles of the current world
+	 * @return EntityRegistry The registry
+	 */
+	public static EntityRegistry getRegistry() {
+		return World.current().getRegistry();
 	}
 
 	/**
@@ -337,7 +796,7 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	 * @return Set\<Entity\> fake versions of all entities
 	 */
 	public static Set<Entity> getFalseEntities() {
-		Set<Entity> en = entities.values().stream()
+		Set<Entity> en = getEntities().stream()
 											.map(k -> k.falseClone())
 											.collect(Collectors.toSet());
 
@@ -356,44 +815,47 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	}
 
 	/**
-	 * Returns the spatial map of entities
+	 * Returns the spatial map of entities in the current world
 	 * @return SpatialEntityMap The map
 	 */
 	public static SpatialEntityMap spatialMap() {
-		return entitiesInSpace;
+		return World.current().getSpatialMap();
 	}
 
 	/**
 	 * Literally just clear()
 	 */
 	public static void reset() {
-		entities.clear();
+		World w = World.current();
+		w.getRegistry().forEach(e -> e.inWorld = false);
+		w.entitiesByUUID.clear();
 	}
 
 	/**
 	 * Clones the entity
 	 */
 	public Entity falseClone() {
-		Entity clone = new Entity(this.name, this.uuid);
-		boolean collision = false;
-		for (Map.Entry<String, EntityComponent<?>> entry : this.components.entrySet()) {
-	        String key = entry.getKey().toLowerCase();
-	        EntityComponent<?> ec = entry.getValue().clone();
-	        clone.components.put(key, ec);
-
-	        if (!collision && ec.getName().equalsIgnoreCase("CollisionShape")) {
-	            collision = true;
-	        }
-	    }
-
-		if (collision && hasComponent("Position")) {
-			EntityComponent<Shape> sC = getComponent("CollisionShape");
-			EntityComponent<Vector2f> pC = getComponent("Position");
+		Entity clone = new Entity(this.name, this.uuid, this.handle, this.world);
+		AtomicReferenceArray<EntityComponent<?>> slots = this.components;
+		AtomicReferenceArray<EntityComponent<?>> cloneSlots = new AtomicReferenceArray<>(slots.length());
+		for (int i = 0; i < slots.length(); i++) {
+			EntityComponent<?> ec = slots.get(i);
+			if (ec != null)
+				cloneSlots.set(i, ec.clone());
+		}
+		clone.components = cloneSlots;
+		clone.signature = this.signature;
+		boolean collision = clone.hasComponent(EntityComponentManager.COLLISION_SHAPE);
+
+		if (collision && hasComponent(EntityComponentManager.POSITION)) {
+			EntityComponent<Shape> sC = getComponent(EntityComponentManager.COLLISION_SHAPE);
+			EntityComponent<Vector2f> pC = getComponent(EntityComponentManager.POSITION);
 			Vector2f p = pC.get();
 
 			sC.get().setCenter(p.x, p.y);
 		}
 		clone.fake = true;
+		clone.identity = this.identity;
 		return clone;
 	}
 
@@ -407,7 +869,7 @@ public class Entity implements Comparable<Entity>, Cloneable{
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(fake, name, uuid);
+		return System.identityHashCode(identity) * 31 + (fake ? 1 : 0);
 	}
 
 	@Override
@@ -420,8 +882,7 @@ public class Entity implements Comparable<Entity>, Cloneable{
 			return false;
 		Entity other = (Entity) obj;
 		
-		return fake == other.fake && Objects.equals(name, other.name)
-				&& Objects.equals(uuid, other.uuid);
+		return fake == other.fake && identity == other.identity;
 	}
 
 	@Override
@@ -434,7 +895,16 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	 * @param e Entity To add
 	 */
 	public static Entity addEntity(Entity e) {
-		return entities.putIfAbsent(e.getUUID(), e.init());
+		synchronized (e) {
+			if (e.inWorld)
+				return e;
+			e.ensureRegistered();
+			e.inWorld = true;
+			if (e.uuid != null)
+				e.world.entitiesByUUID.put(e.uuid, e);
+		}
+		e.init();
+		return null;
 	}
 	
 	/**
@@ -444,7 +914,7 @@ public class Entity implements Comparable<Entity>, Cloneable{
 	 * @return Entity Added Entity
 	 */
 	public static Entity addEntity(Entity e, UUID u) {
-		if (entities.containsKey(e.getUUID()))
+		if (e.inWorld)
 			throw new IllegalArgumentException("Error: You cannot add an existing entity to a different UUID.");
 		e.uuid = u;
 		return addEntity(e);
@@ -0,0 +1,206 @@
+package com.botifier.becs.entity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import com.botifier.becs.events.EntityComponentAddedEvent;
+import com.botifier.becs.events.EntityComponentRemovedEvent;
+import com.botifier.becs.util.events.Event;
+import com.botifier.becs.util.events.EventManager;
+
+/**
+ * EntityCommandBuffer
+ *
+ * Records structural changes from any thread so they can be applied later in one go
+ * Game plays back its buffer after the systems of each tick, so systems never change the sets they iterate.
+ *
+ * Playback applies commands in the order they were recorded.
+ * Archetypes and queries are updated once per changed entity, then all component events are fired.
+ *
+ * @author Botifier
+ */
+public class EntityCommandBuffer {
+
+	/**
+	 * Recorded commands
+	 */
+	private final ConcurrentLinkedQueue<Consumer<Playback>> commands = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Records adding an entity to the world
+	 * @param e Entity To add
+	 */
+	public void spawn(Entity e) {
+		commands.add(p -> Entity.addEntity(e));
+	}
+
+	/**
+	 * Records creating an entity and adding it to the world
+	 * @param name String Name of the entity
+	 * @param setup Consumer\<Entity\> Gives the entity its components, run during playback
+	 */
+	public void spawn(String name, Consumer<Entity> setup) {
+		commands.add(p -> {
+			Entity e = new Entity(name);
+			setup.accept(e);
+			Entity.addEntity(e);
+		});
+	}
+
+	/**
+	 * Records destroying an entity
+	 * @param e Entity To destroy
+	 */
+	public void destroy(Entity e) {
+		commands.add(p -> {
+			p.flush();
+			if (!e.isDead())
+				e.destroy();
+		});
+	}
+
+	/**
+	 * Records returning an entity to its pool
+	 * @param pool EntityPool Pool the entity came from
+	 * @param e Entity To release
+	 */
+	public void release(EntityPool pool, Entity e) {
+		commands.add(p -> {
+			p.flush();
+			pool.release(e);
+		});
+	}
+
+	/**
+	 * Records adding a component, replacing the current one
+	 * @param \<T\> Type of information stored within the component
+	 * @param e Entity To give
+	 * @param type ComponentType\<T\> Component to add
+	 * @param value T Information to store within
+	 */
+	public <T> void addComponent(Entity e, ComponentType<T> type, T value) {
+		commands.add(p -> p.add(e, type, value));
+	}
+
+	/**
+	 * Records removing a component
+	 * @param \<T\> Type of information stored within the component
+	 * @param e Entity To remove from
+	 * @param type ComponentType\<T\> Component to remove
+	 */
+	public <T> void removeComponent(Entity e, ComponentType<T> type) {
+		commands.add(p -> p.remove(e, type));
+	}
+
+	/**
+	 * Applies every recorded command
+	 * Commands recorded by other commands are applied as well, ones recorded by the final events wait for the next playback
+	 */
+	public void playback() {
+		if (commands.isEmpty())
+			return;
+		Playback p = new Playback();
+		Consumer<Playback> command;
+		while ((command = commands.poll()) != null) {
+			command.accept(p);
+		}
+		p.flush();
+	}
+
+	/**
+	 * Drops every recorded command
+	 */
+	public void clear() {
+		commands.clear();
+	}
+
+	/**
+	 * Checks whether or not anything is recorded
+	 * @return boolean Whether or not the buffer is empty
+	 */
+	public boolean isEmpty() {
+		return commands.isEmpty();
+	}
+
+	/**
+	 * State of a single playback
+	 */
+	private static class Playback {
+
+		/**
+		 * Entities whose components changed since the last flush
+		 */
+		private final Set<Entity> changed = new LinkedHashSet<>();
+
+		/**
+		 * Events to fire on the next flush
+		 */
+		private final List<PendingEvent> events = new ArrayList<>();
+
+		/**
+		 * Attaches a component without touching the indexes
+		 * Skips entities destroyed or released earlier in the playback
+		 */
+		<T> void add(Entity e, ComponentType<T> type, T value) {
+			if (e.isDead())
+				return;
+			EntityComponent<T> component = EntityComponentManager.buildComponent(e, type, value);
+			if (component == null)
+				return;
+			EntityComponentManager.attachComponent(e, type, component);
+			changed.add(e);
+			events.add(new PendingEvent(new EntityComponentAddedEvent<T>(e, component), type.getName(), e));
+		}
+
+		/**
+		 * Detaches a component without touching the indexes
+		 * Skips entities destroyed or released earlier in the playback
+		 */
+		<T> void remove(Entity e, ComponentType<T> type) {
+			if (e.isDead())
+				return;
+			EntityComponent<T> removed = EntityComponentManager.detachComponent(e, type);
+			if (removed == null)
+				return;
+			changed.add(e);
+			events.add(new PendingEvent(new EntityComponentRemovedEvent<T>(e, removed), type.getName(), e));
+		}
+
+		/**
+		 * Updates the indexes of changed entities once each, then fires their events on the event manager of their world
+		 */
+		void flush() {
+			for (Entity e : changed) {
+				EntityComponentManager.syncIndexes(e);
+			}
+			changed.clear();
+			if (events.isEmpty())
+				return;
+			for (PendingEvent pending : events) {
+				EventManager em = pending.target.getWorld().getEventManager();
+				if (em != null)
+					em.executeEventOn(pending.event, pending.origin, pending.target.getUUID());
+			}
+			events.clear();
+		}
+	}
+
+	/**
+	 * A component event waiting for the end of a flush
+	 */
+	private static class PendingEvent {
+		final Event event;
+		final String origin;
+		final Entity target;
+
+		PendingEvent(Event event, String origin, Entity target) {
+			this.event = event;
+			this.origin = origin;
+			this.target = target;
+		}
+	}
+}
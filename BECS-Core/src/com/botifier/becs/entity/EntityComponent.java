@@ -4,8 +4,8 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.UnaryOperator;
 
-import com.botifier.becs.*;
 import com.botifier.becs.events.*;
+import com.botifier.becs.util.events.EventManager;
 
 /**
  *
@@ -36,6 +36,16 @@ public class EntityComponent<T> implements Cloneable {
 	 * The class type of the stored information
 	 */
 	protected final Class<T> type;
+	
+	/**
+	 * The change tick of the last time the information changed
+	 */
+	private volatile long changedTick;
+	
+	/**
+	 * The component type, resolved from the name when first needed
+	 */
+	private volatile ComponentType<?> componentType = null;
 
 	/**
 	 * Component constructor
@@ -44,13 +54,27 @@ public class EntityComponent<T> implements Cloneable {
 	 */
 	@SuppressWarnings("unchecked")
 	public EntityComponent(String name, Entity owner, T info) {
-		information = new AtomicReference<>();
-		set(info);
+		information = new AtomicReference<>(info);
+		this.changedTick = currentTick(owner);
 		this.name = name;
 		this.owner = owner;
 		this.type = (Class<T>) info.getClass();
 	}
 	
+	/**
+	 * Component constructor for subclasses that store their information themselves
+	 * @param name Name of the component
+	 * @param owner Entity Owner of the component
+	 * @param type Class\<T\> Type of the stored information
+	 */
+	protected EntityComponent(String name, Entity owner, Class<T> type) {
+		this.information = null;
+		this.changedTick = currentTick(owner);
+		this.name = name;
+		this.owner = owner;
+		this.type = type;
+	}
+	
 
 	/**
 	 * Returns the name of the component
@@ -73,10 +97,11 @@ public class EntityComponent<T> implements Cloneable {
 	 * @param info Information to use
 	 */
 	public void set(T info) {
-		if (!info.equals(get()))
-			Game.getCurrent().getEventManager().executeEventOn(new EntityComponentUpdatedEvent<T>(this, get(), info),
-																   getName(),
-																   getOwnerUUID());
+		T old = get();
+		if (!info.equals(old)) {
+			markChanged();
+			fireUpdated(old, info);
+		}
 		information.set(info);
 	}
 	
@@ -89,13 +114,104 @@ public class EntityComponent<T> implements Cloneable {
 	public T update(UnaryOperator<T> updater) {
 		T old = get();
 		T result = information.updateAndGet(updater);
-		if (!result.equals(get()))
-			Game.getCurrent().getEventManager().executeEventOn(new EntityComponentUpdatedEvent<T>(this, old, result),
-																   getName(),
-																   getOwnerUUID());
+		if (!result.equals(old)) {
+			markChanged();
+			fireUpdated(old, result);
+		}
 		return result;
 	}
 	
+	/**
+	 * Stamps the current change tick onto this component
+	 * Subclasses call this whenever their stored information changes
+	 */
+	protected void markChanged() {
+		changedTick = currentTick(owner);
+		trackChange();
+	}
+	
+	/**
+	 * Lets the owner's world collect the owner if it tracks this component's type
+	 */
+	private void trackChange() {
+		if (owner == null)
+			return;
+		ComponentType<?> t = getComponentType();
+		if (t != null)
+			owner.getWorld().trackChange(t.getId(), owner);
+	}
+	
+	/**
+	 * Returns the change tick of the world an owner belongs to
+	 * @param owner Entity Owner of the component, may be null
+	 * @return long The change tick; that of the current world if there is no owner
+	 */
+	private static long currentTick(Entity owner) {
+		return owner != null ? owner.getWorld().getChangeTick() : EntityComponentManager.getChangeTick();
+	}
+	
+	/**
+	 * Returns the change tick of the last time the information changed
+	 * @return long The change tick
+	 */
+	public long getChangedTick() {
+		return changedTick;
+	}
+	
+	/**
+	 * Checks whether or not the information changed after the specified change tick
+	 * @param tick long Change tick to compare with
+	 * @return boolean Whether or not the information changed after tick
+	 */
+	public boolean changedSince(long tick) {
+		return changedTick > tick;
+	}
+	
+	/**
+	 * Returns the component type of this component
+	 * @return ComponentType\<?\> The component type; null if the name isn't a created component
+	 */
+	public ComponentType<?> getComponentType() {
+		ComponentType<?> t = componentType;
+		if (t == null && name != null)
+			componentType = t = EntityComponentManager.getComponentType(name);
+		return t;
+	}
+	
+	/**
+	 * Checks whether or not an update of this component should fire an event
+	 * Requires the component type to have update events enabled and something to handle them
+	 * @return boolean Whether or not an EntityComponentUpdatedEvent would be handled
+	 */
+	protected boolean isUpdateHandled() {
+		return getUpdateHandler() != null;
+	}
+	
+	/**
+	 * Executes an EntityComponentUpdatedEvent if anything handles it
+	 * @param oldValue T The old value
+	 * @param newValue T The new value
+	 */
+	protected void fireUpdated(T oldValue, T newValue) {
+		EventManager em = getUpdateHandler();
+		if (em != null)
+			em.executeEventOn(new EntityComponentUpdatedEvent<T>(this, oldValue, newValue), getName(), getOwnerUUID());
+	}
+	
+	/**
+	 * Returns the event manager of the owner's world if it handles updates of this component
+	 * Components without an owner use the current world
+	 * @return EventManager The event manager; null if updates aren't handled
+	 */
+	private EventManager getUpdateHandler() {
+		ComponentType<?> t = getComponentType();
+		if (t == null || !t.hasUpdateEvents())
+			return null;
+		World w = owner != null ? owner.getWorld() : World.current();
+		EventManager em = w.getEventManager();
+		return em != null && em.isHandled(EntityComponentUpdatedEvent.class, getName()) ? em : null;
+	}
+	
 	/**
 	 * Returns the owner of this component
 	 * @return Entity The owner
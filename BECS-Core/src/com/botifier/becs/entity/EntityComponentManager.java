@@ -1,106 +1,441 @@
 package com.botifier.becs.entity;
 
 import java.awt.Color;
-import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ObjIntConsumer;
+import java.util.function.UnaryOperator;
 
 import org.joml.Vector2f;
 import org.joml.Vector2fc;
 
-import com.botifier.becs.Game;
 import com.botifier.becs.events.*;
 import com.botifier.becs.events.listeners.PhysicsListener;
 import com.botifier.becs.graphics.images.Image;
 import com.botifier.becs.util.EntityRunnable;
+import com.botifier.becs.util.events.EventManager;
 import com.botifier.becs.util.shapes.Shape;
 
 public class EntityComponentManager {
 	/**
-	 * Maps list of owners and name of component
+	 * Maps lower-cased name of component to its type
 	 */
-	private static final ConcurrentHashMap<String, CopyOnWriteArraySet<Entity>> componentMap = new ConcurrentHashMap<>();
+	private static final ConcurrentHashMap<String, ComponentType<?>> nameMap = new ConcurrentHashMap<>();
+	
+	/**
+	 * Caches component types by the exact name used to look them up
+	 * Avoids lower-casing names that have already been seen
+	 */
+	private static final ConcurrentHashMap<String, ComponentType<?>> lookupCache = new ConcurrentHashMap<>();
+	
+	/**
+	 * Component types indexed by their id
+	 */
+	private static final List<ComponentType<?>> types = new CopyOnWriteArrayList<>();
+	
 	/**
-	 * Maps name of component to class type of information within
+	 * Component factories used for data types, resolved by createComponent
 	 */
-	private static final ConcurrentHashMap<String, Class<?>> nameMap = new ConcurrentHashMap<>();
+	private static final ConcurrentHashMap<Class<?>, ComponentFactory<?>> factoryMap = new ConcurrentHashMap<>();
 	
 	/**
-	 * Map of overrides for custom component types
+	 * Copiers used for data types, resolved by createComponent
+	 * Data types without one are treated as immutable
 	 */
-	private static final ConcurrentHashMap<Class<?>, Class<? extends EntityComponent<?>>> overrideMap = new ConcurrentHashMap<>();
+	private static final ConcurrentHashMap<Class<?>, UnaryOperator<?>> copierMap = new ConcurrentHashMap<>();
+	
+	/*
+	 * Basic factories and copiers, registered before the basic components are created
+	 */
+	static {
+		factoryMap.put(Vector2f.class, (ComponentFactory<Vector2f>) EntityVector2fComponent::new);
+		factoryMap.put(Vector2fc.class, (ComponentFactory<Vector2f>) EntityVector2fComponent::new);
+		factoryMap.put(float.class, (ComponentFactory<Float>) FloatComponent::new);
+		factoryMap.put(Float.class, (ComponentFactory<Float>) FloatComponent::new);
+		factoryMap.put(int.class, (ComponentFactory<Integer>) IntComponent::new);
+		factoryMap.put(Integer.class, (ComponentFactory<Integer>) IntComponent::new);
+		factoryMap.put(long.class, (ComponentFactory<Long>) LongComponent::new);
+		factoryMap.put(Long.class, (ComponentFactory<Long>) LongComponent::new);
+		factoryMap.put(boolean.class, (ComponentFactory<Boolean>) BooleanComponent::new);
+		factoryMap.put(Boolean.class, (ComponentFactory<Boolean>) BooleanComponent::new);
+		copierMap.put(Vector2f.class, (UnaryOperator<Vector2f>) Vector2f::new);
+		copierMap.put(Vector2fc.class, (UnaryOperator<Vector2f>) Vector2f::new);
+		copierMap.put(Shape.class, (UnaryOperator<Shape>) Shape::clone);
+	}
 	
 	private static final ConcurrentHashMap<Class<?>, Set<Class<?>>> compatabilityCache = new ConcurrentHashMap<>();
 	
 	/**
-	 * Initializes basic components
+	 * Factory used for data types without one
+	 */
+	private static final ComponentFactory<?> DEFAULT_FACTORY = (ComponentFactory<Object>) EntityComponent::new;
+	
+	/*
+	 * Basic components
+	 */
+	public static final ComponentType<Boolean> ARROW_KEY_CONTROLLED = createTag("ArrowKeyControlled");
+	public static final ComponentType<Boolean> BOOLEAN_DIRECTION = createComponent("BooleanDirection", boolean.class);
+	public static final ComponentType<PhysicsListener> PHYSICS_ENABLED = createComponent("PhysicsEnabled", PhysicsListener.class);
+	public static final ComponentType<Boolean> COLLIDABLE = createTag("Collidable");
+	public static final ComponentType<Shape> COLLISION_SHAPE = createComponent("CollisionShape", Shape.class);
+	public static final ComponentType<Boolean> GRAVITY_AFFECTED = createTag("GravityAffected");
+	public static final ComponentType<Color> COLOR = createComponent("Color", Color.class);
+	public static final ComponentType<String> IGNORE_WITH = createComponent("IgnoreWith", String.class);
+	public static final ComponentType<Image> IMAGE = createComponent("Image", Image.class);
+	public static final ComponentType<EntityRunnable> INTERACTABLE = createComponent("Interactable", EntityRunnable.class);
+	public static final ComponentType<Vector2f> POSITION = createComponent("Position", Vector2fc.class);
+	public static final ComponentType<Float> ROTATION = createComponent("Rotation", float.class);
+	public static final ComponentType<Long> SNAPPY = createComponent("Snappy", long.class);
+	public static final ComponentType<Boolean> SOLID = createTag("Solid");
+	public static final ComponentType<Float> SPEED = createComponent("Speed", float.class);
+	public static final ComponentType<Vector2f> VELOCITY = createComponent("Velocity", Vector2fc.class);
+	public static final ComponentType<Vector2f> ACCELERATION = createComponent("Acceleration", Vector2fc.class);
+	public static final ComponentType<Vector2f> TRAILER = createComponent("Trailer", Vector2fc.class);
+	public static final ComponentType<Vector2f> LOCAL_POSITION = createComponent("LocalPosition", Vector2fc.class);
+	
+	/**
+	 * Initializes the component manager
+	 * The basic factories and components are created when this class is loaded
 	 */
 	public static synchronized void init() {
-		overrideMap.put(Vector2f.class, EntityVector2fComponent.class);
-		
-		createComponent("ArrowKeyControlled", boolean.class);
-		createComponent("BooleanDirection", boolean.class);
-		createComponent("PhysicsEnabled", PhysicsListener.class);
-		createComponent("Collidable", boolean.class);
-		createComponent("CollisionShape", Shape.class);
-		createComponent("GravityAffected", boolean.class);
-		createComponent("Color", Color.class);
-		createComponent("IgnoreWith", String.class);
-		createComponent("Image", Image.class);
-		createComponent("Interactable", EntityRunnable.class);
-		createComponent("Position", Vector2fc.class);
-		createComponent("Rotation", float.class);
-		createComponent("Snappy", long.class);
-		createComponent("Solid", boolean.class);
-		createComponent("Speed", float.class);
-		createComponent("Velocity", Vector2fc.class);
-		createComponent("Acceleration", Vector2fc.class);
-		createComponent("Trailer", Vector2fc.class);
+	}
+	
+	/**
+	 * Sets the factory used for components storing a data type
+	 * Component types of that data type created without their own factory are updated as well
+	 * @param \<T\> Type of information stored within
+	 * @param dataType Class\<T\> Type of the information
+	 * @param factory ComponentFactory\<T\> Creates the components
+	 */
+	public static synchronized <T> void setComponentFactory(Class<T> dataType, ComponentFactory<T> factory) {
+		if (dataType == null || factory == null)
+			throw new NullPointerException("dataType and factory cannot be null");
+		ComponentFactory<?> old = factoryMap.put(dataType, factory);
+		for (ComponentType<?> type : types) {
+			if (type.getDataType() == dataType && (old == null ? type.getFactory() == DEFAULT_FACTORY : type.getFactory() == old))
+				type.setFactory(factory);
+		}
+	}
+
+	/**
+	 * Sets the copier used for a data type when world snapshots are taken
+	 * Component types of that data type are updated as well
+	 * @param \<T\> Type of information stored within
+	 * @param dataType Class\<T\> Type of the information
+	 * @param copier UnaryOperator\<T\> Copies the information; UnaryOperator.identity() for immutable types
+	 */
+	public static synchronized <T> void setComponentCopier(Class<T> dataType, UnaryOperator<T> copier) {
+		if (dataType == null || copier == null)
+			throw new NullPointerException("dataType and copier cannot be null");
+		copierMap.put(dataType, copier);
+		for (ComponentType<?> type : types) {
+			if (type.getDataType() == dataType && !type.isTag())
+				type.setCopier(copier);
+		}
 	}
 
 	/**
 	 * Creates a new component
+	 * @param \<T\> Type of information that will be stored within
+	 * @param name Name of component
+	 * @param dataType Class Type of the information that will be stored within
+	 * @return ComponentType\<T\> Handle of the new component
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <T> ComponentType<T> createComponent(String name, Class<? super T> dataType) {
+		if (dataType == null) {
+			throw new IllegalArgumentException("dataType cannot be null!");
+		}
+		ComponentFactory<T> factory = (ComponentFactory<T>) factoryMap.getOrDefault(dataType, DEFAULT_FACTORY);
+		return createComponent(name, dataType, factory);
+	}
+	
+	/**
+	 * Creates a new component that is constructed by a specific factory
+	 * @param \<T\> Type of information that will be stored within
 	 * @param name Name of component
 	 * @param dataType Class Type of the information that will be stored within
+	 * @param factory ComponentFactory\<T\> Creates the components
+	 * @return ComponentType\<T\> Handle of the new component
 	 */
-	public static void createComponent(String name,  Class<?> dataType) {
+	public static synchronized <T> ComponentType<T> createComponent(String name, Class<? super T> dataType, ComponentFactory<T> factory) {
 		if (dataType == null) {
 			throw new IllegalArgumentException("dataType cannot be null!");
 		}
+		if (factory == null) {
+			throw new IllegalArgumentException("factory cannot be null!");
+		}
 		if (nameMap.containsKey(name.toLowerCase())) {
 			throw new IllegalArgumentException(String.format("Component of name '%s' already exists.", name));
 		}
 
-		nameMap.put(name.toLowerCase(), dataType);
-		
-		//Ensure the class is loaded into memory
-		try {
-			if (!dataType.isPrimitive())
-				Class.forName(dataType.getName());
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
+		@SuppressWarnings("unchecked")
+		UnaryOperator<T> copier = (UnaryOperator<T>) copierMap.getOrDefault(dataType, UnaryOperator.identity());
+		return registerType(new ComponentType<>(types.size(), name, dataType, factory, copier, false));
+	}
+	
+	/**
+	 * Creates a new tag
+	 * A tag is a component without a value, only whether or not an entity has it matters.
+	 * Entities with the tag share a single TagComponent, so tagging allocates nothing per entity.
+	 * Tags are given with the value true, giving false throws an IllegalArgumentException.
+	 * @param name String Name of the tag
+	 * @return ComponentType\<Boolean\> Handle of the new tag
+	 */
+	public static synchronized ComponentType<Boolean> createTag(String name) {
+		if (nameMap.containsKey(name.toLowerCase())) {
+			throw new IllegalArgumentException(String.format("Component of name '%s' already exists.", name));
 		}
+		TagComponent shared = new TagComponent(name);
+		ComponentFactory<Boolean> factory = (n, owner, data) -> {
+			if (!data)
+				throw new IllegalArgumentException(String.format("Tag %s cannot be given as false, remove it instead", n));
+			return shared;
+		};
+		return registerType(new ComponentType<>(types.size(), name, boolean.class, factory, UnaryOperator.identity(), true));
+	}
+	
+	/**
+	 * Adds a created component type to the type list and name map
+	 * @param \<T\> Type of information stored within
+	 * @param type ComponentType\<T\> The new type
+	 * @return ComponentType\<T\> The type
+	 */
+	private static <T> ComponentType<T> registerType(ComponentType<T> type) {
+		types.add(type);
+		nameMap.put(type.getName().toLowerCase(), type);
+		return type;
+	}
+	
+	/**
+	 * Returns the component type of the specified name
+	 * @param \<T\> Type of information stored within the component
+	 * @param name String Name of the component, case insensitive
+	 * @return ComponentType\<T\> The component type; null if it doesn't exist
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ComponentType<T> getComponentType(String name) {
+		ComponentType<?> type = lookupCache.get(name);
+		if (type == null) {
+			type = nameMap.get(name.toLowerCase());
+			if (type != null) {
+				lookupCache.put(name, type);
+			}
+		}
+		return (ComponentType<T>) type;
+	}
+	
+	/**
+	 * Checks whether or not instances of a Prefab can share a value of a component type
+	 * Tags, types with their own component class and types whose values are copied can't be shared
+	 * @param type ComponentType\<?\> The component type
+	 * @return boolean Whether or not values can be shared
+	 */
+	static boolean isShareable(ComponentType<?> type) {
+		return !type.isTag() && type.getFactory() == DEFAULT_FACTORY && type.getCopier() == UnaryOperator.identity();
+	}
+	
+	/**
+	 * Returns the component type with the specified id
+	 * @param id int Id of the component type
+	 * @return ComponentType\<?\> The component type; null if it doesn't exist
+	 */
+	public static ComponentType<?> getComponentType(int id) {
+		return id >= 0 && id < types.size() ? types.get(id) : null;
+	}
+	
+	/**
+	 * Enables or disables archetype storage of the current world
+	 * Entities that already have components are placed into archetypes when enabled
+	 * @param enabled boolean Whether or not entities should be grouped into archetypes
+	 */
+	public static synchronized void setArchetypeStorage(boolean enabled) {
+		World w = World.current();
+		if (enabled == (w.archetypeStorage != null))
+			return;
+		if (!enabled) {
+			w.archetypeStorage.clear();
+			w.archetypeStorage = null;
+			return;
+		}
+		ArchetypeStorage storage = new ArchetypeStorage();
+		for (Set<Entity> owners : w.getAllOwners()) {
+			for (Entity e : owners) {
+				if (e.getArchetype() == null)
+					storage.place(e);
+			}
+		}
+		w.archetypeStorage = storage;
+	}
+	
+	/**
+	 * Returns the archetype storage of the current world
+	 * @return ArchetypeStorage The storage; null if disabled
+	 */
+	public static ArchetypeStorage getArchetypeStorage() {
+		return World.current().archetypeStorage;
+	}
+	
+	/**
+	 * Sets the store used for Vector2f components of the types it stores in the current world
+	 * Components created afterwards live off-heap, the caller is responsible for destroying the store
+	 * @param store Vector2fColumnStore Store to use; null to disable
+	 */
+	public static synchronized void setVector2fStore(Vector2fColumnStore store) {
+		World w = World.current();
+		Vector2fColumnStore current = w.vector2fStore;
+		if (current != null && current != store && current.size() > 0)
+			throw new IllegalStateException("Entities still have components in the current Vector2fColumnStore");
+		w.vector2fStore = store;
+	}
+	
+	/**
+	 * Returns the store used for Vector2f components of the current world
+	 * @return Vector2fColumnStore The store; null if disabled
+	 */
+	public static Vector2fColumnStore getVector2fStore() {
+		return World.current().vector2fStore;
+	}
+	
+	/**
+	 * Creates a query over the current world that is kept up to date as components are added and removed
+	 * Entities that already have components are added immediately
+	 * @param all ComponentType\<?\>[] Components an entity must all have
+	 * @param any ComponentType\<?\>[] Components an entity must have at least one of; null or empty to ignore
+	 * @param none ComponentType\<?\>[] Components an entity must not have; null or empty to ignore
+	 * @return Query The query
+	 */
+	public static synchronized Query createQuery(ComponentType<?>[] all, ComponentType<?>[] any, ComponentType<?>[] none) {
+		World w = World.current();
+		Query q = new Query(all, any, none);
+		w.queries.add(q);
+		//Every match has the first all-of component, or at least one any-of component
+		ComponentType<?>[] seeds = q.getAll().length > 0 ? new ComponentType<?>[] {q.getAll()[0]} : q.getAny();
+		for (ComponentType<?> type : seeds) {
+			for (Entity e : w.getOwners(type.getId())) {
+				q.refresh(e);
+			}
+		}
+		return q;
+	}
+	
+	/**
+	 * Creates a query matching entities that have all of the specified components
+	 * @param all ComponentType\<?\>... Components an entity must all have
+	 * @return Query The query
+	 */
+	public static Query createQuery(ComponentType<?>... all) {
+		return createQuery(all, null, null);
+	}
+	
+	/**
+	 * Stops updating a query of the current world and empties it
+	 * @param q Query To remove
+	 */
+	public static synchronized void removeQuery(Query q) {
+		if (World.current().queries.remove(q))
+			q.clear();
+	}
+	
+	/**
+	 * Takes a pooled entity out of every component set, query and the archetype storage
+	 * Its components stay in place and no events are fired
+	 * @param e Entity To deactivate, already marked dead
+	 */
+	static void deactivate(Entity e) {
+		World w = e.getWorld();
+		ArchetypeStorage storage = w.archetypeStorage;
+		if (storage != null)
+			storage.remove(e);
+		for (int id : e.getSignature().toIds()) {
+			w.getOwners(id).remove(e);
+		}
+		for (Query q : w.queries) {
+			q.refresh(e);
+		}
+	}
+	
+	/**
+	 * Puts a pooled entity back into the component sets, queries and archetype storage
+	 * @param e Entity To activate, no longer marked dead
+	 */
+	static void activate(Entity e) {
+		World w = e.getWorld();
+		for (int id : e.getSignature().toIds()) {
+			w.getOwners(id).add(e);
+		}
+		ArchetypeStorage storage = w.archetypeStorage;
+		if (storage != null)
+			storage.place(e);
+		for (Query q : w.queries) {
+			q.refresh(e);
+		}
+	}
+	
+	/**
+	 * Updates every query that uses the changed component
+	 * @param e Entity That changed
+	 * @param type ComponentType\<?\> Component that was added or removed
+	 */
+	private static void refreshQueries(Entity e, ComponentType<?> type) {
+		for (Query q : e.getWorld().queries) {
+			if (q.involves(type))
+				q.refresh(e);
+		}
+	}
+	
+	/**
+	 * Returns the change tick of the current world
+	 * @return long The change tick
+	 */
+	public static long getChangeTick() {
+		return World.current().getChangeTick();
+	}
+	
+	/**
+	 * Advances the change tick of the current world
+	 * Game advances it at the start of every tick and before every system run
+	 * @return long The new change tick
+	 */
+	public static long advanceChangeTick() {
+		return World.current().advanceChangeTick();
+	}
+	
+	/**
+	 * Returns how many component types exist
+	 * @return int Amount of component types
+	 */
+	public static int getComponentTypeCount() {
+		return types.size();
 	}
 
 	/**
 	 * Grants an entity specified component
 	 * @param <T> Object extending EntityComponent
 	 * @param e Entity to give
+	 * @param type ComponentType\<T\> Type of the component
 	 * @param component Component instance to use
 	 */
-	private static <T> void addComponent(Entity e, EntityComponent<T> component) {
+	private static <T> void addComponent(Entity e, ComponentType<T> type, EntityComponent<T> component) {
 		if (e == null || component == null) {
 			return;
 		}
-		componentMap.computeIfAbsent(component.getName().toLowerCase(), k -> new CopyOnWriteArraySet<Entity>()).add(e);
-		e.components.put(component.getName().toLowerCase(), component);
+		attachComponent(e, type, component);
 		
+		ArchetypeStorage storage = e.getWorld().archetypeStorage;
+		if (storage != null)
+			storage.update(e, type);
+		refreshQueries(e, type);
 		
-		Game.getCurrent().getEventManager().executeEventOn(new EntityComponentAddedEvent<T>(e, component),
-														   component.getName(),
-														   e.getUUID());
+		EventManager em = e.getWorld().getEventManager();
+		if (em != null)
+			em.executeEventOn(new EntityComponentAddedEvent<T>(e, component),
+							  component.getName(),
+							  e.getUUID());
 	}
 	
 	
@@ -114,31 +449,101 @@ public class EntityComponentManager {
 	public static <T> EntityComponent<T> removeComponent(Entity e, String componentName) {
 		if (e == null || componentName == null)
 			return null;
-		String lower = componentName.toLowerCase();
+		ComponentType<T> type = getComponentType(componentName);
+		
+		if (type == null)
+			throw new IllegalArgumentException(String.format("No type mapping for for component %s", componentName.toLowerCase()));
+		
+		return removeComponent(e, type);
+	}
+	
+	/**
+	 * Removes a component from an entity
+	 * @param <T> Type of information in the component
+	 * @param e Entity To remove from
+	 * @param type ComponentType\<T\> Component to remove
+	 * @return EntityComponent\<T\> A detached copy of the removed component; null if the entity didn't have it
+	 */
+	public static <T> EntityComponent<T> removeComponent(Entity e, ComponentType<T> type) {
+		if (e == null || type == null)
+			return null;
+
+		EntityComponent<T> ent = detachComponent(e, type);
+		if (ent == null)
+			return null;
+		
+		ArchetypeStorage storage = e.getWorld().archetypeStorage;
+		if (storage != null)
+			storage.update(e, type);
+		refreshQueries(e, type);
 
-		EntityComponent<?> en = e.components.getOrDefault(lower, null);
+		EventManager em = e.getWorld().getEventManager();
+		if (em != null)
+			em.executeEventOn(new EntityComponentRemovedEvent<T>(e, ent),
+							  type.getName(),
+							  e.getUUID());
+
+		return ent;
+	}
+	
+	/**
+	 * Puts a component into an entity's slot and component set
+	 * Doesn't update the archetype storage or queries and doesn't fire events
+	 * @param \<T\> Type of information in the component
+	 * @param e Entity To give
+	 * @param type ComponentType\<T\> Type of the component
+	 * @param component EntityComponent\<T\> Component to use
+	 */
+	static <T> void attachComponent(Entity e, ComponentType<T> type, EntityComponent<T> component) {
+		e.ensureRegistered();
+		e.getWorld().getOwners(type.getId()).add(e);
+		e.setComponentSlot(type.getId(), component);
+	}
+	
+	/**
+	 * Takes a component out of an entity's slot and component set
+	 * Doesn't update the archetype storage or queries and doesn't fire events
+	 * @param \<T\> Type of information in the component
+	 * @param e Entity To remove from
+	 * @param type ComponentType\<T\> Component to remove
+	 * @return EntityComponent\<T\> A detached copy of the removed component; the shared component of a tag; null if the entity didn't have it
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> EntityComponent<T> detachComponent(Entity e, ComponentType<T> type) {
+		EntityComponent<?> en = e.clearComponentSlot(type.getId());
 		
 		if (en == null)
 			return null;
-		Class<?> type = nameMap.getOrDefault(componentName.toLowerCase(), null);
 		
-		if (type == null)
-			throw new IllegalArgumentException(String.format("No type mapping for for component %s", lower));
+		if (!isCompatibleType(type.getDataType(), en.getDataType()))
+			throw new ClassCastException(String.format("%s is not compatible with %s", en.get().getClass().getSimpleName(), type.getDataType().getSimpleName()));
 		
-		if (!isCompatibleType(type, en.getDataType()))
-			throw new ClassCastException(String.format("%s is not compatible with %s", en.get().getClass().getSimpleName(), type.getSimpleName()));
+		e.getWorld().getOwners(type.getId()).remove(e);
 		
-		e.components.remove(lower);
-		componentMap.get(lower).remove(e);
-
-		@SuppressWarnings("unchecked")
-		EntityComponent<T> ent =  new EntityComponent<T>(lower, e, (T) en.get());
-		Game.getCurrent().getEventManager().executeEventOn(new EntityComponentRemovedEvent<T>(e, ent),
-				   en.getName(),
-				   e.getUUID());
+		//The shared component of a tag has no owner to detach from
+		if (type.isTag())
+			return (EntityComponent<T>) en;
 
+		EntityComponent<T> ent =  new EntityComponent<T>(type.getName().toLowerCase(), e, (T) en.get());
+		
+		if (en instanceof OffHeapVector2fComponent)
+			((OffHeapVector2fComponent) en).getStore().detach(e, type);
 		return ent;
 	}
+	
+	/**
+	 * Brings the archetype storage and queries up to date with an entity after attaching or detaching components
+	 * @param e Entity That changed
+	 */
+	static void syncIndexes(Entity e) {
+		World w = e.getWorld();
+		ArchetypeStorage storage = w.archetypeStorage;
+		if (storage != null)
+			storage.sync(e);
+		for (Query q : w.queries) {
+			q.refresh(e);
+		}
+	}
 
 	/**
 	 * Gives an entity a component based on name
@@ -148,34 +553,147 @@ public class EntityComponentManager {
 	 * @param data Information to store within
 	 * @return The component that was added
 	 */
-	@SuppressWarnings("unchecked")
 	public static <Z> EntityComponent<Z> giveComponent(Entity e,  String componentName, Z data) {
-		if (!nameMap.containsKey(componentName.toLowerCase())) {
+		ComponentType<Z> type = getComponentType(componentName);
+		if (type == null) {
 			throw new NullPointerException(String.format("Component of name '%s' does not exist.", componentName));
 		}
+		return giveComponent(e, type, data);
+	}
+	
+	/**
+	 * Gives an entity a component
+	 * @param <Z> Data Type
+	 * @param e Entity to give
+	 * @param type ComponentType\<Z\> Type of the component
+	 * @param data Information to store within
+	 * @return The component that was added
+	 */
+	public static <Z> EntityComponent<Z> giveComponent(Entity e, ComponentType<Z> type, Z data) {
+		EntityComponent<Z> component = buildComponent(e, type, data);
+		addComponent(e, type, component);
+		return component;
+	}
+	
+	/**
+	 * Creates a component for an entity without adding it
+	 * @param <Z> Data Type
+	 * @param e Entity Owner of the component
+	 * @param type ComponentType\<Z\> Type of the component
+	 * @param data Information to store within
+	 * @return The created component
+	 */
+	@SuppressWarnings("unchecked")
+	static <Z> EntityComponent<Z> buildComponent(Entity e, ComponentType<Z> type, Z data) {
+		if (!type.accepts(data.getClass()))
+			throw new ClassCastException(String.format("%s is not compatible with %s", data.getClass().getSimpleName(), type.getDataType().getSimpleName()));
 		
-		EntityComponent<Z> component = null;
-		Class<? extends EntityComponent<?>> clazz = overrideMap.computeIfPresent(nameMap.get(componentName.toLowerCase()), (a, b) -> {
-			return b;
-		});
+		Vector2fColumnStore store = e != null ? e.getWorld().vector2fStore : getVector2fStore();
+		if (store != null && store.stores(type))
+			return (EntityComponent<Z>) store.attach(e, type, (Vector2fc) data);
+		return type.getFactory().create(type.getName(), e, data);
+	}
+
+	/**
+	 * Spawns entities from a template in one pass
+	 * @param template EntityTemplate Components to give
+	 * @param count int Amount of entities
+	 * @return Entity[] The spawned entities
+	 */
+	public static Entity[] spawnBatch(EntityTemplate template, int count) {
+		return spawnBatch(template, count, null);
+	}
+	
+	/**
+	 * Spawns entities from a template into the current world in one pass
+	 * Components are attached first, then the initializer runs, then component sets, archetypes, queries and the spatial map
+	 * are updated for every entity at once before they are added to the world.
+	 * Fires a single EntitiesSpawnedEvent instead of an EntityComponentAddedEvent per component.
+	 * 
+	 * @param template EntityTemplate Components to give
+	 * @param count int Amount of entities
+	 * @param initializer ObjIntConsumer\<Entity\> Sets up each entity with its index, may be null
+	 * @return Entity[] The spawned entities
+	 */
+	public static Entity[] spawnBatch(EntityTemplate template, int count, ObjIntConsumer<Entity> initializer) {
+		if (template == null)
+			throw new NullPointerException("template cannot be null");
+		if (count < 0)
+			throw new IllegalArgumentException(String.format("count cannot be negative: %d", count));
 		
+		World w = World.current();
+		List<EntityTemplate.Entry<?>> entries = template.getEntries();
+		Entity[] spawned = new Entity[count];
+		for (int i = 0; i < count; i++) {
+			Entity e = new Entity(template.getName());
+			for (EntityTemplate.Entry<?> entry : entries) {
+				attachSlot(e, entry);
+			}
+			if (initializer != null)
+				initializer.accept(e, i);
+			spawned[i] = e;
+		}
 		
-		Class<? > type = nameMap.getOrDefault(componentName.toLowerCase(), null);
-		if (!isCompatibleType(type, data.getClass()))
-			throw new ClassCastException(String.format("%s is not compatible with %s", data.getClass().getSimpleName(), type.getSimpleName()));
+		//Handles are only given once every entity was built
+		for (Entity e : spawned) {
+			e.ensureRegistered();
+		}
 		
-		if (clazz == null) {
-				component = new EntityComponent<Z>(componentName, e, data);
-		} else {
-			try {
-				component = (EntityComponent<Z>) clazz.getDeclaredConstructors()[0].newInstance(componentName, e, data);
-			} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-					| InvocationTargetException | SecurityException e1) {
-				e1.printStackTrace();
+		//Fills the component sets once per type
+		for (EntityTemplate.Entry<?> entry : entries) {
+			List<Entity> holders = new ArrayList<>(count);
+			for (Entity e : spawned) {
+				if (e.hasComponent(entry.type))
+					holders.add(e);
 			}
+			w.getOwners(entry.type.getId()).addAll(holders);
 		}
-		addComponent(e, component);
-		return component;
+		
+		List<Entity> placed = new ArrayList<>(count);
+		for (Entity e : spawned) {
+			syncIndexes(e);
+			if (centerCollisionShape(e))
+				placed.add(e);
+		}
+		w.getSpatialMap().addEntities(placed);
+		
+		for (Entity e : spawned) {
+			Entity.addEntity(e);
+		}
+		
+		EventManager em = w.getEventManager();
+		if (em != null && em.isHandled(EntitiesSpawnedEvent.class, null))
+			em.executeEvent(new EntitiesSpawnedEvent(spawned, template));
+		return spawned;
+	}
+	
+	/**
+	 * Builds a template component and places it into the entity's slot
+	 * @param \<T\> Type of information stored within the component
+	 * @param e Entity To give
+	 * @param entry EntityTemplate.Entry\<T\> Component to build
+	 */
+	private static <T> void attachSlot(Entity e, EntityTemplate.Entry<T> entry) {
+		EntityComponent<T> component = entry.build(e);
+		if (component != null)
+			e.setComponentSlot(entry.type.getId(), component);
+	}
+	
+	/**
+	 * Moves an entity's collision shape to its position, like WorldListener does when the shape is added
+	 * @param e Entity To move
+	 * @return boolean Whether or not the entity can be placed into the spatial map
+	 */
+	private static boolean centerCollisionShape(Entity e) {
+		EntityComponent<Shape> s = e.getComponent(COLLISION_SHAPE);
+		EntityComponent<Vector2f> p = e.getComponent(POSITION);
+		if (s == null || p == null)
+			return false;
+		Vector2f center = p.get();
+		Shape sh = s.get();
+		sh.setCenter(center.x, center.y);
+		s.set(sh);
+		return true;
 	}
 
 	/**
@@ -184,8 +702,18 @@ public class EntityComponentManager {
 	 * @return ArrayList of entities
 	 */
 	public static Set<Entity> getEntitiesWithComponent(String componentName) {
-		Set<Entity> entities = componentMap.get(componentName.toLowerCase());
-		return entities != null ? Collections.unmodifiableSet(entities) : Collections.emptySet();
+		ComponentType<?> type = getComponentType(componentName);
+		return type != null ? getEntitiesWithComponent(type) : Collections.emptySet();
+	}
+	
+	/**
+	 * Finds all entities of the current world with the specified component
+	 * Iterating the set walks a copy of its members, see EntitySet
+	 * @param type ComponentType\<?\> Type of the component
+	 * @return Set\<Entity\> Unmodifiable view of the entities
+	 */
+	public static Set<Entity> getEntitiesWithComponent(ComponentType<?> type) {
+		return Collections.unmodifiableSet(World.current().getOwners(type.getId()));
 	}
 
 	/**
@@ -198,6 +726,16 @@ public class EntityComponentManager {
 	public static <T extends EntityComponent<?>> boolean hasComponent(Entity e, String componentName) {
 		return e.hasComponent(componentName);
 	}
+	
+	/**
+	 * Checks if an entity has specified component
+	 * @param e Entity to check
+	 * @param type ComponentType\<?\> Component to check
+	 * @return Whether or not entity has the component
+	 */
+	public static boolean hasComponent(Entity e, ComponentType<?> type) {
+		return e.hasComponent(type);
+	}
 
 
 	/**
@@ -206,7 +744,8 @@ public class EntityComponentManager {
 	 * @return The class type
 	 */
 	public static Class<?> getComponentDataType(String name) {
-		return nameMap.get(name.toLowerCase());
+		ComponentType<?> type = getComponentType(name);
+		return type != null ? type.getDataType() : null;
 	}
 
 	/**
@@ -251,7 +790,7 @@ public class EntityComponentManager {
 	}
 	
 	
-	private static boolean isCompatibleType(Class<?> expected, Class<?> actual) {
+	static boolean isCompatibleType(Class<?> expected, Class<?> actual) {
 		Set<Class<?>> compat = compatabilityCache
 				.computeIfAbsent(expected, type -> {
 					Set<Class<?>> compatibleTypes = ConcurrentHashMap.newKeySet();
@@ -0,0 +1,159 @@
+package com.botifier.becs.entity;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+import org.joml.Vector2f;
+
+import com.botifier.becs.events.EntityDeathEvent;
+import com.botifier.becs.util.events.EventManager;
+import com.botifier.becs.util.shapes.Shape;
+
+/**
+ * EntityPool
+ *
+ * Recycles entities that are spawned and destroyed often, like projectiles
+ * Released entities keep their components and are only taken out of the component sets, queries and spatial map.
+ * They are detached from their parent and children like destroyed entities, so nothing follows or moves a released entity.
+ * Obtaining one puts it back and runs the initializer, which should use updateOrAddComponent to reset values in place.
+ *
+ * Releasing fires a single EntityDeathEvent marked as recycled instead of a copy and a removal event per component.
+ * Each release gives the entity a new handle generation, so handles held elsewhere go stale as with destroy().
+ *
+ * @author Botifier
+ */
+public class EntityPool {
+
+	/**
+	 * Name given to created entities
+	 */
+	private final String name;
+
+	/**
+	 * Sets up the components of obtained entities
+	 */
+	private final Consumer<Entity> initializer;
+
+	/**
+	 * Released entities ready for reuse
+	 */
+	private final ArrayDeque<Entity> free = new ArrayDeque<>();
+
+	/**
+	 * Components given by the initializer, others are removed on release
+	 */
+	private volatile ComponentMask template = null;
+
+	/**
+	 * EntityPool constructor
+	 * @param name String Name given to created entities
+	 * @param initializer Consumer\<Entity\> Sets up the components of obtained entities
+	 */
+	public EntityPool(String name, Consumer<Entity> initializer) {
+		if (initializer == null)
+			throw new NullPointerException("initializer cannot be null");
+		this.name = name;
+		this.initializer = initializer;
+	}
+
+	/**
+	 * Returns an entity in the world, reusing a released one if possible
+	 * @return Entity The entity
+	 */
+	public Entity obtain() {
+		Entity e;
+		synchronized (this) {
+			e = free.pollLast();
+		}
+		if (e == null) {
+			e = new Entity(name);
+			e.pool = this;
+			initializer.accept(e);
+			if (template == null)
+				template = e.getSignature();
+			Entity.addEntity(e);
+			return e;
+		}
+
+		e.dead = false;
+		e.ensureRegistered();
+		EntityComponentManager.activate(e);
+		initializer.accept(e);
+		addToSpatialMap(e);
+		Entity.addEntity(e);
+		return e;
+	}
+
+	/**
+	 * Returns an entity to the pool
+	 * @param e Entity To release
+	 * @return boolean Whether or not the entity was released; false if it isn't from this pool or is already released
+	 */
+	public boolean release(Entity e) {
+		if (e == null || e.pool != this || e.isDead())
+			return false;
+		ComponentMask t = template;
+		if (t != null) {
+			for (int id : e.getSignature().toIds()) {
+				if (!t.get(id))
+					e.removeComponent(EntityComponentManager.getComponentType(id));
+			}
+		}
+
+		e.dead = true;
+		e.leaveWorld();
+		e.clearLinks();
+		EntityComponentManager.deactivate(e);
+		World w = e.getWorld();
+		w.untrack(e);
+		if (w.getSpatialMap().contains(e))
+			w.getSpatialMap().removeEntity(e);
+
+		EventManager em = w.getEventManager();
+		if (em != null && em.isHandled(EntityDeathEvent.class, null))
+			em.executeEvent(new EntityDeathEvent(e, true));
+
+		w.getRegistry().release(e);
+		synchronized (this) {
+			free.addLast(e);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the amount of released entities waiting for reuse
+	 * @return int Amount of entities
+	 */
+	public synchronized int available() {
+		return free.size();
+	}
+
+	/**
+	 * Destroys every released entity
+	 */
+	public void clear() {
+		Entity[] held;
+		synchronized (this) {
+			held = free.toArray(Entity[]::new);
+			free.clear();
+		}
+		for (Entity e : held) {
+			e.destroy();
+		}
+	}
+
+	/**
+	 * Puts a reused entity back into the spatial map, like WorldListener does when its components are added
+	 * @param e Entity To add
+	 */
+	private static void addToSpatialMap(Entity e) {
+		if (!e.hasComponent(EntityComponentManager.POSITION) || !e.hasComponent(EntityComponentManager.COLLISION_SHAPE))
+			return;
+		EntityComponent<Shape> s = e.getComponent(EntityComponentManager.COLLISION_SHAPE);
+		Vector2f p = e.getComponent(EntityComponentManager.POSITION).get();
+		Shape sh = s.get();
+		sh.setCenter(p.x, p.y);
+		s.set(sh);
+		e.getWorld().getSpatialMap().addEntity(e);
+	}
+}
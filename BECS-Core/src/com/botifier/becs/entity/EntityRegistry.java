@@ -0,0 +1,181 @@
+package com.botifier.becs.entity;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * EntityRegistry
+ *
+ * Hands out generational entity handles and maps them back to entities through an array
+ * A handle packs the slot index into the low 32 bits and the slot's generation into the high 32 bits.
+ * Releasing a handle bumps the generation of its slot, so stale handles stop resolving once the slot is reused.
+ *
+ * Handles are only unique while the program runs, use the entity's UUID for a persistent identity.
+ *
+ * @author Botifier
+ */
+public class EntityRegistry {
+
+	/**
+	 * Handle that never belongs to an entity
+	 */
+	public static final long NULL_HANDLE = 0L;
+
+	/**
+	 * Entities indexed by slot
+	 */
+	private volatile Entity[] slots = new Entity[256];
+
+	/**
+	 * Current generation of each slot, starts at 1 so NULL_HANDLE never resolves
+	 */
+	private int[] generations = new int[256];
+
+	/**
+	 * Released slots ready for reuse
+	 */
+	private int[] free = new int[64];
+
+	/**
+	 * Amount of released slots
+	 */
+	private int freeCount = 0;
+
+	/**
+	 * Highest slot handed out plus one
+	 */
+	private int used = 0;
+
+	/**
+	 * Amount of registered entities
+	 */
+	private volatile int size = 0;
+
+	/**
+	 * Gives an entity a slot and returns its handle
+	 * @param e Entity To register
+	 * @return long The new handle
+	 */
+	synchronized long register(Entity e) {
+		int index;
+		if (freeCount > 0) {
+			index = free[--freeCount];
+		} else {
+			index = used++;
+			if (index == slots.length) {
+				generations = Arrays.copyOf(generations, index * 2);
+				slots = Arrays.copyOf(slots, index * 2);
+			}
+		}
+		if (generations[index] == 0)
+			generations[index] = 1;
+		long handle = toHandle(index, generations[index]);
+		e.handle = handle;
+		slots[index] = e;
+		size++;
+		return handle;
+	}
+
+	/**
+	 * Frees the slot of an entity
+	 * Does nothing if the entity's handle is stale
+	 * @param e Entity To release
+	 * @return boolean Whether or not the slot was freed
+	 */
+	synchronized boolean release(Entity e) {
+		long handle = e.handle;
+		int index = indexOf(handle);
+		if (handle == NULL_HANDLE || index >= used || slots[index] != e || generations[index] != generationOf(handle))
+			return false;
+		slots[index] = null;
+		//Skip 0 when wrapping around so NULL_HANDLE stays unused
+		generations[index] = generations[index] == Integer.MAX_VALUE ? 1 : generations[index] + 1;
+		if (freeCount == free.length)
+			free = Arrays.copyOf(free, freeCount * 2);
+		free[freeCount++] = index;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Returns the entity of a handle
+	 * @param handle long Handle to resolve
+	 * @return Entity The entity; null if the handle is stale
+	 */
+	public Entity get(long handle) {
+		int index = indexOf(handle);
+		Entity[] s = slots;
+		if (index < 0 || index >= s.length)
+			return null;
+		Entity e = s[index];
+		return e != null && e.handle == handle ? e : null;
+	}
+
+	/**
+	 * Checks whether or not a handle still belongs to an entity
+	 * @param handle long Handle to check
+	 * @return boolean Whether or not the handle resolves
+	 */
+	public boolean isAlive(long handle) {
+		return get(handle) != null;
+	}
+
+	/**
+	 * Runs an action on every registered entity
+	 * @param action Consumer\<Entity\> To run
+	 */
+	public void forEach(Consumer<Entity> action) {
+		Entity[] s = slots;
+		for (Entity e : s) {
+			if (e != null)
+				action.accept(e);
+		}
+	}
+
+	/**
+	 * Returns the amount of registered entities
+	 * @return int Amount of entities
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Releases every slot
+	 * Handles given out before stay stale
+	 */
+	synchronized void clear() {
+		for (int i = 0; i < used; i++) {
+			if (slots[i] != null)
+				release(slots[i]);
+		}
+	}
+
+	/**
+	 * Packs a slot index and generation into a handle
+	 * @param index int Slot index
+	 * @param generation int Slot generation
+	 * @return long The handle
+	 */
+	public static long toHandle(int index, int generation) {
+		return ((long) generation << 32) | (index & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Returns the slot index of a handle
+	 * @param handle long Handle to read
+	 * @return int Slot index
+	 */
+	public static int indexOf(long handle) {
+		return (int) handle;
+	}
+
+	/**
+	 * Returns the generation of a handle
+	 * @param handle long Handle to read
+	 * @return int Slot generation
+	 */
+	public static int generationOf(long handle) {
+		return (int) (handle >>> 32);
+	}
+}
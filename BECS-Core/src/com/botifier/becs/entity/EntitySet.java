@@ -0,0 +1,179 @@
+package com.botifier.becs.entity;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * EntitySet
+ *
+ * A sparse set of entities indexed by the slot of their handle, see EntityRegistry
+ * Members are packed into a dense array, the sparse array maps a slot to its position in it.
+ * Adding, removing and checking an entity are constant time, removing moves the last member into the gap.
+ *
+ * Writes hold the set's lock, contains and size don't lock.
+ * Iterators walk a copy of the members taken when they are created, so the set can change while it is iterated.
+ * Entities must keep their handle while they are members, an entity whose slot is reused while it is still a member is replaced.
+ *
+ * @author Botifier
+ */
+public class EntitySet extends AbstractSet<Entity> {
+
+	/**
+	 * Position of each slot's entity in the dense array plus one, 0 if the slot has no member
+	 */
+	private volatile int[] sparse = new int[64];
+
+	/**
+	 * Members, only indices below size are used
+	 */
+	private volatile Entity[] dense = new Entity[16];
+
+	/**
+	 * Amount of members
+	 * Written last by every change so readers see the arrays as they were written
+	 */
+	private volatile int size = 0;
+
+	@Override
+	public synchronized boolean add(Entity e) {
+		int slot = slotOf(e);
+		int[] s = sparse;
+		if (slot >= s.length)
+			sparse = s = Arrays.copyOf(s, Math.max(slot + 1, s.length * 2));
+		Entity[] d = dense;
+		int n = size;
+		int p = s[slot];
+		if (p != 0) {
+			if (d[p - 1] == e)
+				return false;
+			//The slot was reused, the old member is stale
+			d[p - 1] = e;
+			size = n;
+			return true;
+		}
+		if (n == d.length)
+			dense = d = Arrays.copyOf(d, n * 2);
+		d[n] = e;
+		s[slot] = n + 1;
+		size = n + 1;
+		return true;
+	}
+
+	@Override
+	public synchronized boolean addAll(Collection<? extends Entity> c) {
+		int needed = size + c.size();
+		if (needed > dense.length)
+			dense = Arrays.copyOf(dense, Math.max(needed, dense.length * 2));
+		boolean changed = false;
+		for (Entity e : c) {
+			changed |= add(e);
+		}
+		return changed;
+	}
+
+	@Override
+	public synchronized boolean remove(Object o) {
+		if (!(o instanceof Entity))
+			return false;
+		int slot = slotOf((Entity) o);
+		int[] s = sparse;
+		if (slot >= s.length)
+			return false;
+		Entity[] d = dense;
+		int p = s[slot];
+		if (p == 0 || d[p - 1] != o)
+			return false;
+		int n = size - 1;
+		Entity last = d[n];
+		d[p - 1] = last;
+		s[slotOf(last)] = p;
+		d[n] = null;
+		s[slot] = 0;
+		size = n;
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof Entity))
+			return false;
+		if (size == 0)
+			return false;
+		int slot = slotOf((Entity) o);
+		int[] s = sparse;
+		if (slot >= s.length)
+			return false;
+		int p = s[slot];
+		Entity[] d = dense;
+		return p > 0 && p <= d.length && d[p - 1] == o;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public synchronized void clear() {
+		Entity[] d = dense;
+		int[] s = sparse;
+		for (int i = 0; i < size; i++) {
+			s[slotOf(d[i])] = 0;
+			d[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Returns a copy of the members
+	 * @return Entity[] The members
+	 */
+	@Override
+	public synchronized Entity[] toArray() {
+		return Arrays.copyOf(dense, size);
+	}
+
+	/**
+	 * Returns an iterator over a copy of the members
+	 * Removing through the iterator removes the entity from this set
+	 * @return Iterator\<Entity\> The iterator
+	 */
+	@Override
+	public Iterator<Entity> iterator() {
+		Entity[] members = toArray();
+		return new Iterator<Entity>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < members.length;
+			}
+
+			@Override
+			public Entity next() {
+				if (next >= members.length)
+					throw new NoSuchElementException();
+				return members[next++];
+			}
+
+			@Override
+			public void remove() {
+				if (next == 0)
+					throw new IllegalStateException("next has not been called");
+				EntitySet.this.remove(members[next - 1]);
+			}
+		};
+	}
+
+	/**
+	 * Returns the slot of an entity's handle
+	 * @param e Entity To check
+	 * @return int The slot
+	 */
+	private static int slotOf(Entity e) {
+		return EntityRegistry.indexOf(e.getHandle());
+	}
+}
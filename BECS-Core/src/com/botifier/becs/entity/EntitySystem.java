@@ -1,8 +1,8 @@
 package com.botifier.becs.entity;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import com.botifier.becs.Game;
 
@@ -20,10 +20,46 @@ public abstract class EntitySystem {
 	 */
 	private String[] requiredComponents;
 	
+	/**
+	 * Query holding the entities with every required component
+	 * Created on first use so required components may be created after the system
+	 */
+	private volatile Query query;
+	
+	/**
+	 * Components the system reads, null if undeclared
+	 */
+	private volatile ComponentMask reads = null;
+	
+	/**
+	 * Components the system writes, null if undeclared
+	 */
+	private volatile ComponentMask writes = null;
+	
+	/**
+	 * How long the last apply took in nanoseconds
+	 */
+	private volatile long lastRunTime = 0;
+	
+	/**
+	 * Change tick the last run started at
+	 */
+	private volatile long lastRunTick = 0;
+	
+	/**
+	 * Change tick the run before the last one started at
+	 */
+	private volatile long previousRunTick = 0;
+	
 	/**
 	 * The owner of this system
 	 */
 	private Game g;
+	
+	/**
+	 * World the system was created in, used when it has no game
+	 */
+	private final World world;
 
 	/**
 	 * EntitySystem constructor
@@ -31,6 +67,7 @@ public abstract class EntitySystem {
 	public EntitySystem(Game g) {
 		requiredComponents = new String[0];
 		this.g = g;
+		this.world = World.current();
 	}
 
 	/**
@@ -42,6 +79,20 @@ public abstract class EntitySystem {
 		this(g);
 		requiredComponents = required;
 	}
+	
+	/**
+	 * EntitySystem constructor with a query
+	 * @param q Query Query whose entities the system applies to
+	 */
+	public EntitySystem(Game g, Query q) {
+		this(g);
+		this.query = q;
+		ComponentType<?>[] all = q.getAll();
+		requiredComponents = new String[all.length];
+		for (int i = 0; i < all.length; i++) {
+			requiredComponents[i] = all[i].getName();
+		}
+	}
 
 	/**
 	 * Applies the system to array of entities
@@ -63,11 +114,150 @@ public abstract class EntitySystem {
 		if (requiredComponents == null || requiredComponents.length == 0) {
 			return Entity.getEntities();
 		}
-		Set<Entity> entities = EntityComponentManager.getEntitiesWithComponent(requiredComponents[0]);
-		Set<Entity> hold = new HashSet<>();
-		
-		entities.parallelStream().filter(e -> e.hasComponent(requiredComponents)).forEachOrdered(hold::add);;
-		return hold;
+		return new HashSet<>(Arrays.asList(getValidEntityArray()));
+	}
+	
+	/**
+	 * Returns an array of entities that have the required components
+	 * The array is shared until an entity starts or stops matching and must not be modified
+	 * @return Entity[] Valid entities
+	 */
+	public Entity[] getValidEntityArray() {
+		if (requiredComponents == null || requiredComponents.length == 0) {
+			return Entity.getEntities().toArray(Entity[]::new);
+		}
+		Query q = getQuery();
+		return q != null ? q.getEntities() : new Entity[0];
+	}
+	
+	/**
+	 * Returns the query holding the entities with every required component
+	 * @return Query The query; null if there are no requirements or a required component doesn't exist yet
+	 */
+	public Query getQuery() {
+		Query q = query;
+		if (q != null || requiredComponents == null || requiredComponents.length == 0)
+			return q;
+		synchronized (this) {
+			if (query == null) {
+				ComponentType<?>[] all = new ComponentType<?>[requiredComponents.length];
+				for (int i = 0; i < all.length; i++) {
+					all[i] = EntityComponentManager.getComponentType(requiredComponents[i]);
+					if (all[i] == null)
+						return null;
+				}
+				World previous = World.bind(getWorld());
+				try {
+					query = EntityComponentManager.createQuery(all);
+				} finally {
+					World.bind(previous);
+				}
+			}
+			return query;
+		}
+	}
+
+	/**
+	 * Declares the components this system reads
+	 * Systems that declare neither reads nor writes never run alongside other systems
+	 * @param types ComponentType\<?\>... Components read by apply
+	 */
+	protected void declareReads(ComponentType<?>... types) {
+		reads = ComponentMask.of(types);
+		if (writes == null)
+			writes = ComponentMask.EMPTY;
+	}
+	
+	/**
+	 * Declares the components this system writes
+	 * Systems that declare neither reads nor writes never run alongside other systems
+	 * @param types ComponentType\<?\>... Components written by apply
+	 */
+	protected void declareWrites(ComponentType<?>... types) {
+		writes = ComponentMask.of(types);
+		if (reads == null)
+			reads = ComponentMask.EMPTY;
+	}
+	
+	/**
+	 * Returns the components this system reads
+	 * @return ComponentMask Read components; null if undeclared
+	 */
+	public ComponentMask getReads() {
+		return reads;
+	}
+	
+	/**
+	 * Returns the components this system writes
+	 * @return ComponentMask Written components; null if undeclared
+	 */
+	public ComponentMask getWrites() {
+		return writes;
+	}
+	
+	/**
+	 * Checks whether or not the system has to run on its own
+	 * @return boolean Whether or not the system didn't declare what it reads and writes
+	 */
+	public boolean isExclusive() {
+		return reads == null || writes == null;
+	}
+	
+	/**
+	 * Checks whether or not two systems can't run at the same time
+	 * They conflict if either writes a component the other reads or writes
+	 * @param other EntitySystem System to check against
+	 * @return boolean Whether or not they conflict
+	 */
+	public boolean conflictsWith(EntitySystem other) {
+		if (isExclusive() || other.isExclusive())
+			return true;
+		return writes.intersects(other.writes) || writes.intersects(other.reads) || other.writes.intersects(reads);
+	}
+	
+	/**
+	 * Returns how long the last apply took, including gathering its entities
+	 * @return long Time in nanoseconds
+	 */
+	public long getLastRunTime() {
+		return lastRunTime;
+	}
+	
+	/**
+	 * Returns the change tick the last run started at
+	 * @return long The change tick
+	 */
+	public long getLastRunTick() {
+		return lastRunTick;
+	}
+	
+	/**
+	 * Checks whether or not a component changed since the previous run of this system started
+	 * Changes this system made during its previous run are not included
+	 * @param c EntityComponent\<?\> Component to check
+	 * @return boolean Whether or not the component changed
+	 */
+	protected boolean changedSinceLastRun(EntityComponent<?> c) {
+		return c != null && c.changedSince(previousRunTick);
+	}
+	
+	/**
+	 * Gathers the valid entities, applies the system to them and records how long it took
+	 * Advances the change tick before and after the run so changes made during the run can be told apart from the rest
+	 * The system's world is bound to the calling thread while it runs
+	 */
+	public void runTimed() {
+		World previous = World.bind(getWorld());
+		try {
+			previousRunTick = lastRunTick;
+			lastRunTick = EntityComponentManager.advanceChangeTick();
+			long start = System.nanoTime();
+			apply(getValidEntityArray());
+			lastRunTime = System.nanoTime() - start;
+			EntityComponentManager.advanceChangeTick(); // Changes made after the run are newer than the run's own
+		} finally {
+			World.bind(previous);
+		}
 	}
 
 	/**
@@ -95,6 +285,14 @@ public abstract class EntitySystem {
 		return g;
 	}
 	
+	/**
+	 * Returns the world this system runs on
+	 * @return World The game's world; the world the system was created in if it has no game
+	 */
+	public World getWorld() {
+		return g != null ? g.getWorld() : world;
+	}
+	
 	/**
 	 * Should pause the system
 	 * Unless someone forgets to add pausing to apply
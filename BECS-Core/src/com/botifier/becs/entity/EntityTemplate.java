@@ -0,0 +1,127 @@
+package com.botifier.becs.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * EntityTemplate
+ *
+ * Describes the components given to entities spawned with EntityComponentManager.spawnBatch
+ * Values given directly are shared by every spawned entity, except for data types with a copier like Vector2f and Shape
+ * which are copied for each entity. Use a supplier for other data that is modified in place.
+ *
+ * @author Botifier
+ */
+public class EntityTemplate {
+
+	/**
+	 * Name given to spawned entities
+	 */
+	private final String name;
+
+	/**
+	 * Components in the order they were added
+	 */
+	private final List<Entry<?>> entries = new ArrayList<>();
+
+	/**
+	 * Components of the template
+	 */
+	private ComponentMask mask = ComponentMask.EMPTY;
+
+	/**
+	 * EntityTemplate constructor
+	 * @param name String Name given to spawned entities
+	 */
+	public EntityTemplate(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Adds a component whose value is shared by every spawned entity
+	 * Values of data types with a copier are copied for each entity, see EntityComponentManager.setComponentCopier
+	 * @param \<T\> Type of information stored within the component
+	 * @param type ComponentType\<T\> Component to add
+	 * @param value T Shared value
+	 * @return EntityTemplate This template
+	 */
+	public <T> EntityTemplate with(ComponentType<T> type, T value) {
+		if (value == null)
+			throw new NullPointerException(String.format("Value of %s cannot be null", type.getName()));
+		return withSupplier(type, () -> type.copy(value));
+	}
+
+	/**
+	 * Adds a component whose value is created for every spawned entity
+	 * @param \<T\> Type of information stored within the component
+	 * @param type ComponentType\<T\> Component to add
+	 * @param value Supplier\<T\> Creates the value
+	 * @return EntityTemplate This template
+	 */
+	public <T> EntityTemplate withSupplier(ComponentType<T> type, Supplier<T> value) {
+		if (type == null || value == null)
+			throw new NullPointerException("type and value cannot be null");
+		addEntry(new Entry<>(type, value));
+		return this;
+	}
+	
+	/**
+	 * Adds a component to the template
+	 * @param entry Entry\<?\> Component to add
+	 */
+	synchronized void addEntry(Entry<?> entry) {
+		if (mask.contains(entry.type))
+			throw new IllegalArgumentException(String.format("Template %s already has component %s", name, entry.type.getName()));
+		entries.add(entry);
+		mask = mask.with(entry.type.getId());
+	}
+
+	/**
+	 * Returns the name given to spawned entities
+	 * @return String The name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the components of the template
+	 * @return ComponentMask The components
+	 */
+	public ComponentMask getSignature() {
+		return mask;
+	}
+
+	/**
+	 * Returns the components in the order they were added
+	 * @return List\<Entry\<?\>\> The components
+	 */
+	synchronized List<Entry<?>> getEntries() {
+		return Collections.unmodifiableList(new ArrayList<>(entries));
+	}
+
+	/**
+	 * A component of the template
+	 * @param \<T\> Type of information stored within the component
+	 */
+	static class Entry<T> {
+		final ComponentType<T> type;
+		final Supplier<T> value;
+
+		Entry(ComponentType<T> type, Supplier<T> value) {
+			this.type = type;
+			this.value = value;
+		}
+
+		/**
+		 * Creates the component for a spawned entity
+		 * @param e Entity Owner of the component
+		 * @return EntityComponent\<T\> The component
+		 */
+		EntityComponent<T> build(Entity e) {
+			return EntityComponentManager.buildComponent(e, type, value.get());
+		}
+	}
+}
@@ -4,9 +4,6 @@ import java.util.function.UnaryOperator;
 
 import org.joml.Vector2f;
 
-import com.botifier.becs.Game;
-import com.botifier.becs.events.EntityComponentUpdatedEvent;
-
 public class EntityVector2fComponent extends EntityComponent<Vector2f>{
 	
 	/**
@@ -26,10 +23,10 @@ public class EntityVector2fComponent extends EntityComponent<Vector2f>{
 
 	@Override
 	public void set(Vector2f info) {
-		if (!info.equals(get(), LEEWAY)) {
-			Game.getCurrent().getEventManager().executeEventOn(new EntityComponentUpdatedEvent<Vector2f>(this, get(), info),
-																   getName(),
-																   getOwnerUUID());
+		Vector2f old = get();
+		if (!info.equals(old, LEEWAY)) {
+			markChanged();
+			fireUpdated(old, info);
 		}
 		information.set(info);
 	}
@@ -38,10 +35,10 @@ public class EntityVector2fComponent extends EntityComponent<Vector2f>{
 	public Vector2f update(UnaryOperator<Vector2f> updater) {
 		Vector2f old = get();
 		Vector2f result = information.updateAndGet(updater);
-		if (!result.equals(get(), LEEWAY))
-			Game.getCurrent().getEventManager().executeEventOn(new EntityComponentUpdatedEvent<Vector2f>(this, old, result),
-																   getName(),
-																   getOwnerUUID());
+		if (!result.equals(old, LEEWAY)) {
+			markChanged();
+			fireUpdated(old, result);
+		}
 		return result;
 	}
 }
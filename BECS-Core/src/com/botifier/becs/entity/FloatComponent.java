@@ -0,0 +1,70 @@
+package com.botifier.becs.entity;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * FloatComponent
+ *
+ * EntityComponent specialization that stores a float without boxing it
+ * Use getFloat() and setFloat() instead of get() and set() to avoid boxing
+ *
+ * @author Botifier
+ */
+public class FloatComponent extends EntityComponent<Float> {
+
+	/**
+	 * The stored float
+	 */
+	private volatile float value;
+
+	/**
+	 * FloatComponent constructor
+	 * @param name String Name of the component
+	 * @param owner Entity Owner of the component
+	 * @param info float Initial value
+	 */
+	public FloatComponent(String name, Entity owner, float info) {
+		super(name, owner, Float.class);
+		this.value = info;
+	}
+
+	/**
+	 * Returns the stored float
+	 * @return float The value
+	 */
+	public float getFloat() {
+		return value;
+	}
+
+	/**
+	 * Sets the stored float
+	 * Only boxes the values when an update event is handled
+	 * @param info float Value to use
+	 */
+	public void setFloat(float info) {
+		float old = value;
+		if (Float.compare(old, info) != 0) {
+			markChanged();
+			if (isUpdateHandled())
+				fireUpdated(old, info);
+		}
+		value = info;
+	}
+
+	@Override
+	public Float get() {
+		return value;
+	}
+
+	@Override
+	public void set(Float info) {
+		setFloat(info);
+	}
+
+	@Override
+	public synchronized Float update(UnaryOperator<Float> updater) {
+		float result = updater.apply(value);
+		setFloat(result);
+		return result;
+	}
+}
@@ -0,0 +1,70 @@
+package com.botifier.becs.entity;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * IntComponent
+ *
+ * EntityComponent specialization that stores a int without boxing it
+ * Use getInt() and setInt() instead of get() and set() to avoid boxing
+ *
+ * @author Botifier
+ */
+public class IntComponent extends EntityComponent<Integer> {
+
+	/**
+	 * The stored int
+	 */
+	private volatile int value;
+
+	/**
+	 * IntComponent constructor
+	 * @param name String Name of the component
+	 * @param owner Entity Owner of the component
+	 * @param info int Initial value
+	 */
+	public IntComponent(String name, Entity owner, int info) {
+		super(name, owner, Integer.class);
+		this.value = info;
+	}
+
+	/**
+	 * Returns the stored int
+	 * @return int The value
+	 */
+	public int getInt() {
+		return value;
+	}
+
+	/**
+	 * Sets the stored int
+	 * Only boxes the values when an update event is handled
+	 * @param info int Value to use
+	 */
+	public void setInt(int info) {
+		int old = value;
+		if (old != info) {
+			markChanged();
+			if (isUpdateHandled())
+				fireUpdated(old, info);
+		}
+		value = info;
+	}
+
+	@Override
+	public Integer get() {
+		return value;
+	}
+
+	@Override
+	public void set(Integer info) {
+		setInt(info);
+	}
+
+	@Override
+	public synchronized Integer update(UnaryOperator<Integer> updater) {
+		int result = updater.apply(value);
+		setInt(result);
+		return result;
+	}
+}
@@ -0,0 +1,70 @@
+package com.botifier.becs.entity;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * LongComponent
+ *
+ * EntityComponent specialization that stores a long without boxing it
+ * Use getLong() and setLong() instead of get() and set() to avoid boxing
+ *
+ * @author Botifier
+ */
+public class LongComponent extends EntityComponent<Long> {
+
+	/**
+	 * The stored long
+	 */
+	private volatile long value;
+
+	/**
+	 * LongComponent constructor
+	 * @param name String Name of the component
+	 * @param owner Entity Owner of the component
+	 * @param info long Initial value
+	 */
+	public LongComponent(String name, Entity owner, long info) {
+		super(name, owner, Long.class);
+		this.value = info;
+	}
+
+	/**
+	 * Returns the stored long
+	 * @return long The value
+	 */
+	public long getLong() {
+		return value;
+	}
+
+	/**
+	 * Sets the stored long
+	 * Only boxes the values when an update event is handled
+	 * @param info long Value to use
+	 */
+	public void setLong(long info) {
+		long old = value;
+		if (old != info) {
+			markChanged();
+			if (isUpdateHandled())
+				fireUpdated(old, info);
+		}
+		value = info;
+	}
+
+	@Override
+	public Long get() {
+		return value;
+	}
+
+	@Override
+	public void set(Long info) {
+		setLong(info);
+	}
+
+	@Override
+	public synchronized Long update(UnaryOperator<Long> updater) {
+		long result = updater.apply(value);
+		setLong(result);
+		return result;
+	}
+}
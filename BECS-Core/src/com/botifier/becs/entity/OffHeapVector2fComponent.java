@@ -0,0 +1,125 @@
+package com.botifier.becs.entity;
+
+import java.util.function.UnaryOperator;
+
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+
+/**
+ * OffHeapVector2fComponent
+ *
+ * EntityComponent specialization whose vector lives in a Vector2fColumnStore
+ * get() returns a copy, so changes have to go through set() or update(); changing the returned vector does nothing.
+ * Use getX(), getY() and set(x, y) to avoid creating vectors
+ *
+ * @author Botifier
+ */
+public class OffHeapVector2fComponent extends EntityComponent<Vector2f> {
+
+	/**
+	 * How much different a new vector can be before it is considered truly updated
+	 */
+	final float LEEWAY = 0.0001f;
+
+	/**
+	 * The store holding the vector
+	 */
+	private final Vector2fColumnStore store;
+
+	/**
+	 * The column of the store holding the vector
+	 */
+	private final int column;
+
+	/**
+	 * OffHeapVector2fComponent constructor
+	 * Only created by Vector2fColumnStore
+	 * @param name String Name of the component
+	 * @param owner Entity Owner of the component
+	 * @param store Vector2fColumnStore Store holding the vector
+	 * @param column int Column of the store
+	 */
+	OffHeapVector2fComponent(String name, Entity owner, Vector2fColumnStore store, int column) {
+		super(name, owner, Vector2f.class);
+		this.store = store;
+		this.column = column;
+	}
+
+	/**
+	 * Returns the stored x value
+	 * @return float X
+	 */
+	public float getX() {
+		return store.getX(column, getOwner());
+	}
+
+	/**
+	 * Returns the stored y value
+	 * @return float Y
+	 */
+	public float getY() {
+		return store.getY(column, getOwner());
+	}
+
+	/**
+	 * Copies the stored vector into dest
+	 * @param dest Vector2f Vector to write to
+	 * @return Vector2f dest
+	 */
+	public Vector2f get(Vector2f dest) {
+		return store.get(column, getOwner(), dest);
+	}
+
+	/**
+	 * Sets the stored vector
+	 * Only creates vectors when an update event is handled
+	 * The old value is compared and replaced under the store's lock, so concurrent writers each see the value they replaced
+	 * @param x float X to use
+	 * @param y float Y to use
+	 */
+	public void set(float x, float y) {
+		Vector2f old = isUpdateHandled() ? new Vector2f() : null;
+		if (store.exchange(column, getOwner(), x, y, LEEWAY, old)) {
+			markChanged();
+			if (old != null)
+				fireUpdated(old, new Vector2f(x, y));
+		}
+	}
+
+	/**
+	 * Returns the store holding the vector
+	 * @return Vector2fColumnStore The store
+	 */
+	public Vector2fColumnStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Returns a copy of the stored vector
+	 * @return Vector2f Copy of the vector
+	 */
+	@Override
+	public Vector2f get() {
+		return get(new Vector2f());
+	}
+
+	@Override
+	public void set(Vector2f info) {
+		set(info.x, info.y);
+	}
+
+	@Override
+	public synchronized Vector2f update(UnaryOperator<Vector2f> updater) {
+		Vector2fc result = updater.apply(get());
+		set(result.x(), result.y());
+		return new Vector2f(result);
+	}
+
+	/**
+	 * Off-heap components can't be copied, returns a heap component holding the current vector
+	 */
+	@Override
+	public EntityComponent<Vector2f> clone() {
+		return new EntityVector2fComponent(getName(), getOwner(), get());
+	}
+}
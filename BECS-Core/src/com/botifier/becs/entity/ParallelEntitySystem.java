@@ -0,0 +1,209 @@
+package com.botifier.becs.entity;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.botifier.becs.Game;
+
+/**
+ * ParallelEntitySystem
+ *
+ * An EntitySystem that processes its entities in chunks spread over a ForkJoinPool
+ * The entity array is split in half until a part is no bigger than the grain size, each part is then processed on one worker.
+ * Arrays no bigger than the grain size are processed on the calling thread without creating any tasks.
+ *
+ * Every worker thread gets its own scratch state from createScratch, so chunks can reuse buffers without synchronization.
+ * Workers have the system's world bound while they process a chunk.
+ *
+ * @author Botifier
+ *
+ * @param \<S\> Type of the per-worker scratch state
+ */
+public abstract class ParallelEntitySystem<S> extends EntitySystem {
+
+	/**
+	 * Default amount of entities processed by a single task
+	 */
+	public static final int DEFAULT_GRAIN_SIZE = 256;
+
+	/**
+	 * Pool the chunks run on, null for the common pool
+	 */
+	private volatile ForkJoinPool pool = null;
+
+	/**
+	 * Most entities processed by a single task
+	 */
+	private volatile int grainSize = DEFAULT_GRAIN_SIZE;
+
+	/**
+	 * Every scratch state created so far
+	 */
+	private final Collection<S> scratches = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Scratch state of the current thread
+	 */
+	private final ThreadLocal<S> scratch = ThreadLocal.withInitial(() -> {
+		S s = createScratch();
+		if (s != null)
+			scratches.add(s);
+		return s;
+	});
+
+	/**
+	 * ParallelEntitySystem constructor
+	 * @param g Game Owner of the system
+	 */
+	public ParallelEntitySystem(Game g) {
+		super(g);
+	}
+
+	/**
+	 * ParallelEntitySystem constructor with requirements
+	 * @param g Game Owner of the system
+	 * @param required String... Components to require
+	 */
+	public ParallelEntitySystem(Game g, String... required) {
+		super(g, required);
+	}
+
+	/**
+	 * ParallelEntitySystem constructor with a query
+	 * @param g Game Owner of the system
+	 * @param q Query Query whose entities the system applies to
+	 */
+	public ParallelEntitySystem(Game g, Query q) {
+		super(g, q);
+	}
+
+	/**
+	 * Processes a single entity
+	 * Called from several threads at once, entities are never processed twice in one apply
+	 * @param e Entity To process
+	 * @param scratch S Scratch state of the current worker
+	 */
+	protected abstract void process(Entity e, S scratch);
+
+	/**
+	 * Processes a chunk of entities
+	 * Calls process for each entity, override to handle a chunk at once
+	 * @param entities Entity[] Array holding the chunk
+	 * @param from int First index of the chunk
+	 * @param to int Index after the last of the chunk
+	 * @param scratch S Scratch state of the current worker
+	 */
+	protected void processChunk(Entity[] entities, int from, int to, S scratch) {
+		for (int i = from; i < to; i++) {
+			process(entities[i], scratch);
+		}
+	}
+
+	/**
+	 * Creates the scratch state of a worker
+	 * Called once per thread that processes a chunk
+	 * @return S The scratch state; null if none is needed
+	 */
+	protected S createScratch() {
+		return null;
+	}
+
+	/**
+	 * Returns every scratch state created so far
+	 * Useful to merge per-worker results after apply, while no chunks are running
+	 * @return Collection\<S\> Unmodifiable view of the scratch states
+	 */
+	protected Collection<S> getScratches() {
+		return Collections.unmodifiableCollection(scratches);
+	}
+
+	@Override
+	public void apply(Entity[] entities) {
+		apply(entities, entities.length);
+	}
+
+	/**
+	 * Processes the first entities of an array in chunks and waits for all of them
+	 * @param entities Entity[] Entities to process
+	 * @param length int Amount of entities to process
+	 */
+	protected void apply(Entity[] entities, int length) {
+		if (length < 0 || length > entities.length)
+			throw new IllegalArgumentException(String.format("length %d is out of bounds for %d entities", length, entities.length));
+		if (length <= grainSize) {
+			processChunk(entities, 0, length, scratch.get());
+			return;
+		}
+		ForkJoinPool p = pool;
+		(p != null ? p : ForkJoinPool.commonPool()).invoke(new Chunk(entities, 0, length));
+	}
+
+	/**
+	 * Sets the pool the chunks run on
+	 * @param pool ForkJoinPool The pool; null for the common pool
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the pool the chunks run on
+	 * @return ForkJoinPool The pool; null if the common pool is used
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Sets the most entities processed by a single task
+	 * Smaller chunks balance uneven work better, bigger chunks have less overhead
+	 * @param grainSize int Entities per task, at least 1
+	 */
+	public void setGrainSize(int grainSize) {
+		if (grainSize < 1)
+			throw new IllegalArgumentException(String.format("grainSize must be at least 1, was %d", grainSize));
+		this.grainSize = grainSize;
+	}
+
+	/**
+	 * Returns the most entities processed by a single task
+	 * @return int Entities per task
+	 */
+	public int getGrainSize() {
+		return grainSize;
+	}
+
+	/**
+	 * Splits a range of entities until it is no bigger than the grain size
+	 */
+	private final class Chunk extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Entity[] entities;
+		private final int from, to;
+
+		Chunk(Entity[] entities, int from, int to) {
+			this.entities = entities;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grainSize) {
+				World previous = World.bind(getWorld());
+				try {
+					processChunk(entities, from, to, scratch.get());
+				} finally {
+					World.bind(previous);
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new Chunk(entities, from, mid), new Chunk(entities, mid, to));
+		}
+	}
+}
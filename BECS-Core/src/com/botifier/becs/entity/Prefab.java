@@ -0,0 +1,107 @@
+package com.botifier.becs.entity;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Prefab
+ *
+ * EntityTemplate whose values are stored once and shared by every instance
+ * Instances get SharedComponents that reference the prefab's values until they are set (copy-on-write),
+ * so 10k identical entities hold one Image, Color or String instead of 10k.
+ *
+ * Only reference types without a copier and the default component class are shared.
+ * Primitives, tags and Vector2f keep their own component classes, and values with a copier like Shape and Vector2f
+ * are copied for every instance since the engine modifies them in place. Shared values must not be modified in place.
+ *
+ * @author Botifier
+ */
+public class Prefab extends EntityTemplate {
+
+	/**
+	 * Prefab constructor
+	 * @param name String Name given to instances
+	 */
+	public Prefab(String name) {
+		super(name);
+	}
+
+	/**
+	 * Adds a component whose value is shared by every instance until it is set
+	 * Values that can't be shared, see the class description, are built for every instance instead
+	 * @param \<T\> Type of information stored within the component
+	 * @param type ComponentType\<T\> Component to add
+	 * @param value T Shared value
+	 * @return Prefab This prefab
+	 */
+	@Override
+	public <T> Prefab with(ComponentType<T> type, T value) {
+		if (type == null || value == null)
+			throw new NullPointerException("type and value cannot be null");
+		addEntry(new SharedEntry<>(type, value));
+		return this;
+	}
+
+	/**
+	 * Adds a component whose value is copied for every instance
+	 * @param \<T\> Type of information stored within the component
+	 * @param type ComponentType\<T\> Component to add
+	 * @param value T Value to copy
+	 * @param copier UnaryOperator\<T\> Copies the value
+	 * @return Prefab This prefab
+	 */
+	public <T> Prefab withCopy(ComponentType<T> type, T value, UnaryOperator<T> copier) {
+		if (value == null || copier == null)
+			throw new NullPointerException("value and copier cannot be null");
+		withSupplier(type, () -> copier.apply(value));
+		return this;
+	}
+
+	@Override
+	public <T> Prefab withSupplier(ComponentType<T> type, Supplier<T> value) {
+		super.withSupplier(type, value);
+		return this;
+	}
+
+	/**
+	 * Creates an instance and adds it to the world
+	 * @return Entity The instance
+	 */
+	public Entity instantiate() {
+		return EntityComponentManager.spawnBatch(this, 1)[0];
+	}
+
+	/**
+	 * Creates instances and adds them to the world in one pass
+	 * @param count int Amount of instances
+	 * @param initializer ObjIntConsumer\<Entity\> Sets up each instance with its index, may be null
+	 * @return Entity[] The instances
+	 */
+	public Entity[] instantiate(int count, ObjIntConsumer<Entity> initializer) {
+		return EntityComponentManager.spawnBatch(this, count, initializer);
+	}
+
+	/**
+	 * A component whose value is shared by every instance
+	 * @param \<T\> Type of information stored within the component
+	 */
+	private static final class SharedEntry<T> extends Entry<T> {
+		private final T shared;
+
+		SharedEntry(ComponentType<T> type, T shared) {
+			super(type, () -> type.copy(shared));
+			this.shared = shared;
+		}
+
+		@Override
+		EntityComponent<T> build(Entity e) {
+			Vector2fColumnStore store = e.getWorld().vector2fStore;
+			if ((store != null && store.stores(type)) || !EntityComponentManager.isShareable(type))
+				return super.build(e);
+			if (!EntityComponentManager.isCompatibleType(type.getDataType(), shared.getClass()))
+				throw new ClassCastException(String.format("%s is not compatible with %s", shared.getClass().getSimpleName(), type.getDataType().getSimpleName()));
+			return new SharedComponent<>(type.getName(), e, shared);
+		}
+	}
+}
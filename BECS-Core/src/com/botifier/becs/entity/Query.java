@@ -0,0 +1,257 @@
+package com.botifier.becs.entity;
+
+import java.util.Arrays;
+
+/**
+ * Query
+ *
+ * A set of entities matching all-of, any-of and none-of component requirements
+ * Created through EntityComponentManager.createQuery and kept up to date as components are added and removed,
+ * so matching entities never have to be searched for.
+ *
+ * Members are stored in a dense array indexed by the slot of their handle like EntitySet,
+ * getEntities() hands out a copy that is only rebuilt after membership changed.
+ *
+ * @author Botifier
+ */
+public class Query {
+
+	/**
+	 * Components an entity must all have
+	 */
+	private final ComponentType<?>[] all;
+
+	/**
+	 * Components an entity must have at least one of, ignored if empty
+	 */
+	private final ComponentType<?>[] any;
+
+	/**
+	 * Components an entity must not have
+	 */
+	private final ComponentType<?>[] none;
+
+	/**
+	 * Masks of the all-of, any-of and none-of components
+	 */
+	private final ComponentMask allMask, anyMask, noneMask;
+
+	/**
+	 * Ids of every component that can change whether an entity matches
+	 */
+	private final ComponentMask involved;
+
+	/**
+	 * Dense array of matching entities
+	 */
+	private Entity[] dense = new Entity[16];
+
+	/**
+	 * Position of each slot's entity in the dense array plus one, 0 if the slot has no member
+	 */
+	private int[] sparse = new int[64];
+
+	/**
+	 * Amount of matching entities
+	 */
+	private int size = 0;
+
+	/**
+	 * Copy of the dense array handed out by getEntities(), null when out of date
+	 */
+	private volatile Entity[] snapshot = null;
+
+	/**
+	 * Query constructor
+	 * Only EntityComponentManager creates these
+	 * @param all ComponentType\<?\>[] Components an entity must all have
+	 * @param any ComponentType\<?\>[] Components an entity must have at least one of
+	 * @param none ComponentType\<?\>[] Components an entity must not have
+	 */
+	Query(ComponentType<?>[] all, ComponentType<?>[] any, ComponentType<?>[] none) {
+		this.all = all != null ? all.clone() : new ComponentType<?>[0];
+		this.any = any != null ? any.clone() : new ComponentType<?>[0];
+		this.none = none != null ? none.clone() : new ComponentType<?>[0];
+		if (this.all.length == 0 && this.any.length == 0)
+			throw new IllegalArgumentException("A query needs at least one all-of or any-of component");
+		for (ComponentType<?>[] types : new ComponentType<?>[][] {this.all, this.any, this.none}) {
+			for (ComponentType<?> type : types) {
+				if (type == null)
+					throw new NullPointerException("Query components can't be null");
+			}
+		}
+		this.allMask = ComponentMask.of(this.all);
+		this.anyMask = ComponentMask.of(this.any);
+		this.noneMask = ComponentMask.of(this.none);
+		this.involved = allMask.or(anyMask).or(noneMask);
+	}
+
+	/**
+	 * Checks whether or not an entity matches this query
+	 * @param e Entity To check
+	 * @return boolean Whether or not the entity matches
+	 */
+	public boolean matches(Entity e) {
+		ComponentMask signature = e.getSignature();
+		return signature.containsAll(allMask)
+			&& !signature.intersects(noneMask)
+			&& (anyMask.isEmpty() || signature.intersects(anyMask));
+	}
+
+	/**
+	 * Checks whether or not a component can change whether an entity matches
+	 * @param type ComponentType\<?\> Component to check
+	 * @return boolean Whether or not the query uses the component
+	 */
+	public boolean involves(ComponentType<?> type) {
+		return involved.contains(type);
+	}
+
+	/**
+	 * Adds or removes an entity depending on whether it currently matches
+	 * @param e Entity To check
+	 */
+	synchronized void refresh(Entity e) {
+		boolean member = indexOf(e) >= 0;
+		if (matches(e) && !e.isDead()) {
+			if (!member)
+				add(e);
+		} else if (member) {
+			remove(e);
+		}
+	}
+
+	/**
+	 * Appends an entity to the dense array
+	 * @param e Entity To add
+	 */
+	private void add(Entity e) {
+		int slot = slotOf(e);
+		if (slot >= sparse.length)
+			sparse = Arrays.copyOf(sparse, Math.max(slot + 1, sparse.length * 2));
+		int p = sparse[slot];
+		if (p != 0) {
+			//The slot was reused, the old member is stale
+			dense[p - 1] = e;
+			snapshot = null;
+			return;
+		}
+		if (size == dense.length)
+			dense = Arrays.copyOf(dense, size * 2);
+		dense[size] = e;
+		sparse[slot] = size + 1;
+		size++;
+		snapshot = null;
+	}
+
+	/**
+	 * Removes an entity by moving the last entity into its index
+	 * @param e Entity To remove
+	 */
+	private void remove(Entity e) {
+		int i = indexOf(e);
+		sparse[slotOf(e)] = 0;
+		int last = --size;
+		if (i != last) {
+			Entity moved = dense[last];
+			dense[i] = moved;
+			sparse[slotOf(moved)] = i + 1;
+		}
+		dense[last] = null;
+		snapshot = null;
+	}
+
+	/**
+	 * Empties the query
+	 */
+	synchronized void clear() {
+		for (int i = 0; i < size; i++) {
+			sparse[slotOf(dense[i])] = 0;
+			dense[i] = null;
+		}
+		size = 0;
+		snapshot = null;
+	}
+
+	/**
+	 * Returns the matching entities
+	 * The array is shared between calls until membership changes and must not be modified
+	 * @return Entity[] Matching entities
+	 */
+	public Entity[] getEntities() {
+		Entity[] result = snapshot;
+		if (result == null) {
+			synchronized (this) {
+				result = snapshot;
+				if (result == null) {
+					result = Arrays.copyOf(dense, size);
+					snapshot = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether or not an entity is part of this query
+	 * @param e Entity To check
+	 * @return boolean Whether or not the entity matches
+	 */
+	public synchronized boolean contains(Entity e) {
+		return indexOf(e) >= 0;
+	}
+
+	/**
+	 * Returns the position of an entity in the dense array, callers hold the lock
+	 * @param e Entity To find
+	 * @return int The position; -1 if the entity isn't a member
+	 */
+	private int indexOf(Entity e) {
+		int slot = slotOf(e);
+		if (slot >= sparse.length)
+			return -1;
+		int p = sparse[slot];
+		return p != 0 && dense[p - 1] == e ? p - 1 : -1;
+	}
+
+	/**
+	 * Returns the slot of an entity's handle
+	 * @param e Entity To check
+	 * @return int The slot
+	 */
+	private static int slotOf(Entity e) {
+		return EntityRegistry.indexOf(e.getHandle());
+	}
+
+	/**
+	 * Returns the amount of matching entities
+	 * @return int Amount of entities
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the components an entity must all have
+	 * @return ComponentType\<?\>[] All-of components
+	 */
+	public ComponentType<?>[] getAll() {
+		return all.clone();
+	}
+
+	/**
+	 * Returns the components an entity must have at least one of
+	 * @return ComponentType\<?\>[] Any-of components
+	 */
+	public ComponentType<?>[] getAny() {
+		return any.clone();
+	}
+
+	/**
+	 * Returns the components an entity must not have
+	 * @return ComponentType\<?\>[] None-of components
+	 */
+	public ComponentType<?>[] getNone() {
+		return none.clone();
+	}
+}
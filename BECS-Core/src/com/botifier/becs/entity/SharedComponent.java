@@ -0,0 +1,70 @@
+package com.botifier.becs.entity;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * SharedComponent
+ *
+ * EntityComponent created by a Prefab that references the prefab's value until it is set
+ * The first set stores the new value in this component alone, leaving the prefab and its other instances untouched.
+ * The shared value is never copied, so it must not be modified in place.
+ *
+ * @author Botifier
+ *
+ * @param \<T\> Type of information stored within the component
+ */
+public class SharedComponent<T> extends EntityComponent<T> {
+
+	/**
+	 * Value shared with every instance of the prefab
+	 */
+	private final T shared;
+
+	/**
+	 * Value of this component alone, null until set
+	 */
+	private volatile T own = null;
+
+	/**
+	 * SharedComponent constructor
+	 * @param name String Name of the component
+	 * @param owner Entity Owner of the component
+	 * @param shared T Value shared with every instance of the prefab
+	 */
+	@SuppressWarnings("unchecked")
+	SharedComponent(String name, Entity owner, T shared) {
+		super(name, owner, (Class<T>) shared.getClass());
+		this.shared = shared;
+	}
+
+	@Override
+	public T get() {
+		T o = own;
+		return o != null ? o : shared;
+	}
+
+	@Override
+	public void set(T info) {
+		T old = get();
+		if (!info.equals(old)) {
+			markChanged();
+			fireUpdated(old, info);
+		}
+		own = info;
+	}
+
+	@Override
+	public synchronized T update(UnaryOperator<T> updater) {
+		T result = updater.apply(get());
+		set(result);
+		return result;
+	}
+
+	/**
+	 * Checks whether or not the component still references the prefab's value
+	 * @return boolean Whether or not the value is shared
+	 */
+	public boolean isShared() {
+		return own == null;
+	}
+}
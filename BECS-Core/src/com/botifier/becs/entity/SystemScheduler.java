@@ -0,0 +1,111 @@
+package com.botifier.becs.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * SystemScheduler
+ *
+ * Runs entity systems on a ForkJoinPool, letting systems that don't conflict run at the same time
+ * Every run builds a dependency graph where a system waits for each earlier system it conflicts with,
+ * so conflicting systems keep their registration order.
+ *
+ * Systems that don't declare their reads and writes conflict with everything.
+ * A system that throws skips the systems waiting on it, the exception is rethrown once the others finished.
+ *
+ * @author Botifier
+ */
+public class SystemScheduler {
+
+	/**
+	 * Pool the systems run on
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * SystemScheduler constructor
+	 * Uses one thread per available processor
+	 */
+	public SystemScheduler() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * SystemScheduler constructor
+	 * @param parallelism int Amount of threads
+	 */
+	public SystemScheduler(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Runs every system and waits for all of them to finish
+	 * Systems that depend on a failing system are skipped, the rest still run
+	 * @param systems List\<EntitySystem\> Systems in registration order
+	 * @throws RuntimeException The exception of the first failing system in registration order
+	 */
+	public void run(List<EntitySystem> systems) {
+		EntitySystem[] order = systems.toArray(EntitySystem[]::new);
+		@SuppressWarnings("unchecked")
+		CompletableFuture<Void>[] futures = new CompletableFuture[order.length];
+
+		for (int i = 0; i < order.length; i++) {
+			EntitySystem system = order[i];
+			List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+			for (int j = 0; j < i; j++) {
+				if (system.conflictsWith(order[j]))
+					dependencies.add(futures[j]);
+			}
+
+			Runnable task = system::runTimed;
+			futures[i] = dependencies.isEmpty()
+					? CompletableFuture.runAsync(task, pool)
+					: CompletableFuture.allOf(dependencies.toArray(CompletableFuture[]::new)).thenRunAsync(task, pool);
+		}
+		try {
+			CompletableFuture.allOf(futures).join();
+		} catch (CompletionException e) {
+			//Skipped systems fail with the exception of the system they waited on, so the first failure is the cause
+			for (CompletableFuture<Void> future : futures) {
+				if (future.isCompletedExceptionally())
+					rethrow(future);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Rethrows the exception a system failed with
+	 * @param future CompletableFuture\<Void\> Exceptionally completed future of the system
+	 */
+	private static void rethrow(CompletableFuture<Void> future) {
+		try {
+			future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the pool the systems run on
+	 * @return ForkJoinPool The pool
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Stops the threads of the pool
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
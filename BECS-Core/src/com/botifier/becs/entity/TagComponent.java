@@ -0,0 +1,58 @@
+package com.botifier.becs.entity;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * TagComponent
+ *
+ * The component of a tag type created through EntityComponentManager.createTag
+ * A tag has no value, only its presence matters. One instance is shared by every entity with the tag,
+ * so tagging an entity only sets a bit in its signature and adds it to the owners of the tag.
+ *
+ * @author Botifier
+ */
+public final class TagComponent extends EntityComponent<Boolean> {
+
+	/**
+	 * TagComponent constructor
+	 * Only EntityComponentManager creates these, one per tag type
+	 * @param name String Name of the tag
+	 */
+	TagComponent(String name) {
+		super(name, null, Boolean.class);
+	}
+
+	/**
+	 * Always true, entities without the tag don't have the component
+	 * @return Boolean true
+	 */
+	@Override
+	public Boolean get() {
+		return Boolean.TRUE;
+	}
+
+	/**
+	 * Tags have no value to set, remove the tag instead
+	 * @param info Boolean Ignored
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public void set(Boolean info) {
+		throw new UnsupportedOperationException(String.format("Tag %s has no value, remove it from the entity instead", getName()));
+	}
+
+	/**
+	 * Tags have no value to update, remove the tag instead
+	 * @param updater UnaryOperator\<Boolean\> Ignored
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public Boolean update(UnaryOperator<Boolean> updater) {
+		throw new UnsupportedOperationException(String.format("Tag %s has no value, remove it from the entity instead", getName()));
+	}
+
+	@Override
+	public TagComponent clone() {
+		return this;
+	}
+}
@@ -0,0 +1,429 @@
+package com.botifier.becs.entity;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Vector2fColumnStore
+ *
+ * Stores Vector2f components off-heap as packed x, y floats
+ * Every entity with at least one stored component owns a row, and each stored component type is a column.
+ * Rows are kept dense by moving the last row into removed rows.
+ *
+ * Enabled through EntityComponentManager.setVector2fStore(store), components of the stored types
+ * are then created as OffHeapVector2fComponents.
+ * Buffers replaced while growing are only freed by destroy(), so readers never touch freed memory.
+ * After destroy() every accessor throws an IllegalStateException instead of reaching the freed buffers.
+ * Every access is synchronized with growing and moving rows, bulk work like integrate() only locks once.
+ *
+ * @author Botifier
+ */
+public class Vector2fColumnStore {
+
+	/**
+	 * Default amount of rows
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * Stored component types in column order
+	 */
+	private final ComponentType<?>[] types;
+
+	/**
+	 * Maps a component type id to its column, -1 if it isn't stored
+	 */
+	private final int[] columnIndex;
+
+	/**
+	 * Packed x, y floats of each column
+	 */
+	private volatile FloatBuffer[] columns;
+
+	/**
+	 * Owner of each row
+	 */
+	private volatile Entity[] owners;
+
+	/**
+	 * Bit mask of the columns each row actually has
+	 */
+	private volatile int[] present;
+
+	/**
+	 * Buffers that were replaced while growing
+	 */
+	private final List<FloatBuffer> retired = new ArrayList<>();
+
+	/**
+	 * Amount of rows in use
+	 */
+	private volatile int size = 0;
+
+	/**
+	 * Whether or not the buffers have been freed
+	 */
+	private boolean destroyed = false;
+
+	/**
+	 * Vector2fColumnStore constructor
+	 * @param types ComponentType\<?\>... Vector2f components to store
+	 */
+	public Vector2fColumnStore(ComponentType<?>... types) {
+		this(DEFAULT_CAPACITY, types);
+	}
+
+	/**
+	 * Vector2fColumnStore constructor
+	 * @param capacity int Initial amount of rows
+	 * @param types ComponentType\<?\>... Vector2f components to store
+	 */
+	public Vector2fColumnStore(int capacity, ComponentType<?>... types) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("capacity must be greater than zero");
+		if (types.length == 0 || types.length > Integer.SIZE)
+			throw new IllegalArgumentException(String.format("A store needs between 1 and %d component types", Integer.SIZE));
+
+		int maxId = 0;
+		for (ComponentType<?> type : types) {
+			if (!type.getDataType().isAssignableFrom(Vector2f.class))
+				throw new IllegalArgumentException(String.format("%s does not store Vector2f", type.getName()));
+			maxId = Math.max(maxId, type.getId());
+		}
+
+		this.types = types.clone();
+		this.columnIndex = new int[maxId + 1];
+		Arrays.fill(columnIndex, -1);
+		for (int c = 0; c < types.length; c++) {
+			columnIndex[types[c].getId()] = c;
+		}
+
+		FloatBuffer[] cols = new FloatBuffer[types.length];
+		for (int c = 0; c < cols.length; c++) {
+			cols[c] = MemoryUtil.memCallocFloat(capacity * 2);
+		}
+		this.columns = cols;
+		this.owners = new Entity[capacity];
+		this.present = new int[capacity];
+	}
+
+	/**
+	 * Creates a stored component for an entity, giving the entity a row if it doesn't have one
+	 * @param e Entity Owner of the component
+	 * @param type ComponentType\<?\> Component type to create
+	 * @param value Vector2fc Initial value
+	 * @return OffHeapVector2fComponent The component
+	 */
+	synchronized OffHeapVector2fComponent attach(Entity e, ComponentType<?> type, Vector2fc value) {
+		checkAlive();
+		int column = getColumnIndex(type);
+		if (column < 0)
+			throw new IllegalArgumentException(String.format("%s is not stored in this store", type.getName()));
+
+		int row = e.vectorRow;
+		if (row < 0) {
+			row = size;
+			if (row == owners.length)
+				grow();
+			owners[row] = e;
+			present[row] = 0;
+			e.vectorRow = row;
+			size = row + 1;
+		}
+		present[row] |= 1 << column;
+		put(column, row, value.x(), value.y());
+		return new OffHeapVector2fComponent(type.getName(), e, this, column);
+	}
+
+	/**
+	 * Removes a stored component from an entity, freeing its row when it has no stored components left
+	 * @param e Entity Owner of the component
+	 * @param type ComponentType\<?\> Component type to remove
+	 */
+	synchronized void detach(Entity e, ComponentType<?> type) {
+		int column = getColumnIndex(type);
+		int row = e.vectorRow;
+		if (destroyed || column < 0 || row < 0)
+			return;
+		present[row] &= ~(1 << column);
+		if (present[row] != 0)
+			return;
+
+		int last = size - 1;
+		if (row != last) {
+			Entity moved = owners[last];
+			for (FloatBuffer col : columns) {
+				col.put(row * 2, col.get(last * 2));
+				col.put(row * 2 + 1, col.get(last * 2 + 1));
+			}
+			owners[row] = moved;
+			present[row] = present[last];
+			moved.vectorRow = row;
+		}
+		owners[last] = null;
+		present[last] = 0;
+		e.vectorRow = -1;
+		size = last;
+	}
+
+	/**
+	 * Doubles the amount of rows
+	 */
+	private void grow() {
+		int capacity = owners.length * 2;
+		FloatBuffer[] old = columns;
+		FloatBuffer[] cols = new FloatBuffer[old.length];
+		for (int c = 0; c < old.length; c++) {
+			cols[c] = MemoryUtil.memCallocFloat(capacity * 2);
+			MemoryUtil.memCopy(old[c], cols[c]);
+			retired.add(old[c]);
+		}
+		present = Arrays.copyOf(present, capacity);
+		owners = Arrays.copyOf(owners, capacity);
+		columns = cols;
+	}
+
+	/**
+	 * Adds source * scale to target for every row that has both components
+	 * Does not allocate, does not fire update events and does not mark the components changed
+	 * @param target ComponentType\<?\> Component to add to, like Position
+	 * @param source ComponentType\<?\> Component to add, like Velocity
+	 * @param scale float Multiplier of the source, like the delta time
+	 */
+	public synchronized void integrate(ComponentType<?> target, ComponentType<?> source, float scale) {
+		checkAlive();
+		int t = getColumnIndex(target);
+		int s = getColumnIndex(source);
+		if (t < 0 || s < 0)
+			throw new IllegalArgumentException("Both components must be stored in this store");
+		int mask = (1 << t) | (1 << s);
+		FloatBuffer tb = columns[t];
+		FloatBuffer sb = columns[s];
+		int[] bits = present;
+		for (int row = 0, n = size; row < n; row++) {
+			if ((bits[row] & mask) != mask)
+				continue;
+			int i = row * 2;
+			tb.put(i, tb.get(i) + sb.get(i) * scale);
+			tb.put(i + 1, tb.get(i + 1) + sb.get(i + 1) * scale);
+		}
+	}
+
+	/**
+	 * Returns the x value of a row
+	 * @param column int Column to read
+	 * @param row int Row to read
+	 * @return float X
+	 */
+	public synchronized float getX(int column, int row) {
+		checkAlive();
+		return columns[column].get(row * 2);
+	}
+
+	/**
+	 * Returns the y value of a row
+	 * @param column int Column to read
+	 * @param row int Row to read
+	 * @return float Y
+	 */
+	public synchronized float getY(int column, int row) {
+		checkAlive();
+		return columns[column].get(row * 2 + 1);
+	}
+
+	/**
+	 * Returns the x value of an entity, resolving its row under the lock
+	 * @param column int Column to read
+	 * @param e Entity Owner of the row
+	 * @return float X
+	 */
+	synchronized float getX(int column, Entity e) {
+		checkAlive();
+		return columns[column].get(e.vectorRow * 2);
+	}
+
+	/**
+	 * Returns the y value of an entity, resolving its row under the lock
+	 * @param column int Column to read
+	 * @param e Entity Owner of the row
+	 * @return float Y
+	 */
+	synchronized float getY(int column, Entity e) {
+		checkAlive();
+		return columns[column].get(e.vectorRow * 2 + 1);
+	}
+
+	/**
+	 * Copies the value of an entity into dest, resolving its row under the lock
+	 * @param column int Column to read
+	 * @param e Entity Owner of the row
+	 * @param dest Vector2f Vector to write to
+	 * @return Vector2f dest
+	 */
+	synchronized Vector2f get(int column, Entity e, Vector2f dest) {
+		checkAlive();
+		FloatBuffer col = columns[column];
+		int i = e.vectorRow * 2;
+		return dest.set(col.get(i), col.get(i + 1));
+	}
+
+	/**
+	 * Sets the value of an entity if it differs by more than leeway, comparing and writing under one lock
+	 * Does not fire update events
+	 * @param column int Column to write
+	 * @param e Entity Owner of the row
+	 * @param x float X to use
+	 * @param y float Y to use
+	 * @param leeway float How much either value has to differ to count as a change
+	 * @param old Vector2f Receives the previous value, may be null
+	 * @return boolean Whether or not the value changed
+	 */
+	synchronized boolean exchange(int column, Entity e, float x, float y, float leeway, Vector2f old) {
+		checkAlive();
+		FloatBuffer col = columns[column];
+		int i = e.vectorRow * 2;
+		float oldX = col.get(i);
+		float oldY = col.get(i + 1);
+		if (old != null)
+			old.set(oldX, oldY);
+		col.put(i, x);
+		col.put(i + 1, y);
+		return Math.abs(oldX - x) > leeway || Math.abs(oldY - y) > leeway;
+	}
+
+	/**
+	 * Sets the value of a row
+	 * Does not fire update events
+	 * @param column int Column to write
+	 * @param row int Row to write
+	 * @param x float X to use
+	 * @param y float Y to use
+	 */
+	public synchronized void set(int column, int row, float x, float y) {
+		checkAlive();
+		put(column, row, x, y);
+	}
+
+	/**
+	 * Writes the value of a row, callers hold the lock
+	 * @param column int Column to write
+	 * @param row int Row to write
+	 * @param x float X to use
+	 * @param y float Y to use
+	 */
+	private void put(int column, int row, float x, float y) {
+		FloatBuffer col = columns[column];
+		col.put(row * 2, x);
+		col.put(row * 2 + 1, y);
+	}
+
+	/**
+	 * Checks whether or not a row has the component of a column
+	 * @param column int Column to check
+	 * @param row int Row to check
+	 * @return boolean Whether or not the row has the component
+	 */
+	public synchronized boolean has(int column, int row) {
+		checkAlive();
+		return (present[row] & (1 << column)) != 0;
+	}
+
+	/**
+	 * Returns the column of the component type
+	 * @param type ComponentType\<?\> Component to find
+	 * @return int The column, -1 if it isn't stored
+	 */
+	public int getColumnIndex(ComponentType<?> type) {
+		int id = type.getId();
+		return id < columnIndex.length ? columnIndex[id] : -1;
+	}
+
+	/**
+	 * Checks whether or not the component type is stored here
+	 * @param type ComponentType\<?\> Component to check
+	 * @return boolean Whether or not it is stored
+	 */
+	public boolean stores(ComponentType<?> type) {
+		return getColumnIndex(type) >= 0;
+	}
+
+	/**
+	 * Returns the packed x, y floats of a column
+	 * Only the first size() * 2 floats are in use, the view becomes stale when the store grows
+	 * @param type ComponentType\<?\> Component of the column
+	 * @return FloatBuffer Read only view of the column
+	 */
+	public synchronized FloatBuffer getColumn(ComponentType<?> type) {
+		checkAlive();
+		int column = getColumnIndex(type);
+		if (column < 0)
+			return null;
+		FloatBuffer view = columns[column].asReadOnlyBuffer();
+		view.limit(size * 2);
+		return view;
+	}
+
+	/**
+	 * Returns the owner of a row
+	 * @param row int Row to check
+	 * @return Entity The owner
+	 */
+	public synchronized Entity getEntity(int row) {
+		checkAlive();
+		return owners[row];
+	}
+
+	/**
+	 * Returns the stored component types in column order
+	 * @return ComponentType\<?\>[] The component types
+	 */
+	public ComponentType<?>[] getTypes() {
+		return types.clone();
+	}
+
+	/**
+	 * Returns the amount of rows in use
+	 * @return int Rows in use
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Frees all off-heap memory
+	 * The store can't be used afterwards
+	 */
+	public synchronized void destroy() {
+		if (destroyed)
+			return;
+		destroyed = true;
+		for (FloatBuffer col : columns) {
+			MemoryUtil.memFree(col);
+		}
+		for (FloatBuffer col : retired) {
+			MemoryUtil.memFree(col);
+		}
+		retired.clear();
+		for (int row = 0; row < size; row++) {
+			owners[row].vectorRow = -1;
+		}
+		columns = null;
+		owners = null;
+		present = null;
+		size = 0;
+	}
+
+	/**
+	 * Throws if the buffers have been freed, callers hold the lock
+	 */
+	private void checkAlive() {
+		if (destroyed)
+			throw new IllegalStateException("Vector2fColumnStore has been destroyed");
+	}
+}
@@ -0,0 +1,360 @@
+package com.botifier.becs.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.botifier.becs.Game;
+import com.botifier.becs.util.SpatialEntityMap;
+import com.botifier.becs.util.events.EventManager;
+
+/**
+ * World
+ *
+ * Owns the entity registry, component storage, spatial map and event manager of one simulation
+ * Several worlds can run in one JVM, each on its own threads.
+ *
+ * The static Entity and EntityComponentManager methods act on the world bound to the calling thread,
+ * or the default world when none is bound. Games bind their world on every thread they run,
+ * entity systems bind the world of their game while they run.
+ * Component types are shared by every world.
+ *
+ * @author Botifier
+ */
+public class World {
+
+	/**
+	 * World used by threads that didn't bind one
+	 */
+	private static final World DEFAULT = new World();
+
+	/**
+	 * World bound to each thread
+	 */
+	private static final ThreadLocal<World> bound = new ThreadLocal<>();
+
+	/**
+	 * Registry handing out the handles of the entities in this world
+	 */
+	private final EntityRegistry registry = new EntityRegistry();
+
+	/**
+	 * Spatial map of the entities in this world
+	 */
+	private final SpatialEntityMap spatialMap;
+
+	/**
+	 * Owners of each component, indexed by the component type id
+	 * Grows when component types are created after the world
+	 */
+	private final List<EntitySet> componentMap = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Queries kept up to date by component changes in this world
+	 */
+	final List<Query> queries = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Archetype storage, null while disabled
+	 */
+	volatile ArchetypeStorage archetypeStorage = null;
+
+	/**
+	 * Off-heap store for Vector2f components, null while disabled
+	 */
+	volatile Vector2fColumnStore vector2fStore = null;
+
+	/**
+	 * Entities in the world that have a UUID, by UUID
+	 */
+	final Map<UUID, Entity> entitiesByUUID = new ConcurrentHashMap<>();
+
+	/**
+	 * Entities that have children
+	 */
+	final Set<Entity> parents = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Children whose parent or local position changed since the last transform pass
+	 */
+	final Set<Entity> dirtyTransforms = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Entities whose tracked components changed since they were last drained, indexed by component type id
+	 * Only holds the component types something tracks in this world
+	 */
+	private final Map<Integer, Set<Entity>> trackedChanges = new ConcurrentHashMap<>();
+
+	/**
+	 * How many consumers track each component type, indexed by component type id
+	 */
+	private final Map<Integer, Integer> trackers = new HashMap<>();
+
+	/**
+	 * Current change tick, stamped onto components when their value changes
+	 */
+	private final AtomicLong changeTick = new AtomicLong(1);
+
+	/**
+	 * Event manager of this world, null until a game runs it
+	 */
+	private volatile EventManager eventManager = null;
+
+	/**
+	 * Game running this world, null if none
+	 */
+	private volatile Game game = null;
+
+	/**
+	 * World constructor
+	 * Uses a spatial map with a cell size of 1024
+	 */
+	public World() {
+		this(1024);
+	}
+
+	/**
+	 * World constructor
+	 * @param cellSize int Cell size of the spatial map
+	 */
+	public World(int cellSize) {
+		this.spatialMap = new SpatialEntityMap(cellSize);
+	}
+
+	/**
+	 * Returns the world used by threads that didn't bind one
+	 * @return World The default world
+	 */
+	public static World getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the world bound to the calling thread
+	 * @return World The bound world; the default world if none is bound
+	 */
+	public static World current() {
+		World w = bound.get();
+		return w != null ? w : DEFAULT;
+	}
+
+	/**
+	 * Binds a world to the calling thread
+	 * @param w World To bind; null to fall back to the default world
+	 * @return World The previously bound world; null if none was bound
+	 */
+	public static World bind(World w) {
+		World previous = bound.get();
+		if (w == null)
+			bound.remove();
+		else
+			bound.set(w);
+		return previous;
+	}
+
+	/**
+	 * Runs a task with this world bound to the calling thread
+	 * The previously bound world is restored afterwards
+	 * @param r Runnable Task to run
+	 */
+	public void run(Runnable r) {
+		World previous = bind(this);
+		try {
+			r.run();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Returns the registry of entity handles
+	 * @return EntityRegistry The registry
+	 */
+	public EntityRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Returns the spatial map of entities
+	 * @return SpatialEntityMap The map
+	 */
+	public SpatialEntityMap getSpatialMap() {
+		return spatialMap;
+	}
+
+	/**
+	 * Returns the entities that have a component
+	 * @param id int Id of the component type
+	 * @return EntitySet The owners
+	 */
+	EntitySet getOwners(int id) {
+		if (id >= componentMap.size()) {
+			synchronized (componentMap) {
+				while (id >= componentMap.size()) {
+					componentMap.add(new EntitySet());
+				}
+			}
+		}
+		return componentMap.get(id);
+	}
+
+	/**
+	 * Returns the owner sets of every component type created so far
+	 * @return List\<EntitySet\> Owner sets indexed by component type id
+	 */
+	List<EntitySet> getAllOwners() {
+		getOwners(EntityComponentManager.getComponentTypeCount() - 1);
+		return componentMap;
+	}
+
+	/**
+	 * Returns the entities that have children
+	 * @return Set\<Entity\> Unmodifiable set of parents
+	 */
+	public Set<Entity> getParents() {
+		return Collections.unmodifiableSet(parents);
+	}
+
+	/**
+	 * Takes the children whose parent or local position changed since the last call
+	 * @return List\<Entity\> The changed children
+	 */
+	public List<Entity> drainDirtyTransforms() {
+		List<Entity> drained = new ArrayList<>();
+		for (Iterator<Entity> it = dirtyTransforms.iterator(); it.hasNext();) {
+			drained.add(it.next());
+			it.remove();
+		}
+		return drained;
+	}
+
+	/**
+	 * Starts collecting the entities whose component of a type changes in this world
+	 * Every call needs a matching untrackChanges, collected entities are taken with drainChanged
+	 * @param type ComponentType\<?\> Component to track
+	 */
+	public void trackChanges(ComponentType<?> type) {
+		synchronized (trackers) {
+			trackers.merge(type.getId(), 1, Integer::sum);
+			trackedChanges.computeIfAbsent(type.getId(), id -> ConcurrentHashMap.newKeySet());
+		}
+	}
+
+	/**
+	 * Stops collecting changes of a component type once no consumer tracks it anymore
+	 * Collected entities are dropped with it
+	 * @param type ComponentType\<?\> Component to stop tracking
+	 */
+	public void untrackChanges(ComponentType<?> type) {
+		synchronized (trackers) {
+			if (trackers.computeIfPresent(type.getId(), (id, n) -> n > 1 ? n - 1 : null) == null)
+				trackedChanges.remove(type.getId());
+		}
+	}
+
+	/**
+	 * Checks whether or not changes of a component type are collected in this world
+	 * @param type ComponentType\<?\> Component to check
+	 * @return boolean Whether or not changes are collected
+	 */
+	public boolean isChangeTracked(ComponentType<?> type) {
+		return trackedChanges.containsKey(type.getId());
+	}
+
+	/**
+	 * Collects an entity whose component changed if its type is tracked
+	 * @param id int Id of the component type that changed
+	 * @param e Entity Owner of the component
+	 */
+	void trackChange(int id, Entity e) {
+		if (trackedChanges.isEmpty())
+			return;
+		Set<Entity> changed = trackedChanges.get(id);
+		if (changed != null)
+			changed.add(e);
+	}
+
+	/**
+	 * Drops an entity that left the world from the collected changes
+	 * @param e Entity To drop
+	 */
+	void untrack(Entity e) {
+		for (Set<Entity> changed : trackedChanges.values()) {
+			changed.remove(e);
+		}
+	}
+
+	/**
+	 * Takes the entities whose component changed since the last call
+	 * Only collected for component types tracked with trackChanges
+	 * @param type ComponentType\<?\> Component to check
+	 * @return List\<Entity\> The changed entities
+	 */
+	public List<Entity> drainChanged(ComponentType<?> type) {
+		Set<Entity> changed = trackedChanges.get(type.getId());
+		if (changed == null)
+			return Collections.emptyList();
+		List<Entity> drained = new ArrayList<>();
+		for (Iterator<Entity> it = changed.iterator(); it.hasNext();) {
+			drained.add(it.next());
+			it.remove();
+		}
+		return drained;
+	}
+
+	/**
+	 * Returns the current change tick
+	 * @return long The change tick
+	 */
+	public long getChangeTick() {
+		return changeTick.get();
+	}
+
+	/**
+	 * Advances the change tick
+	 * @return long The new change tick
+	 */
+	public long advanceChangeTick() {
+		return changeTick.incrementAndGet();
+	}
+
+	/**
+	 * Returns the event manager of this world
+	 * @return EventManager The event manager; null if no game runs this world
+	 */
+	public EventManager getEventManager() {
+		return eventManager;
+	}
+
+	/**
+	 * Sets the event manager of this world
+	 * @param eventManager EventManager The event manager
+	 */
+	public void setEventManager(EventManager eventManager) {
+		this.eventManager = eventManager;
+	}
+
+	/**
+	 * Returns the game running this world
+	 * @return Game The game; null if none
+	 */
+	public Game getGame() {
+		return game;
+	}
+
+	/**
+	 * Sets the game running this world
+	 * @param game Game The game
+	 */
+	public void setGame(Game game) {
+		this.game = game;
+	}
+}
@@ -1,13 +1,6 @@
 	package com.botifier.becs.entity.systems;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.joml.Vector2f;
 import org.lwjgl.glfw.GLFW;
@@ -17,7 +10,8 @@ import com.botifier.becs.config.ControlsConfig;
 import com.botifier.becs.entity.Entity;
 import com.botifier.becs.entity.EntityComponent;
 import com.botifier.becs.entity.EntityComponentManager;
-import com.botifier.becs.entity.EntitySystem;
+import com.botifier.becs.entity.FloatComponent;
+import com.botifier.becs.entity.ParallelEntitySystem;
 import com.botifier.becs.util.Input;
 import com.botifier.becs.util.Math2;
 
@@ -28,9 +22,14 @@ import com.botifier.becs.util.Math2;
  * 
  * @author Botifier
  */
-public class ArrowKeyControlsSystem extends EntitySystem {
+public class ArrowKeyControlsSystem extends ParallelEntitySystem<Void> {
 
 	public AtomicLong keyTick = new AtomicLong(0);
+
+	/**
+	 * Input used by the current apply
+	 */
+	private volatile Input input;
 	
     /**
      * ArrowKeyControlsSystem constructor
@@ -43,6 +42,8 @@ public class ArrowKeyControlsSystem extends EntitySystem {
      */
     public ArrowKeyControlsSystem(Game g) {
     	super(g, "ArrowKeyControlled", "PhysicsEnabled", "Position", "Velocity");
+    	declareReads(EntityComponentManager.ARROW_KEY_CONTROLLED, EntityComponentManager.POSITION, EntityComponentManager.SPEED);
+    	declareWrites(EntityComponentManager.VELOCITY);
     	ControlsConfig.addControl("UP", GLFW.GLFW_KEY_W, GLFW.GLFW_KEY_UP);
 		ControlsConfig.addControl("DOwN", GLFW.GLFW_KEY_S, GLFW.GLFW_KEY_DOWN);
 		ControlsConfig.addControl("LEFT", GLFW.GLFW_KEY_A, GLFW.GLFW_KEY_LEFT);
@@ -53,35 +54,30 @@ public class ArrowKeyControlsSystem extends EntitySystem {
 	@Override
 	public void apply(Entity[] entities) {
 		//Gets the Input
-		Input in = Game.getCurrent().getInput();
-
-		
-		//Creates futures for all entities in entities 
-		List<CompletableFuture<Void>> futures = IntStream.range(0, entities.length)
-				.mapToObj(i -> CompletableFuture.runAsync(() -> update(entities[i], in)))
-				.collect(Collectors.toList());
+		Input in = getGame().getInput();
+		if (in == null) //Headless games have no input
+			return;
 
-		//Creates a combined future
-		CompletableFuture<Void> allOf = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
-		
-		//Waits for the futures to complete
-		allOf.join();
+		input = in;
+		//Processes the entities in chunks
+		super.apply(entities);
 		
 		keyTick.incrementAndGet();
 	}
 
+	@Override
+	protected void process(Entity e, Void scratch) {
+		update(e, input);
+	}
+
 	/**
 	 * Performs functionality on supplied entity
 	 * @param e Entity To use
 	 * @param i Input Input being used
 	 */
 	private void update(Entity e, Input i) {
-		EntityComponent<Boolean> arrow = e.getComponent("ArrowKeyControlled");
-		if (!arrow.get()) { //Continue if ArrowKeyControlled is set to false
-			return;
-		}
-		EntityComponent<Vector2f> positionComponent = e.getComponent("Position");
-		EntityComponent<Vector2f> velocityComponent = e.getComponent("Velocity");
+		EntityComponent<Vector2f> positionComponent = e.getComponent(EntityComponentManager.POSITION);
+		EntityComponent<Vector2f> velocityComponent = e.getComponent(EntityComponentManager.VELOCITY);
 
 		Vector2f p = new Vector2f(positionComponent.get());
 		//Gets the velocity of the entity
@@ -115,9 +111,11 @@ public class ArrowKeyControlsSystem extends EntitySystem {
 		}
 
 		//Modifies the movement based on Speed
-		if (EntityComponentManager.hasComponent(e, "Speed")) {
-			EntityComponent<Float> speedComponent =  e.getComponent("Speed");
-			toAdd.mul(speedComponent.get());
+		if (EntityComponentManager.hasComponent(e, EntityComponentManager.SPEED)) {
+			EntityComponent<Float> speedComponent = e.getComponent(EntityComponentManager.SPEED);
+			//Other factories may not create unboxed components
+			float speed = speedComponent instanceof FloatComponent ? ((FloatComponent) speedComponent).getFloat() : speedComponent.get();
+			toAdd.mul(speed);
 		}
 		//If toAdd has any movement update the velocity
 		if (toAdd.length() > 0) {
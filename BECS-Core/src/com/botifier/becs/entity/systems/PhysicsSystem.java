@@ -1,20 +1,17 @@
 package com.botifier.becs.entity.systems;
 
-import static com.botifier.becs.entity.EntityComponentManager.hasComponent;
+import static com.botifier.becs.entity.EntityComponentManager.*;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.joml.Vector2f;
 import org.joml.Vector2fc;
@@ -22,13 +19,17 @@ import org.lwjgl.glfw.GLFW;
 
 import com.botifier.becs.Game;
 import com.botifier.becs.config.ObjectConfig;
+import com.botifier.becs.entity.BooleanComponent;
 import com.botifier.becs.entity.Entity;
 import com.botifier.becs.entity.EntityComponent;
-import com.botifier.becs.entity.EntitySystem;
+import com.botifier.becs.entity.LongComponent;
+import com.botifier.becs.entity.OffHeapVector2fComponent;
+import com.botifier.becs.entity.ParallelEntitySystem;
 import com.botifier.becs.entity.systems.physics.PhysicsSystemExtension;
 import com.botifier.becs.util.CollisionUtil;
+import com.botifier.becs.util.EntityRunnable;
+import com.botifier.becs.util.Input;
 import com.botifier.becs.util.Math2;
-import com.botifier.becs.util.ParameterizedRunnable;
 import com.botifier.becs.util.SpatialEntityMap;
 import com.botifier.becs.util.SpatialPolygonHolder;
 import com.botifier.becs.util.debugging.ExecutionTimer;
@@ -44,7 +45,7 @@ import com.botifier.becs.util.shapes.Shape;
  * 
  * @author Botifier
  */
-public class PhysicsSystem extends EntitySystem {
+public class PhysicsSystem extends ParallelEntitySystem<Void> {
     
 	/**
 	 * Config name of gravity
@@ -87,6 +88,11 @@ public class PhysicsSystem extends EntitySystem {
      * Great for timing
      */
     private AtomicLong physicsTick = new AtomicLong(0);
+    
+    /**
+     * Entities moved during the current apply
+     */
+    private volatile List<Entity> movedList = Collections.emptyList();
 
 
     /**
@@ -94,44 +100,65 @@ public class PhysicsSystem extends EntitySystem {
      */
 	public PhysicsSystem(Game g) {
 		super(g, "Position", "Velocity", "PhysicsEnabled");
+		//Lets sleeping entities be woken without checking all of them every tick
+		getWorld().trackChanges(VELOCITY);
+		//Collision handling is expensive per entity, smaller chunks balance it better
+		setGrainSize(64);
 		//Initializes the physics config
 		initPhysicsConfig();
 	}
 	
+	/**
+	 * Wakes sleeping entities whose velocity changed to something other than zero since the last run
+	 * Only entities the world collected as having a changed velocity are checked
+	 * @param sem SpatialEntityMap Map holding the sleeping entities
+	 */
+	private void wakeChangedEntities(SpatialEntityMap sem) {
+		for (Entity e : getWorld().drainChanged(VELOCITY)) {
+			if (e.isDead() || sem.isAwake(e.getHandle()) || !hasComponent(e, VELOCITY))
+				continue;
+			Vector2fc v = e.getComponent(VELOCITY).get();
+			if (Math.abs(v.x()) > 0.001f || Math.abs(v.y()) > 0.001f)
+				sem.wakeEntity(e);
+		}
+	}
+	
+	@Override
+	protected void process(Entity e, Void scratch) {
+		if (running.get()) {
+			updateEntity(e, movedList);
+		}
+	}
+	
 	@Override
 	public void apply(Entity[] entities) {
-		if ((getConfig().getBoolean(STAGGER_MODE_CONFIG) && !Game.getCurrent().getInput().isKeyPressed(GLFW.GLFW_KEY_SPACE)) || isPaused()) {
+		//Wakes entities before pausing so velocity changes made while paused aren't missed
+		wakeChangedEntities(getWorld().getSpatialMap());
+		
+		//Stagger mode waits for the space bar, headless games have no input to wait for
+		Input in = getGame().getInput();
+		if ((getConfig().getBoolean(STAGGER_MODE_CONFIG) && in != null && !in.isKeyPressed(GLFW.GLFW_KEY_SPACE)) || isPaused()) {
 			return;
 		}
 		
 		if (!running.get())
 			return;
 
-	    final SpatialEntityMap sem = Entity.spatialMap();
+	    final SpatialEntityMap sem = getWorld().getSpatialMap();
 	    
 		//Create a list for tracking all of the entities that have moved
-		List<Entity> movedList = Collections.synchronizedList(new ArrayList<>());
+		List<Entity> moved = Collections.synchronizedList(new ArrayList<>());
+		movedList = moved;
 		
-		//Convert all awake entities to futures that run updateEntity
-		Stream<Entity> es = sem.getAwake().stream().parallel().map(e -> Entity.getEntity(e));
+		//Gather all awake entities
+		Entity[] awake = sem.getAwake().stream().map(Entity::getEntity).filter(e -> e != null).toArray(Entity[]::new);
 		
-		List<CompletableFuture<Void>> futures = es
-				.map(i -> CompletableFuture.runAsync(() -> {
-					if (running.get()) {
-						updateEntity(i, movedList);
-					}
-				}))
-				.collect(Collectors.toList());
-		//Collect all futures together
-		CompletableFuture<Void> allOf = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
-		.thenRun(() -> {
-			//Update all entities in movedList
-			if (running.get())
-				Entity.spatialMap().updateEntitiesInParalell(movedList);
-		});
+		//Runs updateEntity on the awake entities in chunks and waits for them
+		super.apply(awake);
 		
-		//Wait for futures to complete
-		allOf.join();
+		//Update all entities in movedList
+		if (running.get())
+			sem.updateEntitiesInParalell(moved);
 		
 		//Proceed to the next physics tick
 		physicsTick.incrementAndGet();
@@ -145,8 +172,8 @@ public class PhysicsSystem extends EntitySystem {
 	 */
 	public void updateEntity(Entity e, List<Entity> movedList) {
 		//Obtain the Position and Velocity components
-		EntityComponent<Vector2f> posComponent = e.getComponent("Position");
-		EntityComponent<Vector2f> velComponent = e.getComponent("Velocity");
+		EntityComponent<Vector2f> posComponent = e.getComponent(POSITION);
+		EntityComponent<Vector2f> velComponent = e.getComponent(VELOCITY);
 
 		//Obtain the data from the components
 		Vector2f p = posComponent.get();
@@ -158,8 +185,8 @@ public class PhysicsSystem extends EntitySystem {
 		}
 
 		//Checks if the Entity is both Collidable and has a CollisionShape
-		EntityComponent<Shape> shaComponent = e.getComponent("CollisionShape");
-		boolean collidable = hasComponent(e, "Collidable");
+		EntityComponent<Shape> shaComponent = e.getComponent(COLLISION_SHAPE);
+		boolean collidable = hasComponent(e, COLLIDABLE);
 		if (shaComponent != null && collidable) {
 			//Obtains the entity's shape
 			Shape s = shaComponent.get();
@@ -170,7 +197,7 @@ public class PhysicsSystem extends EntitySystem {
 			
 			//Obtain all nearby entities
 
-			Entity[] entities = Entity.spatialMap().getEntitiesIn(collideCheck, true).toArray(Entity[]::new);
+			Entity[] entities = getWorld().getSpatialMap().getEntitiesIn(collideCheck, true).toArray(Entity[]::new);
 			
 			//If there is at least 1 entity perform collision handling and then update velocity
 			if (entities.length >= 1) 
@@ -196,11 +223,11 @@ public class PhysicsSystem extends EntitySystem {
 				//Checks if the center of the shape's distance is greater than a leniency value
 				if (moved) {
 					//Locates the entity's locations in the map
-					SpatialPolygonHolder sph = Entity.spatialMap().locate(e);
+					SpatialPolygonHolder sph = getWorld().getSpatialMap().locate(e);
 					
 					//If the locations aren't null and the hashes match, the entity had moved
 					if (sph != null &&
-					    !sph.matches(Entity.spatialMap().gridifyPolygon(s.toPolygon()).getHashes()))
+					    !sph.matches(getWorld().getSpatialMap().gridifyPolygon(s.toPolygon()).getHashes()))
 						shapeUpdated = true;
 					
 				}
@@ -234,8 +261,8 @@ public class PhysicsSystem extends EntitySystem {
 	 */
 	public Vector2f handleCollision(Entity e, Shape s, Polygon collideCheck, Entity[] entities) {
 		//Obtains the entity's position and velocity components
-		EntityComponent<Vector2f> velComponent = e.getComponent("Velocity");
-		EntityComponent<Vector2f> posComponent = e.getComponent("Position");
+		EntityComponent<Vector2f> velComponent = e.getComponent(VELOCITY);
+		EntityComponent<Vector2f> posComponent = e.getComponent(POSITION);
 
 		//Obtains the information inside them
 		Vector2fc p = posComponent.get();
@@ -245,8 +272,8 @@ public class PhysicsSystem extends EntitySystem {
 		Vector2f fullVelAdj = new Vector2f(0, 0);
 		
 		//If the entity has an acceleration, add it to the velocity adjustment
-		if (hasComponent(e, "Acceleration")) {
-			EntityComponent<Vector2f> accComponent = e.getComponent("Acceleration");
+		if (hasComponent(e, ACCELERATION)) {
+			EntityComponent<Vector2f> accComponent = e.getComponent(ACCELERATION);
 			fullVelAdj.add(accComponent.get());
 		}
 
@@ -264,8 +291,8 @@ public class PhysicsSystem extends EntitySystem {
 		//Sort the entities array by distance from the entity
 		Arrays.sort(entities, (a, b) -> {
 
-			EntityComponent<Vector2f> posAComponent = a.getComponent("Position");
-			EntityComponent<Vector2f> posBComponent = b.getComponent("Position");
+			EntityComponent<Vector2f> posAComponent = a.getComponent(POSITION);
+			EntityComponent<Vector2f> posBComponent = b.getComponent(POSITION);
 			Vector2f posA = posAComponent.get();
 			Vector2f posB = posBComponent.get();
 
@@ -283,7 +310,7 @@ public class PhysicsSystem extends EntitySystem {
 			Vector2f velAdj = new Vector2f(0);
 
 			//Obtain the secondary entity's shape component
-			EntityComponent<Shape> sha2Component = e2.getComponent("CollisionShape");
+			EntityComponent<Shape> sha2Component = e2.getComponent(COLLISION_SHAPE);
 
 			//Secondary entity's collision shape
 			Shape s2 = sha2Component.get();
@@ -296,7 +323,7 @@ public class PhysicsSystem extends EntitySystem {
 				performInteraction(e, e2);
 
 				//Only actually adjusts if it is solid the magnitude of the modification is not zero
-				if (hasComponent(e, "Solid") && hasComponent(e2, "Solid") && velAdj.length() > 0.001f) {
+				if (hasComponent(e, SOLID) && hasComponent(e2, SOLID) && velAdj.length() > 0.001f) {
 					//Add the adjustment to the full adjustment
 					fullVelAdj.add(velAdj);
 
@@ -335,26 +362,26 @@ public class PhysicsSystem extends EntitySystem {
 
 	private boolean validCollisionEntity(Entity e, Entity e2) {
 		//If the target entity is the null or the same as the origin, it isn't valid
-		if ((e2 == null) || (e2 == e) || (e2.getUUID() == e.getUUID())) {
+		if ((e2 == null) || (e2 == e) || (e2.getHandle() == e.getHandle())) {
 			return false;
 		}
 		//If the target entity lacks the proper collision components, it isn't valid
-		if (!hasComponent(e2, "CollisionShape") || !hasComponent(e2, "Collidable")
-			|| !hasComponent(e2, "Position")) {
+		if (!hasComponent(e2, COLLISION_SHAPE) || !hasComponent(e2, COLLIDABLE)
+			|| !hasComponent(e2, POSITION)) {
 			return false;
 		}
 		
 		//If the target entity isn't solid, its not valid unless, it is interactable
-		if ((!hasComponent(e2, "Solid") || !((boolean)(e2.getComponent("Solid").get()))) && !hasComponent(e2, "Interactable")) {
+		if (!hasComponent(e2, SOLID) && !hasComponent(e2, INTERACTABLE)) {
 			return false;
 		}
 		
 		//If the origin has the IgnoreWith component, check if the entity should be ignored
-		if (hasComponent(e, "IgnoreWith")) {
+		if (hasComponent(e, IGNORE_WITH)) {
 			//Breaking down the ignore list because it is stored in a single string
 			//Not an array
 			//Is this a good idea? Probably not.
-			EntityComponent<String> checkCom = e.getComponent("IgnoreWith");
+			EntityComponent<String> checkCom = e.getComponent(IGNORE_WITH);
 			String[] ignores = checkCom.get().split(",");
 			boolean skip = false;
 			for (String ignore : ignores) {
@@ -377,25 +404,29 @@ public class PhysicsSystem extends EntitySystem {
 	 * @param e Entity To use
 	 */
 	private void handleSnappyMovment(Entity e) {
-		EntityComponent<Vector2f> posComponent = e.getComponent("Position");
-		EntityComponent<Vector2f> velComponent = e.getComponent("Velocity");
-		EntityComponent<Long> snappyComponent = e.getComponent("Snappy");
+		EntityComponent<Vector2f> posComponent = e.getComponent(POSITION);
+		EntityComponent<Vector2f> velComponent = e.getComponent(VELOCITY);
+		EntityComponent<Long> snappyComponent = e.getComponent(SNAPPY);
 
 		Vector2f p = posComponent.get();
 		Vector2f v = velComponent.get();
-		//Handles snap based movement
-		long nextMove = snappyComponent.get();
+		//Handles snap based movement, other factories may not create unboxed components
+		long nextMove = snappyComponent instanceof LongComponent ? ((LongComponent) snappyComponent).getLong() : snappyComponent.get();
 
 		p.set((int)(p.x/32)*32, (int)(p.y/32)*32);
 		
 		if (nextMove <= getPhysicsTick()) {
-			if (hasComponent(e, "CollisionShape")) {
-				EntityComponent<Shape> shaComponent = e.getComponent("CollisionShape");
+			if (hasComponent(e, COLLISION_SHAPE)) {
+				EntityComponent<Shape> shaComponent = e.getComponent(COLLISION_SHAPE);
 				RotatableRectangle rr = (RotatableRectangle) shaComponent.get();
 				rr.setCenter(p.x + v.x + rr.getHeight() / 2, p.y + v.y + rr.getHeight() / 2);
 			}
 			p.add(v.x, v.y);
-			snappyComponent.set(getPhysicsTick() + SNAP_DELAY);
+			long next = getPhysicsTick() + SNAP_DELAY;
+			if (snappyComponent instanceof LongComponent)
+				((LongComponent) snappyComponent).setLong(next);
+			else
+				snappyComponent.set(next);
 		}
 
 		if (v.x < 32 && v.x > 0) {
@@ -415,6 +446,9 @@ public class PhysicsSystem extends EntitySystem {
 			v.mul(0);
 		}
 
+		//Components may hand out copies, so the results are written back
+		posComponent.set(p);
+		velComponent.set(v);
 	}
 
 
@@ -425,13 +459,13 @@ public class PhysicsSystem extends EntitySystem {
 	 * @return
 	 */
 	private boolean performInteraction(Entity primary, Entity secondary) {
-		if (!hasComponent(primary, "Interactable") || !hasComponent(secondary, "Interactable")) {
+		if (!hasComponent(primary, INTERACTABLE) || !hasComponent(secondary, INTERACTABLE)) {
 			return false;
 		}
 		
 		//Obtains the interactable components
-		EntityComponent<ParameterizedRunnable<Entity>> pr = primary.getComponent("Interactable");
-		EntityComponent<ParameterizedRunnable<Entity>> sc = secondary.getComponent("Interactable");
+		EntityComponent<EntityRunnable> pr = primary.getComponent(INTERACTABLE);
+		EntityComponent<EntityRunnable> sc = secondary.getComponent(INTERACTABLE);
 		
 		//Runs primary interaction if it isn't null
 		if (pr.get() != null) {
@@ -450,16 +484,11 @@ public class PhysicsSystem extends EntitySystem {
 	 */
 	private boolean handleNormalMovment(Entity e) {
 		//Obtains the entity's position and velocity components
-		EntityComponent<Vector2f> posComponent = e.getComponent("Position");
-		EntityComponent<Vector2f> velComponent = e.getComponent("Velocity");
+		EntityComponent<Vector2f> posComponent = e.getComponent(POSITION);
+		EntityComponent<Vector2f> velComponent = e.getComponent(VELOCITY);
 
-		//Obtains the values of the position and velocity components
-		Vector2fc cP = posComponent.get();
-		Vector2fc cV = velComponent.get();
-
-		//Creates a copy of the components
-		Vector2f v = new Vector2f(cV);
-		Vector2f p = new Vector2f(cP);
+		//Creates a copy of the velocity
+		Vector2f v = new Vector2f(velComponent.get());
 		
 		//Sets velocity to zero if it has a magnitude below 0.05f
 		if (Math.abs(v.x()) < 0.05f) {
@@ -473,16 +502,22 @@ public class PhysicsSystem extends EntitySystem {
 
 		//Put the entity to sleep if it isn't moving
 		if (v.length() == 0) {
-			Entity.spatialMap().sleepEntity(e);
+			getWorld().getSpatialMap().sleepEntity(e);
 			return false;
 		}
-		//Normal movement
-		posComponent.set(p.add(v));
+		//Normal movement, stored positions are moved through the store without creating vectors
+		if (posComponent instanceof OffHeapVector2fComponent) {
+			OffHeapVector2fComponent stored = (OffHeapVector2fComponent) posComponent;
+			stored.set(stored.getX() + v.x, stored.getY() + v.y);
+		} else {
+			posComponent.set(new Vector2f(posComponent.get()).add(v));
+		}
 		
 		//Tracks the boolean facing direction of the entity
-		if (hasComponent(e, "BooleanDirection")) {
-			EntityComponent<Boolean> boolComponent = e.getComponent("BooleanDirection");
-			boolean b = boolComponent.get();
+		if (hasComponent(e, BOOLEAN_DIRECTION)) {
+			EntityComponent<Boolean> boolComponent = e.getComponent(BOOLEAN_DIRECTION);
+			BooleanComponent unboxed = boolComponent instanceof BooleanComponent ? (BooleanComponent) boolComponent : null;
+			boolean b = unboxed != null ? unboxed.getBoolean() : boolComponent.get();
 			if (!b) {
 				if (v.x > 0) {
 					b = true;
@@ -492,7 +527,10 @@ public class PhysicsSystem extends EntitySystem {
 					b = false;
 				}
 			}
-			boolComponent.set(b);
+			if (unboxed != null)
+				unboxed.setBoolean(b);
+			else
+				boolComponent.set(b);
 		}
 
 		//So entities slide into place instead of abruptly stopping
@@ -550,6 +588,7 @@ public class PhysicsSystem extends EntitySystem {
 	@Override
 	public void destroy() {
 		getConfig().writeFile("physics-config.json");
-		running.set(false);
+		if (running.getAndSet(false)) //Only gives up the tracking it took once
+			getWorld().untrackChanges(VELOCITY);
 	}
 }
@@ -0,0 +1,123 @@
+package com.botifier.becs.entity.systems;
+
+import static com.botifier.becs.entity.EntityComponentManager.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+
+import com.botifier.becs.Game;
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponent;
+import com.botifier.becs.entity.EntitySystem;
+import com.botifier.becs.entity.World;
+import com.botifier.becs.util.shapes.Shape;
+
+/**
+ * TransformSystem
+ *
+ * Moves children along with their parents, see Entity.setParent
+ * A child's position is its parent's position plus its LocalPosition.
+ *
+ * Only subtrees below a parent whose position changed since the last run, or below a child whose
+ * parent or local position was set through Entity, are recomputed. Attachments that don't move cost nothing.
+ * Should be added after the systems that move entities.
+ *
+ * @author Botifier
+ */
+public class TransformSystem extends EntitySystem {
+
+	/**
+	 * TransformSystem constructor
+	 * @param g Game Owner of the system
+	 */
+	public TransformSystem(Game g) {
+		super(g, "LocalPosition");
+		declareReads(LOCAL_POSITION);
+		declareWrites(POSITION, COLLISION_SHAPE);
+	}
+
+	@Override
+	public void apply(Entity[] entities) {
+		if (isPaused())
+			return;
+		World w = getWorld();
+
+		//Entities whose subtree has to be recomputed
+		Set<Entity> changed = new HashSet<>();
+		for (Entity p : w.getParents()) {
+			if (changedSinceLastRun(p.getComponent(POSITION)))
+				changed.add(p);
+		}
+		for (Entity child : w.drainDirtyTransforms()) {
+			if (child.getParent() != null)
+				changed.add(child);
+		}
+
+		List<Entity> moved = new ArrayList<>();
+		for (Entity e : changed) {
+			//Subtrees below another changed entity are recomputed from there
+			if (hasChangedAncestor(e, changed))
+				continue;
+			EntityComponent<Vector2f> pos = e.getComponent(POSITION);
+			if (pos == null)
+				continue;
+			Vector2f p = pos.get();
+			for (Entity child : e.getChildren()) {
+				propagate(child, p, moved);
+			}
+		}
+
+		if (!moved.isEmpty())
+			w.getSpatialMap().updateEntitiesInParalell(moved);
+	}
+
+	/**
+	 * Checks whether or not an ancestor of an entity is in a set
+	 * @param e Entity To check
+	 * @param changed Set\<Entity\> Entities whose subtree is recomputed
+	 * @return boolean Whether or not an ancestor is in the set
+	 */
+	private boolean hasChangedAncestor(Entity e, Set<Entity> changed) {
+		for (Entity p = e.getParent(); p != null; p = p.getParent()) {
+			if (changed.contains(p))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Moves an entity to its parent's position plus its local position, then does the same for its children
+	 * @param e Entity To move
+	 * @param parentPosition Vector2fc Position of the parent
+	 * @param moved List\<Entity\> Collects entities whose collision shape moved
+	 */
+	private void propagate(Entity e, Vector2fc parentPosition, List<Entity> moved) {
+		EntityComponent<Vector2f> local = e.getComponent(LOCAL_POSITION);
+		EntityComponent<Vector2f> pos = e.getComponent(POSITION);
+		if (local == null || pos == null)
+			return;
+		Vector2f p = new Vector2f(parentPosition).add(local.get());
+		pos.set(p);
+
+		EntityComponent<Shape> s = e.getComponent(COLLISION_SHAPE);
+		if (s != null) {
+			Shape sh = s.get().clone();
+			sh.setCenter(p.x, p.y);
+			s.set(sh);
+			moved.add(e);
+		}
+
+		for (Entity child : e.getChildren()) {
+			propagate(child, p, moved);
+		}
+	}
+
+	@Override
+	public void destroy() {
+	}
+}
@@ -0,0 +1,51 @@
+package com.botifier.becs.events;
+
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityTemplate;
+import com.botifier.becs.util.events.Event;
+
+/**
+ * EntitiesSpawnedEvent
+ *
+ * Fired once by EntityComponentManager.spawnBatch instead of an EntityComponentAddedEvent per component
+ *
+ * @author Botifier
+ */
+public class EntitiesSpawnedEvent extends Event {
+
+	/**
+	 * The spawned entities
+	 */
+	private final Entity[] entities;
+
+	/**
+	 * The template the entities were spawned from
+	 */
+	private final EntityTemplate template;
+
+	/**
+	 * EntitiesSpawnedEvent constructor
+	 * @param entities Entity[] The spawned entities
+	 * @param template EntityTemplate The template the entities were spawned from
+	 */
+	public EntitiesSpawnedEvent(Entity[] entities, EntityTemplate template) {
+		this.entities = entities;
+		this.template = template;
+	}
+
+	/**
+	 * Returns the spawned entities
+	 * @return Entity[] The entities
+	 */
+	public Entity[] getEntities() {
+		return entities;
+	}
+
+	/**
+	 * Returns the template the entities were spawned from
+	 * @return EntityTemplate The template
+	 */
+	public EntityTemplate getTemplate() {
+		return template;
+	}
+}
@@ -6,11 +6,35 @@ import com.botifier.becs.util.events.Event;
 public class EntityDeathEvent extends Event {
 	private final Entity e;
 	
+	/**
+	 * Whether or not the entity went back into an EntityPool
+	 */
+	private final boolean recycled;
+	
 	public EntityDeathEvent(Entity e) {
+		this(e, false);
+	}
+	
+	/**
+	 * EntityDeathEvent constructor
+	 * @param e Entity That died, a copy unless recycled
+	 * @param recycled boolean Whether or not the entity went back into an EntityPool
+	 */
+	public EntityDeathEvent(Entity e, boolean recycled) {
 		this.e = e;
+		this.recycled = recycled;
 	}
 	
 	public Entity getEntity() {
 		return e;
 	}
+	
+	/**
+	 * Whether or not the entity went back into an EntityPool
+	 * Recycled entities are not copies and will be reused, don't hold on to them
+	 * @return boolean Whether or not it was recycled
+	 */
+	public boolean isRecycled() {
+		return recycled;
+	}
 }
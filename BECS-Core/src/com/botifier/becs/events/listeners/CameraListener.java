@@ -6,7 +6,6 @@ import org.joml.Vector2f;
 
 import com.botifier.becs.Game;
 import com.botifier.becs.events.EntityComponentRemovedEvent;
-import com.botifier.becs.events.EntityComponentUpdatedEvent;
 import com.botifier.becs.util.annotations.EventHandler;
 import com.botifier.becs.util.events.EventListener;
 import com.botifier.becs.util.render.Camera;
@@ -26,10 +25,4 @@ public class CameraListener extends EventListener {
 		Game.getCurrent().getEventManager().unregisterListener(this);
 	}
 	
-
-	@EventHandler(event = EntityComponentUpdatedEvent.class, origin = "Position")
-	public void onMove(EntityComponentUpdatedEvent<Vector2f> e) {
-		c.setCenter(e.getNewValue());
-	}
-	
 }
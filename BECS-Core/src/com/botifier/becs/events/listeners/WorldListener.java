@@ -4,7 +4,6 @@ import com.botifier.becs.util.events.EventListener;
 import com.botifier.becs.util.shapes.Shape;
 
 import org.joml.Vector2f;
-import org.joml.Vector2fc;
 
 import com.botifier.becs.entity.*;
 import com.botifier.becs.events.*;
@@ -16,16 +15,16 @@ public class WorldListener extends EventListener {
 	public void onComponentAdded(EntityComponentAddedEvent<Shape> e) {
 		Entity en = e.getTarget();
 		
-		if (en.hasComponent("Position") && !Entity.spatialMap().contains(en)) {
+		if (en.hasComponent(EntityComponentManager.POSITION) && !en.getWorld().getSpatialMap().contains(en)) {
 			EntityComponent<Shape> s = e.getComponent();
-			EntityComponent<Vector2f> pC = en.getComponent("Position");
+			EntityComponent<Vector2f> pC = en.getComponent(EntityComponentManager.POSITION);
 			Vector2f p = pC.get();
 
 			Shape sh = s.get();
 			sh.setCenter(p.x, p.y);
 			e.getComponent().set(sh);
 
-			Entity.spatialMap().addEntity(en);
+			en.getWorld().getSpatialMap().addEntity(en);
 		}
 	}
 	
@@ -33,8 +32,8 @@ public class WorldListener extends EventListener {
 	public void onPositionAdded(EntityComponentAddedEvent<Vector2f> e) {
 		Entity en = e.getTarget();
 		
-		if (en.hasComponent("CollisionShape") && !Entity.spatialMap().contains(en)) {
-			EntityComponent<Shape> s = en.getComponent("CollisionShape");
+		if (en.hasComponent(EntityComponentManager.COLLISION_SHAPE) && !en.getWorld().getSpatialMap().contains(en)) {
+			EntityComponent<Shape> s = en.getComponent(EntityComponentManager.COLLISION_SHAPE);
 			EntityComponent<Vector2f> pC = e.getComponent();
 			Vector2f p = pC.get();
 
@@ -42,7 +41,7 @@ public class WorldListener extends EventListener {
 			sh.setCenter(p.x, p.y);
 			s.set(sh);
 
-			Entity.spatialMap().addEntity(en);
+			en.getWorld().getSpatialMap().addEntity(en);
 		}
 	}
 	
@@ -50,8 +49,8 @@ public class WorldListener extends EventListener {
 	public void onPositionRemoved(EntityComponentRemovedEvent<Vector2f> e) {
 		Entity en = e.getTarget();
 		
-		if (Entity.spatialMap().contains(en)) {
-			Entity.spatialMap().removeEntity(en);
+		if (en.getWorld().getSpatialMap().contains(en)) {
+			en.getWorld().getSpatialMap().removeEntity(en);
 		}
 	}
 	
@@ -59,15 +58,8 @@ public class WorldListener extends EventListener {
 	public void onShapeRemoved(EntityComponentRemovedEvent<Shape> e) {
 		Entity en = e.getTarget();
 		
-		if (Entity.spatialMap().contains(en)) {
-			Entity.spatialMap().removeEntity(en);
-		}
-	}
-	
-	@EventHandler(event = EntityComponentUpdatedEvent.class, origin="Velocity")
-	public void onVelocityUpdate(EntityComponentUpdatedEvent<Vector2fc> e) {
-		if (!e.getNewValue().equals(new Vector2f(), 0.001f)) {
-			Entity.spatialMap().wakeEntity(e.getComponent().getOwner());
+		if (en.getWorld().getSpatialMap().contains(en)) {
+			en.getWorld().getSpatialMap().removeEntity(en);
 		}
 	}
 }
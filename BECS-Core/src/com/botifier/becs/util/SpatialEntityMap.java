@@ -6,7 +6,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -36,8 +35,8 @@ import com.botifier.becs.util.shapes.Shape;
 public class SpatialEntityMap {
 	private int cellSize;
 	private final Map<Vector2f, Set<Entity>> grid;
-	private final Map<UUID, SpatialPolygonHolder> entityLocations;
-	private final Map<UUID, SpatialPolygonHolder> sleepingEntities;
+	private final Map<Long, SpatialPolygonHolder> entityLocations;
+	private final Map<Long, SpatialPolygonHolder> sleepingEntities;
 
     /**
      * SpatialEntityMap constructor
@@ -60,14 +59,14 @@ public class SpatialEntityMap {
 	                                             .map(Entity::falseClone)
 	                                             .collect(Collectors.toSet());
 	            clonedSet.forEach(clonedEntity -> {
-	                this.entityLocations.put(clonedEntity.getUUID(), origin.entityLocations.get(clonedEntity.getUUID()));
+	                this.entityLocations.put(clonedEntity.getHandle(), origin.entityLocations.get(clonedEntity.getHandle()));
 	            });
 	            this.grid.put(hash, clonedSet);
 	        }
 	    });
 	}
 
-	private SpatialEntityMap(int cellSize, Map<Vector2f, Set<Entity>> grid, Map<UUID, SpatialPolygonHolder> ent) {
+	private SpatialEntityMap(int cellSize, Map<Vector2f, Set<Entity>> grid, Map<Long, SpatialPolygonHolder> ent) {
 		this(cellSize);
 
 		grid.entrySet().parallelStream().forEach(e -> {
@@ -78,16 +77,16 @@ public class SpatialEntityMap {
 	            entitySet.add(faker);
 
 	            // Fetch and put only if the SpatialPolygonHolder exists.
-	            SpatialPolygonHolder holder = ent.get(faker.getUUID());
+	            SpatialPolygonHolder holder = ent.get(faker.getHandle());
 	            if (holder != null) {
-	                this.entityLocations.put(faker.getUUID(), holder);
+	                this.entityLocations.put(faker.getHandle(), holder);
 	            }
 	        }
 			this.grid.put(e.getKey(), entitySet);
 		});
 	}
 
-	private SpatialEntityMap(int cellSize, Map<Vector2f, Set<Entity>> grid, Map<UUID, SpatialPolygonHolder> ent, Set<Vector2f> hashesToCopy) {
+	private SpatialEntityMap(int cellSize, Map<Vector2f, Set<Entity>> grid, Map<Long, SpatialPolygonHolder> ent, Set<Vector2f> hashesToCopy) {
 		this(cellSize);
 
 		hashesToCopy.forEach(h -> {
@@ -99,12 +98,12 @@ public class SpatialEntityMap {
 					if (faker == null) {
 						return;
 					}
-					SpatialPolygonHolder sph = ent.get(faker.getUUID());
+					SpatialPolygonHolder sph = ent.get(faker.getHandle());
 					if (sph == null) {
 						return;
 					}
 					en.add(faker);
-					this.entityLocations.put(faker.getUUID(), sph);
+					this.entityLocations.put(faker.getHandle(), sph);
 				});
 			}
 			this.grid.put(h, en);
@@ -135,7 +134,7 @@ public class SpatialEntityMap {
 		if (contains(e)) {
 			state = removeEntity(e);
 		}
-		EntityComponent<Shape> s = e.getComponent("CollisionShape");
+		EntityComponent<Shape> s = e.getComponent(EntityComponentManager.COLLISION_SHAPE);
 		if (s == null) {
 			return false;
 		}
@@ -148,10 +147,10 @@ public class SpatialEntityMap {
 		}
 		
 		if (state == 1) {
-			entityLocations.put(e.getUUID(), sph);
+			entityLocations.put(e.getHandle(), sph);
 		}
 		else
-			sleepingEntities.put(e.getUUID(), sph);
+			sleepingEntities.put(e.getHandle(), sph);
 		
 		return true;
 	}
@@ -180,9 +179,9 @@ public class SpatialEntityMap {
 		}
 
 		try {
-			entityLocations.remove(e.getUUID());
+			entityLocations.remove(e.getHandle());
 		} catch (NullPointerException ne) {
-			sleepingEntities.remove(e.getUUID());
+			sleepingEntities.remove(e.getHandle());
 			return 2;
 		}
 		return 1;
@@ -191,29 +190,29 @@ public class SpatialEntityMap {
 	public boolean sleepEntity(Entity e) {
 		if (e == null)
 			return false;
-		if (!isAwake(e.getUUID()))
+		if (!isAwake(e.getHandle()))
 			return false;
 			
 		SpatialPolygonHolder sph = locateActive(e);
 		if (sph == null)
 			return false;
 		
-		sleepingEntities.put(e.getUUID(), sph);
-		entityLocations.remove(e.getUUID());
+		sleepingEntities.put(e.getHandle(), sph);
+		entityLocations.remove(e.getHandle());
 		return true;
 	}
 
 	public boolean wakeEntity(Entity e) {
 		if (e == null)
 			return false;
-		if (isAwake(e.getUUID()))
+		if (isAwake(e.getHandle()))
 			return false;
 		
 		SpatialPolygonHolder sph = locateSleeping(e);
 		if (sph == null)
 			return false;
-		entityLocations.put(e.getUUID(), sph);
-		sleepingEntities.remove(e.getUUID());
+		entityLocations.put(e.getHandle(), sph);
+		sleepingEntities.remove(e.getHandle());
 		return true;
 	}
 
@@ -223,16 +222,24 @@ public class SpatialEntityMap {
 	 * @return SpatialPolygonHolder The area that the entity exists
 	 */
 	public SpatialPolygonHolder locate(Entity e) {
-		return entityLocations.getOrDefault(e.getUUID(), 
-				sleepingEntities.getOrDefault(e.getUUID(), null));
+		return entityLocations.getOrDefault(e.getHandle(), 
+				sleepingEntities.getOrDefault(e.getHandle(), null));
 	}
 	
 	public SpatialPolygonHolder locateActive(Entity e) {
-		return entityLocations.getOrDefault(e.getUUID(), null);
+		return entityLocations.getOrDefault(e.getHandle(), null);
 	}
 	
 	public SpatialPolygonHolder locateSleeping(Entity e) {
-		return sleepingEntities.getOrDefault(e.getUUID(), null);
+		return sleepingEntities.getOrDefault(e.getHandle(), null);
+	}
+
+	/**
+	 * Adds entities in parallel using threads
+	 * @param entities List\<Entity\> entities to add
+	 */
+	public void addEntities(List<Entity> entities) {
+		entities.parallelStream().forEach(this::addEntity);
 	}
 
 	/**
@@ -261,7 +268,7 @@ public class SpatialEntityMap {
 		if (e == null ) {
 			return false;
 		}
-		EntityComponent<Shape> s = e.getComponent("CollisionShape");
+		EntityComponent<Shape> s = e.getComponent(EntityComponentManager.COLLISION_SHAPE);
 		if (s == null) {
 			return false;
 		}
@@ -303,9 +310,9 @@ public class SpatialEntityMap {
 		});
 
 		try {
-			entityLocations.put(e.getUUID(), sph);
+			entityLocations.put(e.getHandle(), sph);
 		} catch (NullPointerException ex) {
-			sleepingEntities.put(e.getUUID(), sph);
+			sleepingEntities.put(e.getHandle(), sph);
 		}
 		
 
@@ -353,7 +360,7 @@ public class SpatialEntityMap {
 		
 
 		if (collide)
-			validEntities = validEntities.filter(e -> EntityComponentManager.hasComponent(e, "Collidable"));
+			validEntities = validEntities.filter(e -> EntityComponentManager.hasComponent(e, EntityComponentManager.COLLIDABLE));
 		return validEntities.collect(Collectors.toCollection(ConcurrentHashMap::newKeySet));
 	}
 
@@ -378,39 +385,47 @@ public class SpatialEntityMap {
 	 * @return boolean Whether or not the entity is in the map
 	 */
 	public boolean contains(Entity e) {
-		return contains(e.getUUID());
+		return contains(e.getHandle());
 	}
 	
 	public boolean isSleeping(Entity e) {
 		if (e == null)
 			return false;
-		return isSleeping(e.getUUID());
+		return isSleeping(e.getHandle());
 	}
 	
 	public boolean isAwake(Entity e) {
 		if (e == null)
 			return false;
-		return isAwake(e.getUUID());
+		return isAwake(e.getHandle());
 	}
 	
 	
-	public boolean contains(UUID uuid) {
-		return isSleeping(uuid)|| isAwake(uuid);
+	public boolean contains(long handle) {
+		return isSleeping(handle)|| isAwake(handle);
 	}
 	
-	public boolean isSleeping(UUID uuid) {
-		return sleepingEntities.containsKey(uuid);
+	public boolean isSleeping(long handle) {
+		return sleepingEntities.containsKey(handle);
 	}
 	
-	public boolean isAwake(UUID uuid) {
-		return entityLocations.containsKey(uuid);
+	public boolean isAwake(long handle) {
+		return entityLocations.containsKey(handle);
 	}
 
-	public Set<UUID> getAwake() {
+	/**
+	 * Returns the handles of awake entities
+	 * @return Set\<Long\> Entity handles
+	 */
+	public Set<Long> getAwake() {
 		return entityLocations.keySet();
 	}
 	
-	public Set<UUID> getAsleep() {
+	/**
+	 * Returns the handles of sleeping entities
+	 * @return Set\<Long\> Entity handles
+	 */
+	public Set<Long> getAsleep() {
 		return sleepingEntities.keySet();
 	}
 	
@@ -454,12 +469,25 @@ public class SpatialEntityMap {
 	}
 
 
+	/**
+	 * Copies the map, cloning every entity within
+	 * @return SpatialEntityMap The copy
+	 * @deprecated Clones every entity, read a WorldSnapshot published by Game.setWorldSnapshots instead
+	 */
+	@Deprecated
 	public SpatialEntityMap falseClone() {
 		SpatialEntityMap sem = new SpatialEntityMap(this.cellSize, this.grid, this.entityLocations);
 
 		return sem;
 	}
 
+	/**
+	 * Copies the cells of the map inside of an area, cloning every entity within
+	 * @param area Polygon Area to copy
+	 * @return SpatialEntityMap The copy
+	 * @deprecated Clones every entity in the area, read a WorldSnapshot published by Game.setWorldSnapshots instead
+	 */
+	@Deprecated
 	public SpatialEntityMap falseClone(Polygon area) {
 		Set<Vector2f> validHashes = gridifyPolygon(area).getHashes();
 		SpatialEntityMap sem = new SpatialEntityMap(this.cellSize, this.grid, this.entityLocations, validHashes);
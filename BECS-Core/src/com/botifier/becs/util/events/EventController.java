@@ -1,31 +1,148 @@
 package com.botifier.becs.util.events;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * EventController
- * 
+ *
  * Holds method information
- * 
+ * The handler is bound to its listener once through LambdaMetafactory, invoking it is a direct call instead of Method.invoke.
+ * Handlers LambdaMetafactory can't reach fall back to a method handle, or to reflection if their package isn't open to BECS.
+ *
  * @author Botifier
  */
 public class EventController {
+	/**
+	 * Lambda factories of each handler method, grouped by the class declaring them
+	 * Each factory takes the listener instance and returns its bound EventInvoker
+	 */
+	private static final ClassValue<Map<Method, MethodHandle>> factories = new ClassValue<>() {
+		@Override
+		protected Map<Method, MethodHandle> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * Type of EventInvoker.invoke
+	 */
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Event.class);
+
 	private final EventListener listener;
 	private final Method method;
+	private final EventInvoker invoker;
 	private final int priority;
 	private final String target;
 
 	public EventController(EventListener listener, Method method, int priority, String target) {
+		this(listener, method, bind(listener, method), priority, target);
+	}
+
+	/**
+	 * EventController constructor with an already bound handler
+	 * @param listener EventListener Listener the handler belongs to
+	 * @param method Method The handler method; may be null
+	 * @param invoker EventInvoker Calls the handler on the listener
+	 * @param priority int Priority of the handler
+	 * @param target String Origin the handler listens for
+	 */
+	public EventController(EventListener listener, Method method, EventInvoker invoker, int priority, String target) {
+		if (invoker == null)
+			throw new NullPointerException("invoker cannot be null");
 		this.listener = listener;
 		this.method = method;
+		this.invoker = invoker;
 		this.priority = priority;
 		this.target = target;
 	}
 
+	/**
+	 * Passes an event to the handler
+	 * Exceptions thrown by the handler are wrapped in an InvocationTargetException, like Method.invoke does
+	 * @param event Event To handle
+	 */
 	public void invoke(Event event) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-		this.method.invoke(listener, event);
+		try {
+			invoker.invoke(event);
+		} catch (IllegalAccessException | InvocationTargetException e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	/**
+	 * Binds a handler method to a listener
+	 * The lambda class of a method is spun once and reused for every listener registering it
+	 * @param listener EventListener Listener to call the method on
+	 * @param method Method Handler taking a single event
+	 * @return EventInvoker The bound handler
+	 */
+	static EventInvoker bind(EventListener listener, Method method) {
+		Class<?>[] params = method.getParameterTypes();
+		if (params.length == 1 && Event.class.isAssignableFrom(params[0])) {
+			Map<Method, MethodHandle> declared = factories.get(method.getDeclaringClass());
+			MethodHandle factory = declared.get(method);
+			try {
+				if (factory == null) {
+					factory = spin(method);
+					declared.putIfAbsent(method, factory);
+				}
+				return (EventInvoker) factory.invoke(listener);
+			} catch (Throwable t) {
+				//Modules that don't open the listener's package, reflection is tried below
+			}
+		}
+		//Fails the same way it did before handlers were bound
+		method.setAccessible(true);
+		return event -> method.invoke(listener, event);
+	}
+
+	/**
+	 * Creates the factory of a handler's EventInvoker
+	 * @param method Method Handler taking a single event
+	 * @return MethodHandle Takes the listener and returns its bound EventInvoker
+	 * @throws Throwable If the method can't be looked up
+	 */
+	private static MethodHandle spin(Method method) throws Throwable {
+		Class<?> owner = method.getDeclaringClass();
+		MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+		MethodHandle handle = lookup.unreflect(method);
+		try {
+			CallSite site = LambdaMetafactory.metafactory(lookup,
+					"invoke",
+					MethodType.methodType(EventInvoker.class, owner),
+					INVOKER_TYPE,
+					handle,
+					MethodType.methodType(void.class, method.getParameterTypes()[0]));
+			return site.getTarget().asType(MethodType.methodType(EventInvoker.class, EventListener.class));
+		} catch (Throwable t) {
+			//The lookup lacks the access LambdaMetafactory needs, call through the handle instead
+			MethodHandle typed = handle.asType(MethodType.methodType(void.class, EventListener.class, Event.class));
+			MethodHandle bound = MethodHandles.lookup().findStatic(EventController.class, "viaHandle",
+					MethodType.methodType(EventInvoker.class, MethodHandle.class, EventListener.class));
+			return MethodHandles.insertArguments(bound, 0, typed);
+		}
+	}
+
+	/**
+	 * Creates an EventInvoker that calls a method handle
+	 * @param handle MethodHandle Handler taking the listener and the event
+	 * @param listener EventListener Listener to call the handler on
+	 * @return EventInvoker The bound handler
+	 */
+	@SuppressWarnings("unused")
+	private static EventInvoker viaHandle(MethodHandle handle, EventListener listener) {
+		return event -> handle.invokeExact(listener, event);
 	}
 
 	public EventListener getListener() {
@@ -35,13 +152,13 @@ public class EventController {
 	public int getPriority() {
 		return this.priority;
 	}
-	
+
 	public String getTarget() {
 		return this.target;
 	}
-	
+
 	@Override
 	public String toString() {
-		return String.format("Listener: %s\nMethod: %s\nPriority: %s\nTarget: %s", listener.getUUID(), Arrays.toString(method.getGenericParameterTypes()), priority, target);
+		return String.format("Listener: %s\nMethod: %s\nPriority: %s\nTarget: %s", listener.getUUID(), method != null ? Arrays.toString(method.getGenericParameterTypes()) : invoker, priority, target);
 	}
 }
@@ -0,0 +1,29 @@
+package com.botifier.becs.util.events;
+
+import java.util.function.BiConsumer;
+
+/**
+ * EventHandlerTable
+ *
+ * Wires the event handlers of one listener class with plain calls
+ * EventHandlerProcessor generates one next to every listener class it can reach, named after the listener's binary name
+ * followed by SUFFIX. EventManager uses it instead of scanning the listener's methods when it is present.
+ *
+ * @author Botifier
+ *
+ * @param \<L\> Type of the listener
+ */
+public interface EventHandlerTable<L extends EventListener> {
+
+	/**
+	 * Appended to the binary name of a listener class to get the name of its table
+	 */
+	String SUFFIX = "_EventHandlers";
+
+	/**
+	 * Creates the controllers of a listener's handlers
+	 * @param listener L Listener to bind the handlers to
+	 * @param sink BiConsumer\<Class\<? extends Event\>, EventController\> Receives the event type and controller of each handler
+	 */
+	void bind(L listener, BiConsumer<Class<? extends Event>, EventController> sink);
+}
@@ -0,0 +1,20 @@
+package com.botifier.becs.util.events;
+
+/**
+ * EventInvoker
+ *
+ * Calls a single event handler of a listener instance
+ * EventController binds one per handler when a listener is registered, so dispatching an event is a direct call.
+ *
+ * @author Botifier
+ */
+@FunctionalInterface
+public interface EventInvoker {
+
+	/**
+	 * Passes an event to the handler
+	 * @param event Event To handle
+	 * @throws Throwable Anything the handler throws
+	 */
+	void invoke(Event event) throws Throwable;
+}
@@ -6,10 +6,12 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -20,46 +22,56 @@ public class EventManager {
 	ConcurrentHashMap<EventController, Class<? extends Event>> controllerClasses = new ConcurrentHashMap<>();
 	ConcurrentHashMap<UUID, List<EventListener>> listenerOwners = new ConcurrentHashMap<>();
 
+	/**
+	 * Generated handler tables of each listener class, empty if the class has none
+	 */
+	private static final ClassValue<Optional<EventHandlerTable<EventListener>>> tables = new ClassValue<>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Optional<EventHandlerTable<EventListener>> computeValue(Class<?> type) {
+			try {
+				Class<?> table = Class.forName(type.getName() + EventHandlerTable.SUFFIX, true, type.getClassLoader());
+				if (EventHandlerTable.class.isAssignableFrom(table))
+					return Optional.of((EventHandlerTable<EventListener>) table.getDeclaredConstructor().newInstance());
+			} catch (ReflectiveOperationException | LinkageError e) {
+				//No table was generated, handlers are found through reflection
+			}
+			return Optional.empty();
+		}
+	};
+
 	public boolean registerListener(EventListener listener)  {
 		Class<?> cls = listener.getClass();
-		Method[] methods = cls.getDeclaredMethods();
 		
 		Map<Class<?>, List<EventController>> controllers = new ConcurrentHashMap<>();
 		Map<EventController, Class<? extends Event>> tempConClasses = new ConcurrentHashMap<>();
 		Map<Class<? extends Event>, List<EventController>> tempListeners = new ConcurrentHashMap<>();
 		
-		for (Method method : methods) {
-			EventHandler annot = method.getDeclaredAnnotation(EventHandler.class);
-			if (annot != null) {
-				Class<? extends Event> eventType = annot.event();
-				int priority = annot.priority();
-				String target = annot.origin();
-
-				method.setAccessible(true);
+		BiConsumer<Class<? extends Event>, EventController> collect = (eventType, controller) -> {
+			tempListeners.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<EventController>()).add(controller);
 
-				EventController controller = new EventController(listener, method, priority, target);
-
-				tempListeners.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<EventController>()).add(controller);
-
-				List<EventController> listeners = tempListeners.get(eventType);
-				listeners.sort(Comparator.comparingInt(EventController::getPriority).reversed());
-				
-				tempConClasses.put(controller, eventType);
-				controllers.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<EventController>()).add(controller);
+			List<EventController> listeners = tempListeners.get(eventType);
+			listeners.sort(Comparator.comparingInt(EventController::getPriority).reversed());
+			
+			tempConClasses.put(controller, eventType);
+			controllers.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<EventController>()).add(controller);
+		};
+		
+		//Prefers the table generated by EventHandlerProcessor over scanning methods
+		Optional<EventHandlerTable<EventListener>> table = tables.get(cls);
+		if (table.isPresent()) {
+			table.get().bind(listener, collect);
+		} else {
+			for (Method method : cls.getDeclaredMethods()) {
+				EventHandler annot = method.getDeclaredAnnotation(EventHandler.class);
+				if (annot != null)
+					collect.accept(annot.event(), new EventController(listener, method, annot.priority(), annot.origin()));
 			}
 		}
 
 		if (!controllers.isEmpty()) {
 			//Updates the event controllers
-			try {
-				Method setControllers = cls.getSuperclass().getDeclaredMethod("setEventControllers", Map.class);
-				setControllers.setAccessible(true);
-				setControllers.invoke(listener, controllers);
-				setControllers.setAccessible(false);
-			} catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-				e.printStackTrace();
-				return false;
-			}
+			listener.setEventControllers(controllers);
 			
 			controllerClasses.putAll(tempConClasses);
 			for (Class<? extends Event> key : tempListeners.keySet()) {
@@ -166,6 +178,25 @@ public class EventManager {
 		allOf.join();
 	}
 
+	/**
+	 * Checks whether or not any controller would handle an event from the specified origin
+	 * @param clazz Class\<? extends Event\> Event type
+	 * @param origin String Origin of the event
+	 * @return boolean Whether or not the event would be handled
+	 */
+	public boolean isHandled(Class<? extends Event> clazz, String origin) {
+		List<EventController> ecs = listeners.get(clazz);
+		if (ecs == null) {
+			return false;
+		}
+		for (EventController ec : ecs) {
+			if (ec.getTarget() == null || ec.getTarget().isBlank() || ec.getTarget().equalsIgnoreCase(origin)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	public boolean checkHandled(Class<? extends Event> clazz, EventListener listener) {
 		List<EventController> li = listeners.get(clazz);
 		if (li == null) {
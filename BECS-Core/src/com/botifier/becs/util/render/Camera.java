@@ -10,6 +10,8 @@ import org.joml.Vector2f;
 import org.joml.Vector3f;
 import com.botifier.becs.Game;
 import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponent;
+import com.botifier.becs.entity.EntityComponentManager;
 import com.botifier.becs.events.listeners.CameraListener;
 import com.botifier.becs.graphics.FBO;
 import com.botifier.becs.graphics.Renderer;
@@ -57,6 +59,11 @@ public class Camera {
 	 */
 	private CameraListener cl = null;
 	
+	/**
+	 * Change tick of the followed entity's position the camera last moved to
+	 */
+	private long followTick = -1;
+	
 	/**
 	 * Temporary storage for the original center of the camera
 	 */
@@ -105,6 +112,7 @@ public class Camera {
 	 * @param r Renderer To use
 	 */
 	public void beginDrawing(Renderer r) {
+		followTarget();
 		this.oldCenter = r.getCameraCenter();
 		r.setCameraCenter(getCenter());
 		this.cameraBuffer.bind();
@@ -183,10 +191,24 @@ public class Camera {
 			this.cl = null;
 		}
 		this.target = e;
+		this.followTick = -1;
 		this.cl = new CameraListener(this, e.getUUID());
 		this.game.getEventManager().registerListener(cl);
 	}
 	
+	/**
+	 * Moves the camera to the followed entity if its position changed since the last time
+	 */
+	private void followTarget() {
+		if (this.cl == null || this.target == null)
+			return;
+		EntityComponent<Vector2f> p = this.target.getComponent(EntityComponentManager.POSITION);
+		if (p == null || !p.changedSince(followTick))
+			return;
+		followTick = p.getChangedTick();
+		setCenter(p.get());
+	}
+	
 	/**
 	 * Sets the current SpatialEntityMap
 	 * @param sem SpatialEntityMap To use
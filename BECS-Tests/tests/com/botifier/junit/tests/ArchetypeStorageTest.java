@@ -0,0 +1,109 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.Archetype;
+import com.botifier.becs.entity.ArchetypeChunk;
+import com.botifier.becs.entity.ArchetypeStorage;
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.World;
+
+class ArchetypeStorageTest {
+
+	/**
+	 * Runs a test in its own world with archetype storage enabled
+	 * @param test Runnable Test to run
+	 */
+	private static void withStorage(Runnable test) {
+		new World().run(() -> {
+			EntityComponentManager.setArchetypeStorage(true);
+			try {
+				test.run();
+			} finally {
+				EntityComponentManager.setArchetypeStorage(false);
+			}
+		});
+	}
+
+	@Test
+	void testEntitiesMoveBetweenArchetypes() {
+		withStorage(() -> {
+			Entity e = new Entity("Mover");
+			e.addComponent(EntityComponentManager.COLOR, Color.RED);
+			Archetype colored = e.getArchetype();
+			assertTrue(colored.hasComponent(EntityComponentManager.COLOR));
+			assertFalse(colored.hasComponent(EntityComponentManager.SPEED));
+
+			e.addComponent(EntityComponentManager.SPEED, 1f);
+			Archetype fast = e.getArchetype();
+			assertNotSame(colored, fast);
+			assertEquals(0, colored.size());
+			ArchetypeChunk chunk = fast.getChunks().get(0);
+			assertSame(e, chunk.getEntity(0));
+			assertSame(e.getComponent(EntityComponentManager.SPEED), chunk.get(EntityComponentManager.SPEED, 0));
+
+			//Replacing a component refreshes its column without moving the entity
+			e.addComponent(EntityComponentManager.COLOR, Color.BLUE);
+			assertSame(fast, e.getArchetype());
+			assertEquals(Color.BLUE, chunk.get(EntityComponentManager.COLOR, 0).get());
+
+			//Removing follows the edge back
+			e.removeComponent(EntityComponentManager.SPEED);
+			assertSame(colored, e.getArchetype());
+			assertEquals(1, colored.size());
+			assertTrue(fast.getChunks().isEmpty());
+			e.destroy();
+			assertNull(e.getArchetype());
+		});
+	}
+
+	@Test
+	void testRemovalMovesTheLastRowBack() {
+		withStorage(() -> {
+			int capacity = ArchetypeStorage.DEFAULT_CHUNK_CAPACITY;
+			Entity[] entities = new Entity[capacity + 2];
+			for (int i = 0; i < entities.length; i++) {
+				entities[i] = new Entity("Row");
+				entities[i].addComponent(EntityComponentManager.COLOR, new Color(i));
+			}
+			Archetype a = entities[0].getArchetype();
+			List<ArchetypeChunk> chunks = a.getChunks();
+			assertEquals(2, chunks.size());
+			assertEquals(capacity, chunks.get(0).size());
+			assertEquals(2, chunks.get(1).size());
+
+			//The last entity of the archetype fills the gap
+			Entity last = entities[entities.length - 1];
+			entities[5].destroy();
+			ArchetypeChunk first = a.getChunks().get(0);
+			assertSame(last, first.getEntity(5));
+			assertSame(last.getComponent(EntityComponentManager.COLOR), first.get(EntityComponentManager.COLOR, 5));
+			assertEquals(1, a.getChunks().get(1).size());
+
+			//Emptied chunks are dropped, every chunk but the last stays full
+			entities[6].destroy();
+			assertEquals(1, a.getChunks().size());
+			assertEquals(capacity, a.getChunks().get(0).size());
+			assertEquals(capacity, EntityComponentManager.getArchetypeStorage().count(EntityComponentManager.COLOR));
+
+			int[] seen = new int[1];
+			EntityComponentManager.getArchetypeStorage().forEachChunk(chunk -> {
+				for (int row = 0; row < chunk.size(); row++) {
+					assertFalse(chunk.getEntity(row).isDead());
+					seen[0]++;
+				}
+			}, EntityComponentManager.COLOR);
+			assertEquals(capacity, seen[0]);
+			for (Entity e : entities) {
+				e.destroy();
+			}
+			assertEquals(0, a.size());
+		});
+	}
+}
@@ -0,0 +1,50 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.ComponentMask;
+
+class ComponentMaskTest {
+
+	@Test
+	void testContainsAll() {
+		ComponentMask required = ComponentMask.EMPTY.with(1).with(3);
+		ComponentMask partial = ComponentMask.EMPTY.with(1);
+		ComponentMask full = partial.with(3).with(5);
+
+		//Having only one of the required components is not enough
+		assertFalse(partial.containsAll(required));
+		assertTrue(partial.intersects(required));
+		assertTrue(full.containsAll(required));
+		assertTrue(full.containsAll(ComponentMask.EMPTY));
+		assertFalse(ComponentMask.EMPTY.intersects(full));
+	}
+
+	@Test
+	void testWithAndWithout() {
+		ComponentMask mask = ComponentMask.EMPTY.with(1).with(3);
+		ComponentMask removed = mask.without(3);
+
+		assertTrue(removed.get(1));
+		assertFalse(removed.get(3));
+		//Masks are immutable
+		assertTrue(mask.get(3));
+		assertEquals(ComponentMask.EMPTY.with(1), removed);
+		assertEquals(ComponentMask.EMPTY, removed.without(1));
+	}
+
+	@Test
+	void testHighIds() {
+		//Ids past the first word still match
+		ComponentMask mask = ComponentMask.EMPTY.with(2).with(130);
+
+		assertTrue(mask.get(130));
+		assertTrue(mask.containsAll(ComponentMask.EMPTY.with(130)));
+		assertFalse(ComponentMask.EMPTY.with(2).containsAll(mask));
+		assertArrayEquals(new int[] {2, 130}, mask.toIds());
+		assertEquals(131, mask.length());
+		assertEquals(ComponentMask.EMPTY.with(2), mask.without(130));
+	}
+}
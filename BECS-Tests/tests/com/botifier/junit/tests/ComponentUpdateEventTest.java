@@ -0,0 +1,56 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.ComponentType;
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.World;
+import com.botifier.becs.events.EntityComponentUpdatedEvent;
+import com.botifier.becs.util.annotations.EventHandler;
+import com.botifier.becs.util.events.EventListener;
+import com.botifier.becs.util.events.EventManager;
+
+class ComponentUpdateEventTest {
+
+	static final ComponentType<String> LABEL = EntityComponentManager.createComponent("UpdateTestLabel", String.class);
+
+	public static class UpdateListener extends EventListener {
+		final List<Object> values = new ArrayList<>();
+
+		@EventHandler(event = EntityComponentUpdatedEvent.class)
+		public void onUpdated(EntityComponentUpdatedEvent<?> e) {
+			values.add(e.getNewValue());
+		}
+	}
+
+	@Test
+	void testUpdatesFireOnTheOwnersWorld() {
+		LABEL.setUpdateEvents(true);
+		World w = new World();
+		EventManager em = new EventManager();
+		UpdateListener l = new UpdateListener();
+		em.registerListener(l);
+		w.setEventManager(em);
+
+		Entity[] holder = new Entity[1];
+		w.run(() -> holder[0] = new Entity("Labeled"));
+		Entity e = holder[0];
+		e.addComponent(LABEL, "First");
+		//Fires on the owner's world without a game, no matter which world is current
+		e.getComponent(LABEL).set("Second");
+		assertEquals(List.of("Second"), l.values);
+
+		//Worlds without an event manager skip the event
+		w.setEventManager(null);
+		e.getComponent(LABEL).set("Third");
+		assertEquals(List.of("Second"), l.values);
+		LABEL.setUpdateEvents(false);
+		e.destroy();
+	}
+}
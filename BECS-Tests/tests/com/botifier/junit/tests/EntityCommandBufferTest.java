@@ -0,0 +1,102 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityCommandBuffer;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.Query;
+import com.botifier.becs.entity.World;
+import com.botifier.becs.events.EntityComponentAddedEvent;
+import com.botifier.becs.util.annotations.EventHandler;
+import com.botifier.becs.util.events.EventListener;
+import com.botifier.becs.util.events.EventManager;
+
+class EntityCommandBufferTest {
+
+	public static class AddedListener extends EventListener {
+		final List<Entity> added = new ArrayList<>();
+
+		@EventHandler(event = EntityComponentAddedEvent.class)
+		public void onAdded(EntityComponentAddedEvent<?> e) {
+			//Indexes are already updated when the events fire
+			assertTrue(e.getTarget().hasComponent(EntityComponentManager.COLOR));
+			added.add(e.getTarget());
+		}
+	}
+
+	@Test
+	void testCommandsApplyInOrder() {
+		Entity e = new Entity("Ordered");
+		Entity.addEntity(e);
+		EntityCommandBuffer buffer = new EntityCommandBuffer();
+		buffer.addComponent(e, EntityComponentManager.SPEED, 1f);
+		buffer.addComponent(e, EntityComponentManager.SPEED, 2f);
+		buffer.addComponent(e, EntityComponentManager.COLOR, Color.RED);
+		buffer.removeComponent(e, EntityComponentManager.COLOR);
+		assertFalse(buffer.isEmpty());
+
+		//Nothing happens until playback
+		assertFalse(e.hasComponent(EntityComponentManager.SPEED));
+		buffer.playback();
+		assertTrue(buffer.isEmpty());
+		assertEquals(Float.valueOf(2f), e.getComponent(EntityComponentManager.SPEED).get());
+		assertFalse(e.hasComponent(EntityComponentManager.COLOR));
+		e.destroy();
+	}
+
+	@Test
+	void testPlaybackUpdatesQueriesAndFiresOnTheEntitysWorld() {
+		World w = new World();
+		EventManager em = new EventManager();
+		AddedListener l = new AddedListener();
+		em.registerListener(l);
+		w.setEventManager(em);
+
+		w.run(() -> {
+			Query q = EntityComponentManager.createQuery(EntityComponentManager.COLOR);
+			Entity[] entities = new Entity[3];
+			EntityCommandBuffer buffer = new EntityCommandBuffer();
+			for (int i = 0; i < entities.length; i++) {
+				entities[i] = new Entity("Buffered");
+				Entity.addEntity(entities[i]);
+				buffer.addComponent(entities[i], EntityComponentManager.COLOR, Color.GREEN);
+			}
+			assertEquals(0, q.size());
+			buffer.playback();
+
+			assertEquals(entities.length, q.size());
+			assertEquals(List.of(entities), l.added);
+			for (Entity e : entities) {
+				assertTrue(EntityComponentManager.getEntitiesWithComponent(EntityComponentManager.COLOR).contains(e));
+				e.destroy();
+			}
+			EntityComponentManager.removeQuery(q);
+		});
+	}
+
+	@Test
+	void testDestroyedEntitiesAreSkipped() {
+		Query q = EntityComponentManager.createQuery(EntityComponentManager.COLOR);
+		Entity e = new Entity("Doomed");
+		Entity.addEntity(e);
+		EntityCommandBuffer buffer = new EntityCommandBuffer();
+		buffer.addComponent(e, EntityComponentManager.SPEED, 1f);
+		buffer.destroy(e);
+		buffer.addComponent(e, EntityComponentManager.COLOR, Color.BLUE);
+		buffer.removeComponent(e, EntityComponentManager.SPEED);
+		buffer.playback();
+
+		assertTrue(e.isDead());
+		assertFalse(e.hasComponent(EntityComponentManager.COLOR));
+		assertFalse(q.contains(e));
+		assertFalse(EntityComponentManager.getEntitiesWithComponent(EntityComponentManager.COLOR).contains(e));
+		EntityComponentManager.removeQuery(q);
+	}
+}
@@ -0,0 +1,79 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.joml.Vector2f;
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.EntityPool;
+import com.botifier.becs.entity.World;
+
+class EntityPoolTest {
+
+	@Test
+	void testReleaseAndObtain() {
+		World w = new World();
+		w.run(() -> {
+			EntityPool bullets = new EntityPool("Bullet", e -> e.updateOrAddComponent(EntityComponentManager.VELOCITY, new Vector2f(0, 10)));
+			Entity bullet = bullets.obtain();
+			long handle = bullet.getHandle();
+			bullet.addComponent(EntityComponentManager.SPEED, 2f);
+
+			assertTrue(bullets.release(bullet));
+			assertFalse(bullets.release(bullet));
+			assertFalse(new EntityPool("Other", e -> {}).release(bullet));
+			assertTrue(bullet.isDead());
+			assertEquals(1, bullets.available());
+			//Handles held elsewhere go stale
+			assertFalse(w.getRegistry().isAlive(handle));
+			//Components the initializer doesn't give are dropped
+			assertFalse(bullet.hasComponent(EntityComponentManager.SPEED));
+
+			bullet.getComponent(EntityComponentManager.VELOCITY).set(new Vector2f(5, 5));
+			Entity reused = bullets.obtain();
+			assertSame(bullet, reused);
+			assertFalse(reused.isDead());
+			assertEquals(0, bullets.available());
+			assertNotEquals(handle, reused.getHandle());
+			assertTrue(w.getRegistry().isAlive(reused.getHandle()));
+			assertEquals(new Vector2f(0, 10), reused.getComponent(EntityComponentManager.VELOCITY).get());
+			assertTrue(EntityComponentManager.getEntitiesWithComponent(EntityComponentManager.VELOCITY).contains(reused));
+
+			bullets.release(reused);
+			bullets.clear();
+			assertEquals(0, bullets.available());
+		});
+	}
+
+	@Test
+	void testReleaseClearsParentLinks() {
+		World w = new World();
+		w.run(() -> {
+			EntityPool parts = new EntityPool("Part", e -> e.updateOrAddComponent(EntityComponentManager.POSITION, new Vector2f()));
+			Entity ship = new Entity("Ship");
+			ship.addComponent(EntityComponentManager.POSITION, new Vector2f(10, 0));
+			Entity.addEntity(ship);
+			Entity turret = parts.obtain();
+			turret.setParent(ship, new Vector2f(5, 0));
+			Entity barrel = parts.obtain();
+			barrel.setParent(turret, new Vector2f(0, 2));
+
+			parts.release(turret);
+			//Neither side keeps a link to the released entity
+			assertNull(turret.getParent());
+			assertTrue(turret.getChildren().isEmpty());
+			assertFalse(turret.hasComponent(EntityComponentManager.LOCAL_POSITION));
+			assertTrue(ship.getChildren().isEmpty());
+			assertNull(barrel.getParent());
+			assertEquals(new Vector2f(15, 2), barrel.getComponent(EntityComponentManager.POSITION).get());
+			assertFalse(w.getParents().contains(ship));
+
+			//Reused entities start unattached
+			assertNull(parts.obtain().getParent());
+			barrel.destroy();
+			ship.destroy();
+		});
+	}
+}
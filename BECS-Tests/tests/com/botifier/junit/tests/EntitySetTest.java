@@ -0,0 +1,67 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntitySet;
+import com.botifier.becs.entity.World;
+
+class EntitySetTest {
+
+	/**
+	 * Creates an entity with a handle, members are indexed by it
+	 * @param name String Name of the entity
+	 * @return Entity The added entity
+	 */
+	private static Entity added(String name) {
+		Entity e = new Entity(name);
+		Entity.addEntity(e);
+		return e;
+	}
+
+	@Test
+	void testAddRemoveContains() {
+		World w = new World();
+		w.run(() -> {
+			EntitySet set = new EntitySet();
+			Entity[] entities = new Entity[500];
+			for (int i = 0; i < entities.length; i++) {
+				entities[i] = added("Member");
+			}
+			assertTrue(set.addAll(Arrays.asList(entities)));
+			assertFalse(set.add(entities[0]));
+			assertEquals(entities.length, set.size());
+
+			//Removing moves the last member into the gap
+			assertTrue(set.remove(entities[0]));
+			assertFalse(set.remove(entities[0]));
+			assertFalse(set.contains(entities[0]));
+			assertTrue(set.contains(entities[entities.length - 1]));
+			assertEquals(entities.length - 1, set.size());
+			assertFalse(set.contains(added("Stranger")));
+		});
+	}
+
+	@Test
+	void testIterateWhileRemoving() {
+		World w = new World();
+		w.run(() -> {
+			EntitySet set = new EntitySet();
+			for (int i = 0; i < 100; i++) {
+				set.add(added("Member"));
+			}
+			int seen = 0;
+			for (Entity e : set) {
+				set.remove(e);
+				seen++;
+			}
+			//Iterators walk a copy, so every member is seen once
+			assertEquals(100, seen);
+			assertTrue(set.isEmpty());
+		});
+	}
+}
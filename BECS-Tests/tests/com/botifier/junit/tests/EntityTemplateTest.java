@@ -0,0 +1,89 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joml.Vector2f;
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.EntityTemplate;
+import com.botifier.becs.entity.Query;
+import com.botifier.becs.entity.World;
+import com.botifier.becs.events.EntitiesSpawnedEvent;
+import com.botifier.becs.util.annotations.EventHandler;
+import com.botifier.becs.util.events.EventListener;
+import com.botifier.becs.util.events.EventManager;
+import com.botifier.becs.util.shapes.RotatableRectangle;
+
+class EntityTemplateTest {
+
+	public static class SpawnListener extends EventListener {
+		final List<EntitiesSpawnedEvent> events = new ArrayList<>();
+
+		@EventHandler(event = EntitiesSpawnedEvent.class)
+		public void onSpawned(EntitiesSpawnedEvent e) {
+			events.add(e);
+		}
+	}
+
+	@Test
+	void testSpawnBatch() {
+		World w = new World();
+		w.run(() -> {
+			EventManager em = new EventManager();
+			SpawnListener l = new SpawnListener();
+			em.registerListener(l);
+			w.setEventManager(em);
+			Query tiles = EntityComponentManager.createQuery(EntityComponentManager.POSITION, EntityComponentManager.COLOR);
+
+			EntityTemplate template = new EntityTemplate("Tile")
+					.with(EntityComponentManager.COLOR, Color.GREEN)
+					.with(EntityComponentManager.POSITION, new Vector2f(1, 1))
+					.withSupplier(EntityComponentManager.COLLISION_SHAPE, () -> new RotatableRectangle(0, 0, 10, 10));
+			Entity[] spawned = EntityComponentManager.spawnBatch(template, 3,
+					(e, i) -> e.getComponent(EntityComponentManager.POSITION).set(new Vector2f(i * 20, 0)));
+
+			assertEquals(3, spawned.length);
+			assertEquals(3, tiles.size());
+			//Values without a copier are shared, Vector2f and suppliers give each entity its own
+			assertSame(spawned[0].getComponent(EntityComponentManager.COLOR).get(), spawned[1].getComponent(EntityComponentManager.COLOR).get());
+			assertNotSame(spawned[0].getComponent(EntityComponentManager.COLLISION_SHAPE).get(), spawned[1].getComponent(EntityComponentManager.COLLISION_SHAPE).get());
+			for (int i = 0; i < spawned.length; i++) {
+				Entity e = spawned[i];
+				assertEquals("Tile", e.getName());
+				assertSame(w, e.getWorld());
+				assertEquals(template.getSignature(), e.getSignature());
+				assertEquals(new Vector2f(i * 20, 0), e.getComponent(EntityComponentManager.POSITION).get());
+				//Shapes are moved to the initialized position before entering the spatial map
+				assertEquals(new Vector2f(i * 20, 0), e.getComponent(EntityComponentManager.COLLISION_SHAPE).get().getCenter());
+				assertTrue(w.getSpatialMap().contains(e));
+				assertTrue(EntityComponentManager.getEntitiesWithComponent(EntityComponentManager.COLOR).contains(e));
+			}
+			//One event for the whole batch
+			assertEquals(1, l.events.size());
+			assertArrayEquals(spawned, l.events.get(0).getEntities());
+			assertSame(template, l.events.get(0).getTemplate());
+
+			EntityComponentManager.removeQuery(tiles);
+			for (Entity e : spawned) {
+				e.destroy();
+			}
+		});
+	}
+
+	@Test
+	void testInvalidTemplates() {
+		EntityTemplate template = new EntityTemplate("Invalid").with(EntityComponentManager.SPEED, 1f);
+		assertThrows(IllegalArgumentException.class, () -> template.with(EntityComponentManager.SPEED, 2f));
+		assertThrows(NullPointerException.class, () -> template.with(EntityComponentManager.COLOR, null));
+		assertThrows(NullPointerException.class, () -> template.withSupplier(EntityComponentManager.COLOR, null));
+		assertThrows(IllegalArgumentException.class, () -> EntityComponentManager.spawnBatch(template, -1));
+		assertThrows(NullPointerException.class, () -> EntityComponentManager.spawnBatch(null, 1));
+		assertEquals(0, EntityComponentManager.spawnBatch(template, 0).length);
+	}
+}
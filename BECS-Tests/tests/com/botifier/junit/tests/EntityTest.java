@@ -0,0 +1,142 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.joml.Vector2f;
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.ComponentType;
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponent;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.EntityRegistry;
+import com.botifier.becs.entity.EntityVector2fComponent;
+import com.botifier.becs.entity.World;
+
+class EntityTest {
+
+	@Test
+	void testLookupByUUID() {
+		World w = new World();
+		w.run(() -> {
+			Entity named = new Entity("Named");
+			UUID u = new UUID(42, 42);
+			Entity.addEntity(named, u);
+			assertSame(named, Entity.getEntity(u));
+
+			//UUIDs created after the entity was added are indexed as well
+			Entity late = new Entity("Late");
+			Entity.addEntity(late);
+			assertSame(late, Entity.getEntity(late.getUUID()));
+
+			named.destroy();
+			assertNull(Entity.getEntity(u));
+			assertSame(late, Entity.getEntity(late.getUUID()));
+			late.destroy();
+		});
+		//Other worlds don't see the entity
+		assertNull(Entity.getEntity(new UUID(42, 42)));
+	}
+
+	@Test
+	void testRegisteredWhenAdded() {
+		World w = new World();
+		w.run(() -> {
+			int before = w.getRegistry().size();
+			Entity e = new Entity("Unused");
+			//Constructing doesn't take a registry slot
+			assertEquals(before, w.getRegistry().size());
+			assertEquals(EntityRegistry.NULL_HANDLE, e.getHandle());
+
+			Entity.addEntity(e);
+			assertEquals(before + 1, w.getRegistry().size());
+			assertSame(e, w.getRegistry().get(e.getHandle()));
+			e.destroy();
+		});
+	}
+
+	@Test
+	void testIdentitySurvivesNewHandles() {
+		Entity e = new Entity("Reused");
+		Entity.addEntity(e);
+		Set<Entity> set = new HashSet<>();
+		set.add(e);
+		long first = e.getHandle();
+
+		//Adding a destroyed entity again gives it a new handle
+		e.destroy();
+		Entity.addEntity(e);
+		assertNotEquals(first, e.getHandle());
+		assertTrue(set.contains(e));
+
+		//False clones equal each other but not the real entity
+		Entity clone = e.falseClone();
+		assertNotEquals(e, clone);
+		assertEquals(clone, e.falseClone());
+		assertEquals(clone.hashCode(), e.falseClone().hashCode());
+		assertNotEquals(new Entity("Reused"), e);
+		e.destroy();
+	}
+
+	@Test
+	void testTrackedChangesAreDrained() {
+		ComponentType<Float> tracked = EntityComponentManager.createComponent("TrackedValue", float.class);
+		World w = new World();
+		w.run(() -> {
+			Entity a = new Entity("A");
+			Entity b = new Entity("B");
+			a.addComponent(tracked, 1f);
+			//Nothing is collected until something tracks the type in this world
+			assertTrue(w.drainChanged(tracked).isEmpty());
+			w.trackChanges(tracked);
+			assertFalse(World.getDefault().isChangeTracked(tracked));
+
+			a.getComponent(tracked).set(2f);
+			a.getComponent(tracked).set(3f);
+			b.addComponent(EntityComponentManager.SPEED, 1f);
+			b.getComponent(EntityComponentManager.SPEED).set(2f);
+			assertEquals(List.of(a), w.drainChanged(tracked));
+			assertTrue(w.drainChanged(tracked).isEmpty());
+			assertTrue(w.drainChanged(EntityComponentManager.SPEED).isEmpty());
+
+			//Destroyed entities aren't kept
+			a.getComponent(tracked).set(4f);
+			a.destroy();
+			assertTrue(w.drainChanged(tracked).isEmpty());
+
+			//Attaching counts as a change, copies of a component don't
+			b.addComponent(tracked, 1f);
+			assertEquals(List.of(b), w.drainChanged(tracked));
+			b.getComponent(tracked).clone();
+			b.falseClone();
+			assertTrue(w.drainChanged(tracked).isEmpty());
+			w.untrackChanges(tracked);
+			assertFalse(w.isChangeTracked(tracked));
+			assertTrue(w.drainChanged(tracked).isEmpty());
+			b.destroy();
+		});
+	}
+
+	@Test
+	void testVectorComponentsUseTheVectorFactory() {
+		Entity e = new Entity("Vectors");
+		//Position and the other vector components are created with Vector2fc as their data type
+		e.addComponent(EntityComponentManager.POSITION, new Vector2f(1, 1));
+		e.addComponent(EntityComponentManager.VELOCITY, new Vector2f());
+		EntityComponent<Vector2f> p = e.getComponent(EntityComponentManager.POSITION);
+		assertTrue(p instanceof EntityVector2fComponent);
+		assertTrue(e.getComponent(EntityComponentManager.VELOCITY) instanceof EntityVector2fComponent);
+
+		//Changes within the leeway don't count
+		long tick = p.getChangedTick();
+		EntityComponentManager.advanceChangeTick();
+		p.set(new Vector2f(1.00001f, 1));
+		assertEquals(tick, p.getChangedTick());
+		e.destroy();
+	}
+}
@@ -0,0 +1,133 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.botifier.becs.util.annotations.processor.EventHandlerProcessor;
+import com.botifier.becs.util.events.Event;
+import com.botifier.becs.util.events.EventHandlerTable;
+import com.botifier.becs.util.events.EventListener;
+import com.botifier.becs.util.events.EventManager;
+
+class EventHandlerProcessorTest {
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * Source of a listener with two handlers a table can reach
+	 */
+	private static final String COUNTING_LISTENER = String.join("\n",
+			"package generated;",
+			"import com.botifier.becs.util.annotations.EventHandler;",
+			"import com.botifier.becs.util.events.*;",
+			"public class CountingListener extends EventListener {",
+			"	public static class Ping extends Event {}",
+			"	public int pings;",
+			"	@EventHandler(event = Ping.class)",
+			"	public void onPing(Ping e) { pings++; }",
+			"	@EventHandler(event = Ping.class, origin = \"Other\", priority = 2)",
+			"	void onOther(Event e) { pings += 10; }",
+			"}");
+
+	/**
+	 * Compiles a single source file with EventHandlerProcessor
+	 * @param className String Qualified name of the class
+	 * @param source String Source of the class
+	 * @param diagnostics DiagnosticCollector\<JavaFileObject\> Receives the compiler's messages
+	 * @return boolean Whether or not compiling succeeded
+	 */
+	private boolean compile(String className, String source, DiagnosticCollector<JavaFileObject> diagnostics) throws IOException, URISyntaxException {
+		Path file = dir.resolve("src").resolve(className.replace('.', File.separatorChar) + ".java");
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, source);
+		Path out = Files.createDirectories(dir.resolve("classes"));
+
+		String core = locationOf(EventListener.class);
+		String processor = locationOf(EventHandlerProcessor.class);
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fm = javac.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+			List<String> options = List.of("-classpath", core,
+					"-processorpath", processor + File.pathSeparator + core,
+					"-processor", EventHandlerProcessor.class.getName(),
+					"-s", out.toString(),
+					"-d", out.toString());
+			return javac.getTask(null, fm, diagnostics, options, null, fm.getJavaFileObjects(file.toFile())).call();
+		}
+	}
+
+	/**
+	 * Returns the class path entry a class was loaded from
+	 * @param c Class\<?\> Class to find
+	 * @return String Path of the directory or jar
+	 */
+	private static String locationOf(Class<?> c) throws URISyntaxException {
+		return Path.of(c.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+	}
+
+	@Test
+	void testGeneratedTableDispatches() throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		assertTrue(compile("generated.CountingListener", COUNTING_LISTENER, diagnostics), diagnostics.getDiagnostics().toString());
+		assertTrue(Files.exists(dir.resolve("classes/generated/CountingListener" + EventHandlerTable.SUFFIX + ".java")));
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.resolve("classes").toUri().toURL() }, getClass().getClassLoader())) {
+			Class<?> listenerClass = loader.loadClass("generated.CountingListener");
+			Class<?> table = loader.loadClass("generated.CountingListener" + EventHandlerTable.SUFFIX);
+			assertTrue(EventHandlerTable.class.isAssignableFrom(table));
+
+			EventListener listener = (EventListener) listenerClass.getDeclaredConstructor().newInstance();
+			Event ping = (Event) loader.loadClass("generated.CountingListener$Ping").getDeclaredConstructor().newInstance();
+			EventManager em = new EventManager();
+			assertTrue(em.registerListener(listener));
+			assertEquals(2, em.getControllers(listener).size());
+
+			em.executeEvent(ping);
+			assertEquals(1, listenerClass.getField("pings").getInt(listener));
+			//Origins and parameter types wider than the event are kept
+			em.executeEvent(ping, "Other");
+			assertEquals(12, listenerClass.getField("pings").getInt(listener));
+		}
+	}
+
+	@Test
+	void testUnreachableHandlersGetNoTable() throws Exception {
+		String source = COUNTING_LISTENER.replace("void onOther", "private void onOther");
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		assertTrue(compile("generated.CountingListener", source, diagnostics), diagnostics.getDiagnostics().toString());
+		assertFalse(Files.exists(dir.resolve("classes/generated/CountingListener" + EventHandlerTable.SUFFIX + ".class")));
+		assertTrue(diagnostics.getDiagnostics().stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.NOTE));
+	}
+
+	@Test
+	void testInvalidHandlersFailToCompile() throws Exception {
+		String source = COUNTING_LISTENER.replace("onPing(Ping e)", "onPing(Ping e, int extra)");
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		assertFalse(compile("generated.CountingListener", source, diagnostics));
+		String errors = diagnostics.getDiagnostics().stream()
+				.filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+				.map(d -> d.getMessage(Locale.ROOT))
+				.collect(Collectors.joining("\n"));
+		assertTrue(errors.contains("@EventHandler method must only have one parameter"), errors);
+	}
+}
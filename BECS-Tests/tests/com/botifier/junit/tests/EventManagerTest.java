@@ -0,0 +1,70 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.util.annotations.EventHandler;
+import com.botifier.becs.util.events.Event;
+import com.botifier.becs.util.events.EventController;
+import com.botifier.becs.util.events.EventListener;
+import com.botifier.becs.util.events.EventManager;
+
+class EventManagerTest {
+
+	static class PingEvent extends Event {
+	}
+
+	static class PingListener extends EventListener {
+		final AtomicInteger pings = new AtomicInteger();
+		final AtomicInteger privatePings = new AtomicInteger();
+
+		@EventHandler(event = PingEvent.class)
+		public void onPing(PingEvent e) {
+			pings.incrementAndGet();
+		}
+
+		@EventHandler(event = PingEvent.class, origin = "Private")
+		private void onPrivatePing(PingEvent e) {
+			privatePings.incrementAndGet();
+		}
+	}
+
+	static class FailingListener extends EventListener {
+		@EventHandler(event = PingEvent.class)
+		public void onPing(PingEvent e) {
+			throw new IllegalStateException("Handler failed");
+		}
+	}
+
+	@Test
+	void testBoundHandlers() {
+		EventManager em = new EventManager();
+		PingListener l = new PingListener();
+		assertTrue(em.registerListener(l));
+
+		em.executeEvent(new PingEvent());
+		em.executeEvent(new PingEvent(), "Private");
+		assertEquals(2, l.pings.get());
+		//Private handlers are bound as well
+		assertEquals(1, l.privatePings.get());
+
+		em.unregisterListener(l);
+		em.executeEvent(new PingEvent());
+		assertEquals(2, l.pings.get());
+	}
+
+	@Test
+	void testHandlerExceptionsAreWrapped() {
+		EventManager em = new EventManager();
+		FailingListener l = new FailingListener();
+		em.registerListener(l);
+		EventController ec = em.getControllers(l).get(0);
+
+		InvocationTargetException thrown = assertThrows(InvocationTargetException.class, () -> ec.invoke(new PingEvent()));
+		assertTrue(thrown.getCause() instanceof IllegalStateException);
+	}
+}
@@ -0,0 +1,420 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.joml.Vector2f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.Clock;
+import com.botifier.becs.Game;
+import com.botifier.becs.RenderSnapshot;
+import com.botifier.becs.WorldSnapshot;
+import com.botifier.becs.WorldState;
+import com.botifier.becs.entity.BooleanComponent;
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponent;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.EntitySystem;
+import com.botifier.becs.entity.Query;
+import com.botifier.becs.entity.World;
+import com.botifier.becs.entity.systems.ArrowKeyControlsSystem;
+import com.botifier.becs.entity.systems.PhysicsSystem;
+import com.botifier.becs.entity.systems.TransformSystem;
+import com.botifier.becs.events.listeners.PhysicsListener;
+import com.botifier.becs.graphics.Renderer;
+import com.botifier.becs.util.shapes.RotatableRectangle;
+
+class HeadlessGameTest {
+
+	/**
+	 * Clock that never advances, the update thread of a fixed timestep game then never ticks
+	 */
+	static final Clock FROZEN = () -> 0;
+
+	/**
+	 * Headless game running on its own thread
+	 * Counts its ticks and draws, extra work per tick can be set with onUpdate
+	 */
+	static class TestGame extends Game {
+		final AtomicInteger updates = new AtomicInteger();
+		final AtomicInteger draws = new AtomicInteger();
+		final CountDownLatch initialized = new CountDownLatch(1);
+		volatile Runnable onUpdate = () -> {};
+		Thread thread;
+
+		TestGame(String title, Clock clock) {
+			super(title, 800, 600, clock);
+		}
+
+		@Override
+		public void init() {
+			initialized.countDown();
+		}
+
+		@Override
+		public void update() {
+			updates.incrementAndGet();
+			onUpdate.run();
+		}
+
+		@Override
+		public void draw(Renderer r, WorldState ws, RotatableRectangle camera, float alpha) {
+			draws.incrementAndGet();
+		}
+
+		@Override
+		public void exit() {
+		}
+
+		/**
+		 * Stops the game and waits for it to clean up
+		 */
+		void finish() throws InterruptedException {
+			stop();
+			thread.join(5000);
+			assertFalse(thread.isAlive());
+		}
+	}
+
+	/**
+	 * Games started by the current test
+	 */
+	private final List<TestGame> started = new ArrayList<>();
+
+	/**
+	 * Starts a headless game that only ticks when stepped
+	 * @param title String Name of the game
+	 * @param world World World of the game
+	 * @return TestGame The initialized game
+	 */
+	private TestGame start(String title, World world) throws InterruptedException {
+		TestGame g = new TestGame(title, FROZEN);
+		g.setFixedTimestep(true);
+		g.setWorld(world);
+		return start(g);
+	}
+
+	/**
+	 * Starts a headless game that only ticks when stepped, in the default world
+	 * @param title String Name of the game
+	 * @return TestGame The initialized game
+	 */
+	private TestGame start(String title) throws InterruptedException {
+		return start(title, World.getDefault());
+	}
+
+	/**
+	 * Runs a game on its own thread and waits for init()
+	 * @param g TestGame Game to run
+	 * @return TestGame The initialized game
+	 */
+	private TestGame start(TestGame g) throws InterruptedException {
+		g.thread = new Thread(g::run, g.getTitle());
+		g.thread.start();
+		started.add(g);
+		assertTrue(g.initialized.await(5, TimeUnit.SECONDS));
+		return g;
+	}
+
+	@AfterEach
+	void stopGames() throws InterruptedException {
+		for (TestGame g : started) {
+			g.finish();
+		}
+	}
+
+	@Test
+	void testSystemsRunWithoutWindow() throws InterruptedException {
+		TestGame g = start(new TestGame("Headless", null));
+		Entity e = new Entity("Mover");
+		e.addComponent(EntityComponentManager.POSITION, new Vector2f());
+		Entity.addEntity(e);
+		AtomicInteger applied = new AtomicInteger();
+		CountDownLatch fiveTimes = new CountDownLatch(5);
+		g.addSystem(new EntitySystem(g, "Position") {
+			@Override
+			public void apply(Entity[] entities) {
+				for (Entity en : entities) {
+					en.getComponent(EntityComponentManager.POSITION).update(p -> new Vector2f(p).add(1, 0));
+				}
+				applied.incrementAndGet();
+				fiveTimes.countDown();
+			}
+
+			@Override
+			public void destroy() {
+			}
+		});
+
+		//The update thread ticks on its own
+		assertTrue(fiveTimes.await(5, TimeUnit.SECONDS));
+		g.finish();
+		assertTrue(e.getComponent(EntityComponentManager.POSITION).get().x >= 5);
+		assertTrue(g.isHeadless());
+		assertNull(g.getRenderer());
+		assertEquals(0, g.draws.get());
+		e.destroy();
+	}
+
+	@Test
+	void testStep() throws InterruptedException {
+		TestGame g = new TestGame("Stepped", FROZEN);
+		g.setFixedTimestep(true);
+		assertThrows(IllegalStateException.class, () -> g.step(1));
+		start(g);
+
+		g.setTargetUPS(100);
+		//Pre-simulates a second of game time
+		g.step(100);
+		assertEquals(100, g.updates.get());
+		assertEquals(100, g.getCurrentTick());
+		assertEquals(0.01f, g.getDelta());
+	}
+
+	@Test
+	void testStepWhileRunning() throws InterruptedException {
+		TestGame g = start(new TestGame("Stepped While Running", null));
+		AtomicInteger inTick = new AtomicInteger();
+		AtomicInteger overlaps = new AtomicInteger();
+		g.onUpdate = () -> {
+			if (inTick.incrementAndGet() != 1)
+				overlaps.incrementAndGet();
+			Thread.yield();
+			inTick.decrementAndGet();
+		};
+		g.setTargetUPS(1000);
+
+		for (int i = 0; i < 200; i++) {
+			g.step(1);
+		}
+		g.finish();
+		//Stepping waits for the update thread instead of ticking alongside it
+		assertEquals(0, overlaps.get());
+		assertTrue(g.updates.get() >= 200);
+	}
+
+	@Test
+	void testInputSystemsWithoutInput() throws InterruptedException {
+		TestGame g = start("No Input");
+		PhysicsSystem physics = new PhysicsSystem(g);
+		physics.getConfig().put("stagger_mode", true);
+		g.addSystem(new ArrowKeyControlsSystem(g));
+		g.addSystem(physics);
+
+		Entity e = new Entity("Player");
+		e.addComponent(EntityComponentManager.POSITION, new Vector2f());
+		e.addComponent(EntityComponentManager.VELOCITY, new Vector2f(4, 0));
+		e.addComponent(EntityComponentManager.PHYSICS_ENABLED, new PhysicsListener(e.getUUID()));
+		e.addComponent(EntityComponentManager.COLLISION_SHAPE, new RotatableRectangle(0, 0, 10, 10));
+		e.addTag(EntityComponentManager.ARROW_KEY_CONTROLLED);
+		e.addTag(EntityComponentManager.COLLIDABLE);
+		Entity.addEntity(e);
+
+		//Neither system needs input, stagger mode has no key to wait for
+		assertNull(g.getInput());
+		assertDoesNotThrow(() -> g.step(1));
+		assertEquals(4, e.getComponent(EntityComponentManager.POSITION).get().x);
+
+		physics.getConfig().put("stagger_mode", false);
+		e.destroy();
+	}
+
+	@Test
+	void testPhysicsWithBoxedComponents() throws InterruptedException {
+		//Components of boolean data types are plain EntityComponents while this factory is set
+		EntityComponentManager.setComponentFactory(boolean.class, EntityComponent::new);
+		try {
+			TestGame g = start("Boxed");
+			g.addSystem(new PhysicsSystem(g));
+			Entity e = new Entity("Walker");
+			e.addComponent(EntityComponentManager.POSITION, new Vector2f());
+			e.addComponent(EntityComponentManager.VELOCITY, new Vector2f(4, 0));
+			e.addComponent(EntityComponentManager.PHYSICS_ENABLED, new PhysicsListener(e.getUUID()));
+			e.addComponent(EntityComponentManager.COLLISION_SHAPE, new RotatableRectangle(0, 0, 10, 10));
+			e.addComponent(EntityComponentManager.BOOLEAN_DIRECTION, false);
+			Entity.addEntity(e);
+			assertFalse(e.getComponent(EntityComponentManager.BOOLEAN_DIRECTION) instanceof BooleanComponent);
+
+			assertDoesNotThrow(() -> g.step(1));
+			assertTrue(e.getComponent(EntityComponentManager.BOOLEAN_DIRECTION).get());
+			e.destroy();
+		} finally {
+			EntityComponentManager.setComponentFactory(boolean.class, BooleanComponent::new);
+		}
+	}
+
+	@Test
+	void testRenderSnapshot() throws InterruptedException {
+		TestGame g = start("Snapshots");
+		Entity e = new Entity("Box");
+		e.addComponent(EntityComponentManager.POSITION, new Vector2f());
+		e.addComponent(EntityComponentManager.COLLISION_SHAPE, new RotatableRectangle(0, 0, 10, 10));
+		Entity.addEntity(e);
+		g.setRenderSnapshots(true);
+
+		g.step(1);
+		RenderSnapshot first = g.getRenderSnapshot();
+		e.getComponent(EntityComponentManager.POSITION).set(new Vector2f(4, 2));
+		g.step(1);
+		RenderSnapshot second = g.getRenderSnapshot();
+
+		assertEquals(1, second.size());
+		RenderSnapshot.Entry entry = second.getEntries()[0];
+		assertEquals(4, entry.x);
+		assertEquals(0, entry.prevX);
+		//Unchanged shapes aren't copied again
+		assertSame(first.getEntries()[0].shape, entry.shape);
+		assertNotSame(e.getComponent(EntityComponentManager.COLLISION_SHAPE).get(), entry.shape);
+
+		e.destroy();
+		g.finish();
+		assertNull(g.getRenderSnapshot());
+	}
+
+	@Test
+	void testWorldSnapshot() throws InterruptedException {
+		TestGame g = start("World Snapshots");
+		Entity moving = new Entity("Moving");
+		moving.addComponent(EntityComponentManager.POSITION, new Vector2f());
+		Entity.addEntity(moving);
+		Entity still = new Entity("Still");
+		still.addComponent(EntityComponentManager.POSITION, new Vector2f(3, 3));
+		Entity.addEntity(still);
+		g.setWorldSnapshots(EntityComponentManager.createQuery(EntityComponentManager.POSITION));
+
+		g.step(1);
+		WorldSnapshot first = g.getWorldSnapshot();
+		moving.getComponent(EntityComponentManager.POSITION).set(new Vector2f(4, 2));
+		g.step(1);
+		WorldSnapshot second = g.getWorldSnapshot();
+
+		assertEquals(2, second.size());
+		assertEquals(new Vector2f(0, 0), first.get(moving.getHandle(), EntityComponentManager.POSITION));
+		assertEquals(new Vector2f(4, 2), second.get(moving.getHandle(), EntityComponentManager.POSITION));
+		//Unchanged entities are shared between snapshots
+		assertSame(first.get(still.getHandle()), second.get(still.getHandle()));
+		assertNotSame(still.getComponent(EntityComponentManager.POSITION).get(), second.get(still.getHandle(), EntityComponentManager.POSITION));
+
+		EntityComponentManager.removeQuery(g.getWorldSnapshotQuery());
+		moving.destroy();
+		still.destroy();
+		g.finish();
+		assertNull(g.getWorldSnapshot());
+	}
+
+	@Test
+	void testSeparateWorlds() throws InterruptedException {
+		TestGame[] arenas = new TestGame[2];
+		int[] seen = new int[arenas.length];
+		Game[] current = new Game[arenas.length];
+		for (int a = 0; a < arenas.length; a++) {
+			int arena = a;
+			String name = "Arena " + a;
+			TestGame g = arenas[a] = start(name, new World());
+			g.onUpdate = () -> current[arena] = Game.getCurrent();
+			g.getWorld().run(() -> {
+				for (int i = 0; i <= arena; i++) {
+					Entity e = new Entity(name);
+					e.addComponent(EntityComponentManager.POSITION, new Vector2f());
+					Entity.addEntity(e);
+				}
+			});
+			g.addSystem(new EntitySystem(g, "Position") {
+				@Override
+				public void apply(Entity[] entities) {
+					seen[arena] = entities.length;
+					for (Entity e : entities) {
+						assertEquals(name, e.getName());
+						assertSame(getWorld(), e.getWorld());
+					}
+				}
+
+				@Override
+				public void destroy() {
+				}
+			});
+		}
+		long defaultTick = World.getDefault().getChangeTick();
+		long arenaTick = arenas[0].getWorld().getChangeTick();
+		//Stepping from this thread ticks the game's world, not the one bound here
+		for (TestGame g : arenas) {
+			g.step(1);
+		}
+		assertEquals(defaultTick, World.getDefault().getChangeTick());
+		assertTrue(arenas[0].getWorld().getChangeTick() > arenaTick);
+
+		//Each arena only sees its own entities
+		assertEquals(1, seen[0]);
+		assertEquals(2, seen[1]);
+		assertSame(arenas[0], current[0]);
+		assertSame(arenas[1], current[1]);
+	}
+
+	@Test
+	void testTransformPropagation() throws InterruptedException {
+		TestGame g = start("Hierarchy");
+		Entity ship = new Entity("Ship");
+		ship.addComponent(EntityComponentManager.POSITION, new Vector2f());
+		Entity.addEntity(ship);
+		Entity turret = new Entity("Turret");
+		Entity.addEntity(turret);
+		turret.setParent(ship, new Vector2f(5, 0));
+		Entity barrel = new Entity("Barrel");
+		Entity.addEntity(barrel);
+		barrel.setParent(turret, new Vector2f(0, 2));
+		g.addSystem(new TransformSystem(g));
+
+		assertEquals(new Vector2f(5, 2), barrel.getComponent(EntityComponentManager.POSITION).get());
+		g.step(1);
+		long unchanged = barrel.getComponent(EntityComponentManager.POSITION).getChangedTick();
+		g.step(1);
+		//Attachments of a parent that didn't move aren't touched
+		assertEquals(unchanged, barrel.getComponent(EntityComponentManager.POSITION).getChangedTick());
+
+		ship.getComponent(EntityComponentManager.POSITION).set(new Vector2f(10, 0));
+		g.step(1);
+		assertEquals(new Vector2f(15, 0), turret.getComponent(EntityComponentManager.POSITION).get());
+		assertEquals(new Vector2f(15, 2), barrel.getComponent(EntityComponentManager.POSITION).get());
+
+		assertThrows(IllegalArgumentException.class, () -> ship.setParent(barrel));
+		ship.destroy();
+		assertNull(turret.getParent());
+		assertFalse(turret.hasComponent(EntityComponentManager.LOCAL_POSITION));
+		turret.destroy();
+		barrel.destroy();
+	}
+
+	@Test
+	void testTags() throws InterruptedException {
+		start("Tags");
+		Query solids = EntityComponentManager.createQuery(EntityComponentManager.SOLID);
+		Entity a = new Entity("Wall");
+		a.addTag(EntityComponentManager.SOLID);
+		Entity.addEntity(a);
+		Entity b = new Entity("Wall");
+		b.addComponent("Solid", true);
+		Entity.addEntity(b);
+
+		//Every tagged entity shares the same component
+		assertSame(a.getComponent(EntityComponentManager.SOLID), b.getComponent(EntityComponentManager.SOLID));
+		assertTrue(b.getComponent(EntityComponentManager.SOLID).get());
+		assertEquals(2, solids.size());
+		assertEquals(2, EntityComponentManager.getEntitiesWithComponent(EntityComponentManager.SOLID).size());
+		assertThrows(IllegalArgumentException.class, () -> a.addComponent(EntityComponentManager.COLLIDABLE, false));
+		assertThrows(UnsupportedOperationException.class, () -> a.getComponent(EntityComponentManager.SOLID).set(false));
+
+		b.removeComponent(EntityComponentManager.SOLID);
+		assertFalse(b.hasComponent(EntityComponentManager.SOLID));
+		assertEquals(1, solids.size());
+		EntityComponentManager.removeQuery(solids);
+		a.destroy();
+		b.destroy();
+	}
+}
@@ -0,0 +1,56 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.Game;
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.ParallelEntitySystem;
+
+class ParallelEntitySystemTest {
+
+	@Test
+	void testEveryEntityProcessedOnce() {
+		Entity[] entities = new Entity[1000];
+		for (int i = 0; i < entities.length; i++) {
+			entities[i] = new Entity("Chunked");
+		}
+		ConcurrentHashMap<Entity, AtomicInteger> seen = new ConcurrentHashMap<>();
+		var system = new ParallelEntitySystem<int[]>((Game) null) {
+			@Override
+			protected void process(Entity e, int[] scratch) {
+				scratch[0]++;
+				seen.computeIfAbsent(e, k -> new AtomicInteger()).incrementAndGet();
+			}
+
+			@Override
+			protected int[] createScratch() {
+				return new int[1];
+			}
+
+			@Override
+			public void destroy() {
+			}
+
+			int scratchTotal() {
+				return getScratches().stream().mapToInt(s -> s[0]).sum();
+			}
+		};
+		ForkJoinPool pool = new ForkJoinPool(4);
+		system.setPool(pool);
+		system.setGrainSize(16);
+		system.apply(entities);
+		pool.shutdown();
+
+		assertEquals(entities.length, seen.size());
+		seen.values().forEach(c -> assertEquals(1, c.get()));
+		//Scratch counts of all workers add up to every entity
+		assertEquals(entities.length, system.scratchTotal());
+		assertThrows(IllegalArgumentException.class, () -> system.setGrainSize(0));
+	}
+}
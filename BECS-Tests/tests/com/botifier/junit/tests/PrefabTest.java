@@ -0,0 +1,75 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+
+import org.joml.Vector2f;
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.FloatComponent;
+import com.botifier.becs.entity.Prefab;
+import com.botifier.becs.entity.SharedComponent;
+import com.botifier.becs.entity.TagComponent;
+import com.botifier.becs.util.shapes.RotatableRectangle;
+import com.botifier.becs.util.shapes.Shape;
+
+class PrefabTest {
+
+	@Test
+	void testInstancesShareUntilSet() {
+		Prefab p = new Prefab("Crate").with(EntityComponentManager.COLOR, Color.RED);
+		Entity[] crates = p.instantiate(2, null);
+
+		assertTrue(crates[0].getComponent(EntityComponentManager.COLOR) instanceof SharedComponent);
+		assertSame(crates[0].getComponent(EntityComponentManager.COLOR).get(), crates[1].getComponent(EntityComponentManager.COLOR).get());
+
+		//Setting one instance leaves the other on the shared value
+		crates[0].getComponent(EntityComponentManager.COLOR).set(Color.BLUE);
+		assertEquals(Color.BLUE, crates[0].getComponent(EntityComponentManager.COLOR).get());
+		assertEquals(Color.RED, crates[1].getComponent(EntityComponentManager.COLOR).get());
+		assertFalse(((SharedComponent<Color>) crates[0].getComponent(EntityComponentManager.COLOR)).isShared());
+
+		for (Entity e : crates) {
+			e.destroy();
+		}
+	}
+
+	@Test
+	void testPrimitivesAndTagsKeepTheirComponents() {
+		Prefab p = new Prefab("Runner")
+				.with(EntityComponentManager.SPEED, 2f)
+				.with(EntityComponentManager.SOLID, true);
+		Entity e = p.instantiate();
+
+		assertTrue(e.getComponent(EntityComponentManager.SPEED) instanceof FloatComponent);
+		assertEquals(2f, ((FloatComponent) e.getComponent(EntityComponentManager.SPEED)).getFloat());
+		assertTrue(e.getComponent(EntityComponentManager.SOLID) instanceof TagComponent);
+		assertThrows(UnsupportedOperationException.class, () -> e.getComponent(EntityComponentManager.SOLID).set(false));
+		e.destroy();
+	}
+
+	@Test
+	void testMutableValuesAreCopied() {
+		Shape shape = new RotatableRectangle(0, 0, 4, 4);
+		Prefab p = new Prefab("Box")
+				.with(EntityComponentManager.COLLISION_SHAPE, shape)
+				.with(EntityComponentManager.POSITION, new Vector2f(10, 10));
+		Entity[] boxes = p.instantiate(2, (e, i) -> e.getComponent(EntityComponentManager.POSITION).set(new Vector2f(i * 100, 0)));
+
+		Shape first = boxes[0].getComponent(EntityComponentManager.COLLISION_SHAPE).get();
+		Shape second = boxes[1].getComponent(EntityComponentManager.COLLISION_SHAPE).get();
+		//Each instance's shape is centered on its own position, the prefab's shape isn't moved
+		assertNotSame(first, second);
+		assertNotSame(shape, first);
+		assertEquals(new Vector2f(0, 0), first.getCenter());
+		assertEquals(new Vector2f(100, 0), second.getCenter());
+		assertEquals(new Vector2f(0, 0), shape.getCenter());
+
+		for (Entity e : boxes) {
+			e.destroy();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+import org.joml.Vector2f;
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.Query;
+import com.botifier.becs.entity.World;
+
+class QueryTest {
+
+	@Test
+	void testMembershipFollowsComponents() {
+		World w = new World();
+		w.run(() -> {
+			Query moving = EntityComponentManager.createQuery(EntityComponentManager.POSITION, EntityComponentManager.VELOCITY);
+			Entity[] entities = new Entity[100];
+			for (int i = 0; i < entities.length; i++) {
+				entities[i] = new Entity("Mover");
+				entities[i].addComponent(EntityComponentManager.POSITION, new Vector2f());
+				entities[i].addComponent(EntityComponentManager.VELOCITY, new Vector2f());
+				Entity.addEntity(entities[i]);
+			}
+			assertEquals(100, moving.size());
+
+			//Removing from the middle moves the last member into the gap
+			for (int i = 0; i < entities.length; i += 2) {
+				entities[i].removeComponent(EntityComponentManager.VELOCITY);
+			}
+			assertEquals(50, moving.size());
+			assertEquals(50, Set.of(moving.getEntities()).size());
+			for (int i = 0; i < entities.length; i++) {
+				assertEquals(i % 2 == 1, moving.contains(entities[i]));
+			}
+
+			entities[0].addComponent(EntityComponentManager.VELOCITY, new Vector2f());
+			assertTrue(moving.contains(entities[0]));
+			entities[1].destroy();
+			assertFalse(moving.contains(entities[1]));
+			assertEquals(50, moving.getEntities().length);
+
+			EntityComponentManager.removeQuery(moving);
+			for (int i = 2; i < entities.length; i++) {
+				entities[i].destroy();
+			}
+			entities[0].destroy();
+		});
+	}
+}
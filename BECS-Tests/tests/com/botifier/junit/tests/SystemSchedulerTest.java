@@ -0,0 +1,128 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.Game;
+import com.botifier.becs.entity.ComponentType;
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.EntitySystem;
+import com.botifier.becs.entity.SystemScheduler;
+
+class SystemSchedulerTest {
+
+	/**
+	 * System that records its name and runs a task
+	 */
+	static class TestSystem extends EntitySystem {
+		final String name;
+		final List<String> ran;
+		final Runnable task;
+
+		TestSystem(String name, List<String> ran, Runnable task) {
+			super((Game) null);
+			this.name = name;
+			this.ran = ran;
+			this.task = task;
+		}
+
+		TestSystem reads(ComponentType<?>... types) {
+			declareReads(types);
+			return this;
+		}
+
+		TestSystem writes(ComponentType<?>... types) {
+			declareWrites(types);
+			return this;
+		}
+
+		@Override
+		public void apply(Entity[] entities) {
+			task.run();
+			ran.add(name);
+		}
+
+		@Override
+		public void destroy() {
+		}
+	}
+
+	@Test
+	void testConflicts() {
+		List<String> ran = new CopyOnWriteArrayList<>();
+		TestSystem reader = new TestSystem("Reader", ran, () -> {}).reads(EntityComponentManager.POSITION);
+		TestSystem otherReader = new TestSystem("Other Reader", ran, () -> {}).reads(EntityComponentManager.POSITION);
+		TestSystem writer = new TestSystem("Writer", ran, () -> {}).writes(EntityComponentManager.POSITION);
+		TestSystem speed = new TestSystem("Speed", ran, () -> {}).writes(EntityComponentManager.SPEED);
+		TestSystem undeclared = new TestSystem("Undeclared", ran, () -> {});
+
+		assertFalse(reader.conflictsWith(otherReader));
+		assertTrue(reader.conflictsWith(writer));
+		assertTrue(writer.conflictsWith(reader));
+		assertTrue(writer.conflictsWith(writer));
+		assertFalse(writer.conflictsWith(speed));
+		//Undeclared systems conflict with everything
+		assertTrue(undeclared.isExclusive());
+		assertTrue(undeclared.conflictsWith(reader));
+		assertTrue(speed.conflictsWith(undeclared));
+	}
+
+	@Test
+	void testConflictingSystemsKeepTheirOrder() {
+		List<String> ran = new CopyOnWriteArrayList<>();
+		CountDownLatch speedRan = new CountDownLatch(1);
+		boolean[] overlapped = new boolean[1];
+		TestSystem writer = new TestSystem("Writer", ran, () -> {
+			//Only finishes in time if the unrelated system runs alongside it
+			try {
+				overlapped[0] = speedRan.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}).writes(EntityComponentManager.POSITION);
+		TestSystem reader = new TestSystem("Reader", ran, () -> {}).reads(EntityComponentManager.POSITION);
+		TestSystem speed = new TestSystem("Speed", ran, speedRan::countDown).writes(EntityComponentManager.SPEED);
+		TestSystem failing = new TestSystem("Failing", ran, () -> {
+			throw new IllegalStateException("Failing system");
+		}).writes(EntityComponentManager.ROTATION);
+		TestSystem afterFailing = new TestSystem("After Failing", ran, () -> {}).reads(EntityComponentManager.ROTATION);
+
+		SystemScheduler scheduler = new SystemScheduler(4);
+		IllegalStateException thrown = assertThrows(IllegalStateException.class,
+				() -> scheduler.run(List.of(writer, reader, speed, failing, afterFailing)));
+		scheduler.shutdown();
+		assertEquals("Failing system", thrown.getMessage());
+
+		//Speed released the writer from inside its apply, so they ran at the same time
+		assertTrue(overlapped[0]);
+		assertTrue(ran.indexOf("Writer") < ran.indexOf("Reader"));
+		//Systems that depend on the failing one are skipped, independent ones still ran
+		assertFalse(ran.contains("Failing"));
+		assertFalse(ran.contains("After Failing"));
+		assertTrue(ran.containsAll(List.of("Writer", "Reader", "Speed")));
+	}
+
+	@Test
+	void testUndeclaredSystemsRunAlone() {
+		List<String> ran = new CopyOnWriteArrayList<>();
+		TestSystem first = new TestSystem("First", ran, () -> {}).writes(EntityComponentManager.SPEED);
+		TestSystem undeclared = new TestSystem("Undeclared", ran, () -> {});
+		TestSystem last = new TestSystem("Last", ran, () -> {}).reads(EntityComponentManager.POSITION);
+
+		SystemScheduler scheduler = new SystemScheduler(4);
+		for (int i = 0; i < 20; i++) {
+			ran.clear();
+			scheduler.run(List.of(first, undeclared, last));
+			//Registration order is kept around an exclusive system
+			assertEquals(List.of("First", "Undeclared", "Last"), ran);
+		}
+		scheduler.shutdown();
+	}
+}
@@ -0,0 +1,66 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.ComponentType;
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.FloatComponent;
+import com.botifier.becs.entity.IntComponent;
+import com.botifier.becs.entity.World;
+import com.botifier.becs.util.events.EventManager;
+
+class UnboxedComponentTest {
+
+	static final ComponentType<Float> HEAT = EntityComponentManager.createComponent("UnboxedTestHeat", float.class);
+	static final ComponentType<Integer> AMMO = EntityComponentManager.createComponent("UnboxedTestAmmo", Integer.class);
+
+	@Test
+	void testPrimitiveTypesUseUnboxedComponents() {
+		Entity e = new Entity("Turret");
+		e.addComponent(HEAT, 1f);
+		e.addComponent(AMMO, 3);
+
+		//Primitive and wrapper data types both get the unboxed component
+		assertTrue(e.getComponent(HEAT) instanceof FloatComponent);
+		assertTrue(e.getComponent(AMMO) instanceof IntComponent);
+		FloatComponent heat = (FloatComponent) e.getComponent(HEAT);
+		heat.setFloat(2.5f);
+		assertEquals(2.5f, heat.getFloat());
+		assertEquals(Float.valueOf(2.5f), heat.get());
+		e.getComponent(AMMO).update(a -> a - 1);
+		assertEquals(2, ((IntComponent) e.getComponent(AMMO)).getInt());
+		e.destroy();
+	}
+
+	@Test
+	void testUpdateEventsAreOptInPerType() {
+		World w = new World();
+		EventManager em = new EventManager();
+		ComponentUpdateEventTest.UpdateListener l = new ComponentUpdateEventTest.UpdateListener();
+		em.registerListener(l);
+		w.setEventManager(em);
+		HEAT.setUpdateEvents(true);
+
+		Entity[] holder = new Entity[1];
+		w.run(() -> holder[0] = new Entity("Turret"));
+		Entity e = holder[0];
+		e.addComponent(HEAT, 0f);
+		e.addComponent(AMMO, 0);
+		((FloatComponent) e.getComponent(HEAT)).setFloat(4f);
+		//Types that didn't opt in stay silent
+		((IntComponent) e.getComponent(AMMO)).setInt(7);
+		//Setting the same value isn't an update
+		((FloatComponent) e.getComponent(HEAT)).setFloat(4f);
+		assertEquals(List.of(4f), l.values);
+
+		HEAT.setUpdateEvents(false);
+		((FloatComponent) e.getComponent(HEAT)).setFloat(5f);
+		assertEquals(List.of(4f), l.values);
+		e.destroy();
+	}
+}
@@ -0,0 +1,186 @@
+package com.botifier.junit.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.joml.Vector2f;
+import org.junit.jupiter.api.Test;
+
+import com.botifier.becs.entity.Entity;
+import com.botifier.becs.entity.EntityComponent;
+import com.botifier.becs.entity.EntityComponentManager;
+import com.botifier.becs.entity.OffHeapVector2fComponent;
+import com.botifier.becs.entity.Vector2fColumnStore;
+import com.botifier.becs.entity.World;
+import com.botifier.becs.events.EntityComponentUpdatedEvent;
+import com.botifier.becs.util.annotations.EventHandler;
+import com.botifier.becs.util.events.EventListener;
+import com.botifier.becs.util.events.EventManager;
+
+class Vector2fColumnStoreTest {
+
+	/**
+	 * Runs a test in its own world using a new store
+	 * @param capacity int Initial amount of rows
+	 * @param test Runnable Test to run
+	 */
+	private static void withStore(int capacity, Runnable test) {
+		Vector2fColumnStore store = new Vector2fColumnStore(capacity, EntityComponentManager.POSITION, EntityComponentManager.VELOCITY);
+		World w = new World();
+		w.run(() -> {
+			EntityComponentManager.setVector2fStore(store);
+			try {
+				test.run();
+			} finally {
+				EntityComponentManager.setVector2fStore(null);
+				store.destroy();
+			}
+		});
+	}
+
+	@Test
+	void testChangesGoThroughTheStore() {
+		withStore(Vector2fColumnStore.DEFAULT_CAPACITY, () -> {
+			Entity e = new Entity("Stored");
+			e.addComponent(EntityComponentManager.POSITION, new Vector2f(1, 2));
+			EntityComponent<Vector2f> c = e.getComponent(EntityComponentManager.POSITION);
+			assertTrue(c instanceof OffHeapVector2fComponent);
+			OffHeapVector2fComponent p = (OffHeapVector2fComponent) c;
+
+			//The returned vector is a copy
+			c.get().add(10, 10);
+			assertEquals(new Vector2f(1, 2), c.get());
+
+			p.set(p.getX() + 1, p.getY() + 1);
+			assertEquals(new Vector2f(2, 3), c.get());
+			c.update(v -> v.mul(2));
+			assertEquals(4f, p.getX());
+			assertEquals(6f, p.getY());
+			e.destroy();
+		});
+	}
+
+	@Test
+	void testGrowingKeepsRowsAndWrites() {
+		withStore(2, () -> {
+			Entity first = new Entity("First");
+			first.addComponent(EntityComponentManager.VELOCITY, new Vector2f(0, 0));
+			OffHeapVector2fComponent v = (OffHeapVector2fComponent) first.getComponent(EntityComponentManager.VELOCITY);
+
+			//Writes made while the store grows are not lost
+			Thread writer = new Thread(() -> {
+				for (int i = 1; i <= 10000; i++) {
+					v.set(i, -i);
+				}
+			});
+			writer.start();
+			Entity[] entities = new Entity[500];
+			for (int i = 0; i < entities.length; i++) {
+				entities[i] = new Entity("Grown");
+				entities[i].addComponent(EntityComponentManager.POSITION, new Vector2f(i, i * 2));
+			}
+			assertDoesNotThrow(() -> writer.join());
+
+			assertEquals(10000f, v.getX());
+			assertEquals(-10000f, v.getY());
+			assertEquals(entities.length + 1, EntityComponentManager.getVector2fStore().size());
+			for (int i = 0; i < entities.length; i++) {
+				assertEquals(new Vector2f(i, i * 2), entities[i].getComponent(EntityComponentManager.POSITION).get());
+			}
+			first.destroy();
+			for (Entity e : entities) {
+				e.destroy();
+			}
+			assertEquals(0, EntityComponentManager.getVector2fStore().size());
+		});
+	}
+
+	@Test
+	void testRemovingMovesTheLastRow() {
+		withStore(Vector2fColumnStore.DEFAULT_CAPACITY, () -> {
+			Entity a = new Entity("A");
+			Entity b = new Entity("B");
+			a.addComponent(EntityComponentManager.POSITION, new Vector2f(1, 1));
+			b.addComponent(EntityComponentManager.POSITION, new Vector2f(2, 2));
+			b.addComponent(EntityComponentManager.VELOCITY, new Vector2f(3, 3));
+
+			a.removeComponent(EntityComponentManager.POSITION);
+			Vector2fColumnStore store = EntityComponentManager.getVector2fStore();
+			assertEquals(1, store.size());
+			assertSame(b, store.getEntity(0));
+			assertEquals(new Vector2f(2, 2), b.getComponent(EntityComponentManager.POSITION).get());
+			assertEquals(new Vector2f(3, 3), b.getComponent(EntityComponentManager.VELOCITY).get());
+			a.destroy();
+			b.destroy();
+		});
+	}
+
+	public static class ReplacedListener extends EventListener {
+		final List<Vector2f> replaced = Collections.synchronizedList(new ArrayList<>());
+
+		@EventHandler(event = EntityComponentUpdatedEvent.class)
+		public void onUpdated(EntityComponentUpdatedEvent<?> e) {
+			replaced.add((Vector2f) e.getOldValue());
+		}
+	}
+
+	@Test
+	void testConcurrentWritersReplaceDifferentValues() {
+		withStore(Vector2fColumnStore.DEFAULT_CAPACITY, () -> {
+			EntityComponentManager.POSITION.setUpdateEvents(true);
+			EventManager em = new EventManager();
+			ReplacedListener l = new ReplacedListener();
+			em.registerListener(l);
+			World.current().setEventManager(em);
+			Entity e = new Entity("Contended");
+			e.addComponent(EntityComponentManager.POSITION, new Vector2f(-1, -1));
+			OffHeapVector2fComponent p = (OffHeapVector2fComponent) e.getComponent(EntityComponentManager.POSITION);
+
+			IntStream.range(0, 2000).parallel().forEach(i -> p.set(i, i));
+			EntityComponentManager.POSITION.setUpdateEvents(false);
+
+			//Every write replaced a different value, only the last one is never replaced
+			assertEquals(2000, l.replaced.size());
+			assertEquals(2000, new HashSet<>(l.replaced).size());
+			assertFalse(l.replaced.contains(p.get()));
+			e.destroy();
+		});
+	}
+
+	@Test
+	void testDestroyedStoreThrows() {
+		Vector2fColumnStore store = new Vector2fColumnStore(4, EntityComponentManager.POSITION);
+		store.destroy();
+		//Freed buffers are never reached
+		assertThrows(IllegalStateException.class, () -> store.getX(0, 0));
+		assertThrows(IllegalStateException.class, () -> store.getY(0, 0));
+		assertThrows(IllegalStateException.class, () -> store.set(0, 0, 1, 1));
+		assertThrows(IllegalStateException.class, () -> store.has(0, 0));
+		assertThrows(IllegalStateException.class, () -> store.getEntity(0));
+		assertThrows(IllegalStateException.class, () -> store.getColumn(EntityComponentManager.POSITION));
+		assertThrows(IllegalStateException.class, () -> store.integrate(EntityComponentManager.POSITION, EntityComponentManager.POSITION, 1));
+		store.destroy();
+	}
+
+	@Test
+	void testIntegrate() {
+		withStore(Vector2fColumnStore.DEFAULT_CAPACITY, () -> {
+			Entity moving = new Entity("Moving");
+			moving.addComponent(EntityComponentManager.POSITION, new Vector2f(0, 0));
+			moving.addComponent(EntityComponentManager.VELOCITY, new Vector2f(2, -4));
+			Entity still = new Entity("Still");
+			still.addComponent(EntityComponentManager.POSITION, new Vector2f(5, 5));
+
+			EntityComponentManager.getVector2fStore().integrate(EntityComponentManager.POSITION, EntityComponentManager.VELOCITY, 0.5f);
+			assertEquals(new Vector2f(1, -2), moving.getComponent(EntityComponentManager.POSITION).get());
+			assertEquals(new Vector2f(5, 5), still.getComponent(EntityComponentManager.POSITION).get());
+			moving.destroy();
+			still.destroy();
+		});
+	}
+}